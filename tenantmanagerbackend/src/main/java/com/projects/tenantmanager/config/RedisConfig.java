@@ -4,6 +4,11 @@ import com.fasterxml.jackson.annotation.JsonTypeInfo;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.jsontype.impl.LaissezFaireSubTypeValidator;
 import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.projects.tenantmanager.model.MaintenanceRequest;
+import com.projects.tenantmanager.service.MaintenanceChangeBroadcaster;
+import com.projects.tenantmanager.service.RedisSessionStore;
+import com.projects.tenantmanager.service.SessionRevocationListener;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.cache.CacheManager;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
@@ -11,11 +16,15 @@ import org.springframework.data.redis.cache.RedisCacheConfiguration;
 import org.springframework.data.redis.cache.RedisCacheManager;
 import org.springframework.data.redis.connection.RedisConnectionFactory;
 import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
 import org.springframework.data.redis.serializer.GenericJackson2JsonRedisSerializer;
+import org.springframework.data.redis.serializer.Jackson2JsonRedisSerializer;
 import org.springframework.data.redis.serializer.RedisSerializationContext;
 import org.springframework.data.redis.serializer.StringRedisSerializer;
 
 import java.time.Duration;
+import java.util.List;
 
 @Configuration
 public class RedisConfig {
@@ -37,6 +46,38 @@ public class RedisConfig {
         return template;
     }
 
+    @Bean
+    RedisTemplate<String, MaintenanceRequest> maintenanceRequestTemplate(RedisConnectionFactory connectionFactory) {
+        ObjectMapper objectMapper = new ObjectMapper();
+        objectMapper.registerModule(new JavaTimeModule());
+
+        RedisTemplate<String, MaintenanceRequest> template = new RedisTemplate<>();
+        template.setConnectionFactory(connectionFactory);
+        template.setKeySerializer(new StringRedisSerializer());
+        // One known type, so no type information is written into each value
+        template.setValueSerializer(new Jackson2JsonRedisSerializer<>(objectMapper, MaintenanceRequest.class));
+        template.afterPropertiesSet();
+        return template;
+    }
+
+    @Bean
+    RedisMessageListenerContainer redisMessageListenerContainer(RedisConnectionFactory connectionFactory,
+            ObjectProvider<SessionRevocationListener> sessionRevocationListener,
+            MaintenanceChangeBroadcaster maintenanceChangeBroadcaster) {
+        RedisMessageListenerContainer container = new RedisMessageListenerContainer();
+        container.setConnectionFactory(connectionFactory);
+
+        // Keep every node's session near-caches in sync with logouts
+        sessionRevocationListener.ifAvailable(listener -> container.addMessageListener(listener, List.of(
+                new ChannelTopic(RedisSessionStore.REVOCATION_CHANNEL),
+                new ChannelTopic(RedisSessionStore.GENERATION_CHANNEL))));
+
+        // Keep every node's maintenance filter index in sync with the others' writes
+        container.addMessageListener(maintenanceChangeBroadcaster,
+                new ChannelTopic(MaintenanceChangeBroadcaster.CHANNEL));
+        return container;
+    }
+
     @Bean
     CacheManager cacheManager(RedisConnectionFactory connectionFactory) {
         ObjectMapper objectMapper = new ObjectMapper();
@@ -58,7 +99,6 @@ public class RedisConfig {
         return RedisCacheManager.builder(connectionFactory)
                 .cacheDefaults(config)
                 .withCacheConfiguration("users", config.entryTtl(Duration.ofHours(1)))
-                .withCacheConfiguration("maintenanceRequests", config.entryTtl(Duration.ofMinutes(5)))
                 .withCacheConfiguration("validTokens", config.entryTtl(Duration.ofHours(10)))
                 .build();
     }
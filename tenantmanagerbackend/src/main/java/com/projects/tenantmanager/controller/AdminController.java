@@ -1,7 +1,24 @@
 package com.projects.tenantmanager.controller;
 
+import com.projects.tenantmanager.dto.BulkStatusUpdateDto;
+import com.projects.tenantmanager.dto.BulkUpdateResult;
+import com.projects.tenantmanager.dto.ImportJobStatus;
+import com.projects.tenantmanager.dto.MaintenanceChangePage;
+import com.projects.tenantmanager.dto.MaintenanceRequestPage;
+import com.projects.tenantmanager.dto.MaintenanceSearchHit;
+import com.projects.tenantmanager.dto.MaintenanceStatsDto;
 import com.projects.tenantmanager.model.MaintenanceRequest;
+import com.projects.tenantmanager.model.MaintenanceRequest.Department;
+import com.projects.tenantmanager.model.MaintenanceRequest.Status;
+import com.projects.tenantmanager.service.ExportFormat;
+import com.projects.tenantmanager.service.MaintenanceChangeFeedService;
+import com.projects.tenantmanager.service.MaintenanceEventHub;
+import com.projects.tenantmanager.service.MaintenanceExportService;
+import com.projects.tenantmanager.service.MaintenanceImportService;
+import com.projects.tenantmanager.service.MaintenanceListingVersions;
+import com.projects.tenantmanager.service.MaintenanceSearchService;
 import com.projects.tenantmanager.service.MaintenanceService;
+import com.projects.tenantmanager.service.MaintenanceStats;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.media.Content;
@@ -10,14 +27,30 @@ import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletResponse;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Sort;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.CacheControl;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.time.Instant;
 import java.util.List;
 import java.util.Map;
 import java.util.UUID;
+import java.util.zip.GZIPOutputStream;
 
 @RestController
 @RequestMapping("/api/admin")
@@ -27,44 +60,277 @@ import java.util.UUID;
 public class AdminController {
 
     private static final Logger logger = LoggerFactory.getLogger(AdminController.class);
+
+    /**
+     * Cached listings are revalidated on every use, by their ETag; setting it
+     * also replaces Spring Security's default no-store
+     */
+    private static final CacheControl LISTING_CACHE = CacheControl.noCache().cachePrivate();
+
     private final MaintenanceService maintenanceService;
+    private final MaintenanceStats maintenanceStats;
+    private final MaintenanceExportService exportService;
+    private final MaintenanceImportService importService;
+    private final MaintenanceSearchService searchService;
+    private final MaintenanceListingVersions listingVersions;
+    private final MaintenanceChangeFeedService changeFeedService;
+    private final MaintenanceEventHub eventHub;
+    private final int defaultPageSize;
+    private final int maxPageSize;
+    private final int maxBulkSize;
 
-    public AdminController(MaintenanceService maintenanceService) {
+    public AdminController(MaintenanceService maintenanceService, MaintenanceStats maintenanceStats,
+            MaintenanceExportService exportService, MaintenanceImportService importService,
+            MaintenanceSearchService searchService, MaintenanceListingVersions listingVersions,
+            MaintenanceChangeFeedService changeFeedService, MaintenanceEventHub eventHub,
+            @Value("${maintenance.page.default-size:50}") int defaultPageSize,
+            @Value("${maintenance.page.max-size:500}") int maxPageSize,
+            @Value("${maintenance.bulk.max-size:1000}") int maxBulkSize) {
         this.maintenanceService = maintenanceService;
+        this.maintenanceStats = maintenanceStats;
+        this.exportService = exportService;
+        this.importService = importService;
+        this.searchService = searchService;
+        this.listingVersions = listingVersions;
+        this.changeFeedService = changeFeedService;
+        this.eventHub = eventHub;
+        this.defaultPageSize = defaultPageSize;
+        this.maxPageSize = maxPageSize;
+        this.maxBulkSize = maxBulkSize;
     }
 
-    @Operation(summary = "Get all maintenance requests", description = "Retrieves all maintenance requests with optional filtering by status and/or department")
+    @Operation(summary = "Get all maintenance requests", description = "Retrieves all maintenance requests with optional filtering by status and/or department. The response carries an ETag; a request whose If-None-Match matches the current listing version is answered with 304 without reading the listing")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Requests retrieved successfully", content = @Content(mediaType = "application/json", schema = @Schema(implementation = MaintenanceRequest.class))),
+            @ApiResponse(responseCode = "304", description = "Listing unchanged since the given ETag", content = @Content),
             @ApiResponse(responseCode = "400", description = "Bad request", content = @Content)
     })
     @GetMapping("/maintenance")
     public ResponseEntity<List<MaintenanceRequest>> getAllRequests(
             @Parameter(description = "Filter by status (PENDING, IN_PROGRESS, COMPLETED, REJECTED, or ALL)") @RequestParam(required = false) String status,
-            @Parameter(description = "Filter by department (PLUMBING, ELECTRICAL, HVAC, etc., or ALL)") @RequestParam(required = false) String department) {
+            @Parameter(description = "Filter by department (PLUMBING, ELECTRICAL, HVAC, etc., or ALL)") @RequestParam(required = false) String department,
+            WebRequest webRequest) {
         logger.info("Fetching maintenance requests with status filter: {} and department filter: {}", status,
                 department);
         try {
+            boolean byStatus = status != null && !status.equals("ALL");
+            boolean byDepartment = department != null && !department.equals("ALL");
+
+            // The version is read before the listing, so the listing is at least as new as its ETag
+            String etag = listingVersions.etag(byStatus ? Status.valueOf(status) : null,
+                    byDepartment ? Department.valueOf(department) : null);
+            if (etag != null && webRequest.checkNotModified(etag)) {
+                return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).cacheControl(LISTING_CACHE).build();
+            }
+
             List<MaintenanceRequest> requests;
 
             // Filter by both status and department if provided
-            if (status != null && !status.equals("ALL") && department != null && !department.equals("ALL")) {
+            if (byStatus && byDepartment) {
                 requests = maintenanceService.getRequestsByStatusAndDepartment(status, department);
-            } else if (status != null && !status.equals("ALL")) {
+            } else if (byStatus) {
                 requests = maintenanceService.getRequestsByStatus(status);
-            } else if (department != null && !department.equals("ALL")) {
+            } else if (byDepartment) {
                 requests = maintenanceService.getRequestsByDepartment(department);
             } else {
                 requests = maintenanceService.getAllRequests();
             }
 
-            return ResponseEntity.ok(requests);
+            if (etag == null) {
+                return ResponseEntity.ok(requests);
+            }
+            return ResponseEntity.ok().eTag(etag).cacheControl(LISTING_CACHE).body(requests);
         } catch (Exception e) {
             logger.error("Error fetching maintenance requests", e);
             return ResponseEntity.badRequest().build();
         }
     }
 
+    @Operation(summary = "Get a page of maintenance requests", description = "Returns one page of maintenance requests ordered by creation time, with optional status, department and creation time filters, and the cursor of the next page (null on the last page)")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Page retrieved successfully", content = @Content(mediaType = "application/json", schema = @Schema(implementation = MaintenanceRequestPage.class))),
+            @ApiResponse(responseCode = "400", description = "Bad request", content = @Content)
+    })
+    @GetMapping("/maintenance/page")
+    public ResponseEntity<MaintenanceRequestPage> getRequestPage(
+            @Parameter(description = "Filter by status (OPEN, IN_PROGRESS, RESOLVED, REJECTED, or ALL)") @RequestParam(required = false) String status,
+            @Parameter(description = "Filter by department (PLUMBING, ELECTRICAL, HVAC, etc., or ALL)") @RequestParam(required = false) String department,
+            @Parameter(description = "Only requests created at or after this instant (ISO-8601)") @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant from,
+            @Parameter(description = "Only requests created before this instant (ISO-8601)") @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant to,
+            @Parameter(description = "Creation time order, DESC (newest first) or ASC") @RequestParam(defaultValue = "DESC") Sort.Direction direction,
+            @Parameter(description = "Cursor returned by the previous page; omit for the first page") @RequestParam(required = false) String cursor,
+            @Parameter(description = "Number of requests per page") @RequestParam(required = false) Integer size) {
+        logger.info("Fetching page of maintenance requests with status filter: {}, department filter: {}, cursor: {}",
+                status, department, cursor);
+        try {
+            int pageSize = size == null ? defaultPageSize : Math.min(Math.max(size, 1), maxPageSize);
+            MaintenanceRequestPage page = maintenanceService.getRequestPage(
+                    status == null || status.equals("ALL") ? null : Status.valueOf(status),
+                    department == null || department.equals("ALL") ? null : Department.valueOf(department),
+                    from, to, direction, cursor, pageSize);
+            return ResponseEntity.ok(page);
+        } catch (Exception e) {
+            logger.error("Error fetching page of maintenance requests", e);
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
+    @Operation(summary = "Get maintenance request changes", description = "Returns the maintenance requests created or updated after the given position, in change order, with the token to pass as since on the next call. Changes younger than a few seconds are held back until all earlier ones are visible")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Changes retrieved successfully", content = @Content(mediaType = "application/json", schema = @Schema(implementation = MaintenanceChangePage.class))),
+            @ApiResponse(responseCode = "400", description = "Bad request", content = @Content)
+    })
+    @GetMapping("/maintenance/changes")
+    public ResponseEntity<MaintenanceChangePage> getChanges(
+            @Parameter(description = "Token returned by the previous call, or an ISO-8601 instant to start from; omit to start from the beginning") @RequestParam(required = false) String since,
+            @Parameter(description = "Maximum number of requests to return") @RequestParam(required = false) Integer limit) {
+        logger.info("Fetching maintenance request changes since: {}", since);
+        try {
+            int maxChanges = limit == null ? defaultPageSize : Math.min(Math.max(limit, 1), maxPageSize);
+            // Tokens are base64url, which has no colon; instants always do
+            boolean isInstant = since != null && since.contains(":");
+            MaintenanceChangePage page = changeFeedService.getChanges(isInstant ? null : since,
+                    isInstant ? Instant.parse(since) : null, maxChanges);
+            return ResponseEntity.ok(page);
+        } catch (Exception e) {
+            logger.error("Error fetching maintenance request changes", e);
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
+    @Operation(summary = "Stream maintenance request updates", description = "Server-sent events for maintenance requests created or changed on this server: created and status events carry the request id, old and new status and department; a refetch event replaces the events of a large bulk update. Clients that fall behind are disconnected and should catch up from the change feed after reconnecting")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Event stream opened", content = @Content(mediaType = "text/event-stream")),
+            @ApiResponse(responseCode = "503", description = "Too many open event streams", content = @Content)
+    })
+    @GetMapping(path = "/maintenance/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public ResponseEntity<SseEmitter> streamEvents() {
+        logger.info("Opening maintenance event stream");
+        try {
+            // Proxies must not buffer the stream
+            return ResponseEntity.ok().header("X-Accel-Buffering", "no").body(eventHub.subscribe());
+        } catch (IllegalStateException e) {
+            logger.warn("Refusing maintenance event stream: {}", e.getMessage());
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).build();
+        }
+    }
+
+    @Operation(summary = "Search maintenance requests", description = "Full-text search over the description, unit number and tenant name of maintenance requests, best match first, with optional status and department filters")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Search completed successfully", content = @Content(mediaType = "application/json", schema = @Schema(implementation = MaintenanceSearchHit.class))),
+            @ApiResponse(responseCode = "400", description = "Bad request", content = @Content),
+            @ApiResponse(responseCode = "503", description = "Search index is still being built", content = @Content)
+    })
+    @GetMapping("/maintenance/search")
+    public ResponseEntity<?> searchRequests(
+            @Parameter(description = "Search terms; requests matching more of them rank higher") @RequestParam String q,
+            @Parameter(description = "Filter by status (OPEN, IN_PROGRESS, RESOLVED, REJECTED, or ALL)") @RequestParam(required = false) String status,
+            @Parameter(description = "Filter by department (PLUMBING, ELECTRICAL, HVAC, etc., or ALL)") @RequestParam(required = false) String department,
+            @Parameter(description = "Maximum number of results") @RequestParam(required = false) Integer limit) {
+        logger.info("Searching maintenance requests with status filter: {} and department filter: {}", status,
+                department);
+        try {
+            int maxResults = limit == null ? defaultPageSize : Math.min(Math.max(limit, 1), maxPageSize);
+            List<MaintenanceSearchHit> hits = searchService.search(q,
+                    status == null || status.equals("ALL") ? null : Status.valueOf(status),
+                    department == null || department.equals("ALL") ? null : Department.valueOf(department),
+                    maxResults);
+            return ResponseEntity.ok(hits);
+        } catch (IllegalStateException e) {
+            logger.warn("Search unavailable: {}", e.getMessage());
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).body(e.getMessage());
+        } catch (Exception e) {
+            logger.error("Error searching maintenance requests", e);
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+    }
+
+    @Operation(summary = "Get maintenance request counts", description = "Returns the number of maintenance requests per status and department, per status, and in total, from in-memory counters")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Counts retrieved successfully", content = @Content(mediaType = "application/json", schema = @Schema(implementation = MaintenanceStatsDto.class)))
+    })
+    @GetMapping("/maintenance/stats")
+    public ResponseEntity<MaintenanceStatsDto> getStats() {
+        return ResponseEntity.ok(maintenanceStats.getStats());
+    }
+
+    @Operation(summary = "Export maintenance requests", description = "Streams all maintenance requests matching the optional status, department and creation time filters, oldest first, as NDJSON or CSV, optionally gzip-compressed")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Export streamed successfully"),
+            @ApiResponse(responseCode = "400", description = "Bad request", content = @Content)
+    })
+    @GetMapping("/maintenance/export")
+    public void exportRequests(
+            @Parameter(description = "Output format, NDJSON or CSV") @RequestParam(defaultValue = "NDJSON") String format,
+            @Parameter(description = "Filter by status (OPEN, IN_PROGRESS, RESOLVED, REJECTED, or ALL)") @RequestParam(required = false) String status,
+            @Parameter(description = "Filter by department (PLUMBING, ELECTRICAL, HVAC, etc., or ALL)") @RequestParam(required = false) String department,
+            @Parameter(description = "Only requests created at or after this instant (ISO-8601)") @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant from,
+            @Parameter(description = "Only requests created before this instant (ISO-8601)") @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant to,
+            @Parameter(description = "Compress the export as a .gz file") @RequestParam(defaultValue = "false") boolean gzip,
+            HttpServletResponse response) throws IOException {
+        logger.info("Exporting maintenance requests as {} with status filter: {} and department filter: {}", format,
+                status, department);
+        ExportFormat exportFormat;
+        Status statusFilter;
+        Department departmentFilter;
+        try {
+            exportFormat = ExportFormat.valueOf(format.toUpperCase());
+            statusFilter = status == null || status.equals("ALL") ? null : Status.valueOf(status);
+            departmentFilter = department == null || department.equals("ALL") ? null : Department.valueOf(department);
+        } catch (IllegalArgumentException e) {
+            logger.error("Invalid export parameters", e);
+            response.sendError(HttpServletResponse.SC_BAD_REQUEST, e.getMessage());
+            return;
+        }
+
+        String filename = "maintenance-requests." + exportFormat.getExtension() + (gzip ? ".gz" : "");
+        response.setContentType(gzip ? "application/gzip" : exportFormat.getContentType() + ";charset=UTF-8");
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION,
+                ContentDisposition.attachment().filename(filename).build().toString());
+
+        // Rows are written as they are read, so errors after this point can only abort the response
+        OutputStream out = response.getOutputStream();
+        if (gzip) {
+            out = new GZIPOutputStream(out, 64 * 1024);
+        }
+        exportService.export(statusFilter, departmentFilter, from, to, exportFormat, out);
+        if (gzip) {
+            ((GZIPOutputStream) out).finish();
+        }
+        out.flush();
+    }
+
+    @Operation(summary = "Import maintenance requests", description = "Starts a background import of maintenance requests from a CSV (with a header row) or NDJSON request body. Rows are validated and de-duplicated within the import, and keep their createdAt when given; progress is reported by the import status endpoint")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "202", description = "Import started", content = @Content(mediaType = "application/json", schema = @Schema(implementation = ImportJobStatus.class))),
+            @ApiResponse(responseCode = "400", description = "Bad request", content = @Content)
+    })
+    @PostMapping("/maintenance/import")
+    public ResponseEntity<?> importRequests(
+            @Parameter(description = "Input format, CSV or NDJSON") @RequestParam(defaultValue = "CSV") String format,
+            InputStream body) {
+        logger.info("Importing maintenance requests as {}", format);
+        try {
+            ImportJobStatus status = importService.start(body, ExportFormat.valueOf(format.toUpperCase()));
+            return ResponseEntity.accepted().body(status);
+        } catch (Exception e) {
+            logger.error("Error starting import", e);
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+    }
+
+    @Operation(summary = "Get import status", description = "Returns the progress of a maintenance request import started in the last 24 hours")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Status retrieved successfully", content = @Content(mediaType = "application/json", schema = @Schema(implementation = ImportJobStatus.class))),
+            @ApiResponse(responseCode = "404", description = "Import not found", content = @Content)
+    })
+    @GetMapping("/maintenance/import/{id}")
+    public ResponseEntity<ImportJobStatus> getImportStatus(
+            @Parameter(description = "ID of the import") @PathVariable UUID id) {
+        ImportJobStatus status = importService.getStatus(id);
+        return status == null ? ResponseEntity.notFound().build() : ResponseEntity.ok(status);
+    }
+
     @Operation(summary = "Approve maintenance request", description = "Changes the status of a maintenance request to COMPLETED")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Request approved successfully", content = @Content(mediaType = "application/json", schema = @Schema(implementation = MaintenanceRequest.class))),
@@ -120,4 +386,63 @@ public class AdminController {
             return ResponseEntity.badRequest().body(e.getMessage());
         }
     }
-}
\ No newline at end of file
+
+    @Operation(summary = "Approve maintenance requests in bulk", description = "Changes the status of each listed maintenance request to IN_PROGRESS in one transaction, and returns the outcome per id")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Requests processed", content = @Content(mediaType = "application/json", schema = @Schema(implementation = BulkUpdateResult.class))),
+            @ApiResponse(responseCode = "400", description = "Error approving requests", content = @Content)
+    })
+    @PutMapping("/maintenance/bulk/approve")
+    public ResponseEntity<?> approveRequests(@RequestBody BulkStatusUpdateDto bulkUpdate) {
+        logger.info("Approving maintenance requests in bulk");
+        try {
+            return ResponseEntity.ok(maintenanceService.approveRequests(bulkIds(bulkUpdate)));
+        } catch (Exception e) {
+            logger.error("Error approving requests", e);
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+    }
+
+    @Operation(summary = "Reject maintenance requests in bulk", description = "Changes the status of each listed maintenance request to REJECTED in one transaction, and returns the outcome per id")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Requests processed", content = @Content(mediaType = "application/json", schema = @Schema(implementation = BulkUpdateResult.class))),
+            @ApiResponse(responseCode = "400", description = "Error rejecting requests", content = @Content)
+    })
+    @PutMapping("/maintenance/bulk/reject")
+    public ResponseEntity<?> rejectRequests(@RequestBody BulkStatusUpdateDto bulkUpdate) {
+        logger.info("Rejecting maintenance requests in bulk");
+        try {
+            return ResponseEntity.ok(maintenanceService.rejectRequests(bulkIds(bulkUpdate)));
+        } catch (Exception e) {
+            logger.error("Error rejecting requests", e);
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+    }
+
+    @Operation(summary = "Update maintenance request statuses in bulk", description = "Updates the status of each listed maintenance request in one transaction, and returns the outcome per id")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Requests processed", content = @Content(mediaType = "application/json", schema = @Schema(implementation = BulkUpdateResult.class))),
+            @ApiResponse(responseCode = "400", description = "Error updating statuses", content = @Content)
+    })
+    @PutMapping("/maintenance/bulk/status")
+    public ResponseEntity<?> updateStatuses(@RequestBody BulkStatusUpdateDto bulkUpdate) {
+        logger.info("Updating status of maintenance requests in bulk to {}", bulkUpdate.getStatus());
+        try {
+            return ResponseEntity.ok(maintenanceService.updateStatuses(bulkIds(bulkUpdate), bulkUpdate.getStatus()));
+        } catch (Exception e) {
+            logger.error("Error updating statuses", e);
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+    }
+
+    private List<UUID> bulkIds(BulkStatusUpdateDto bulkUpdate) {
+        List<UUID> ids = bulkUpdate.getIds();
+        if (ids == null || ids.isEmpty()) {
+            throw new IllegalArgumentException("No request ids given");
+        }
+        if (ids.size() > maxBulkSize) {
+            throw new IllegalArgumentException("At most " + maxBulkSize + " requests can be updated at once");
+        }
+        return ids;
+    }
+}
@@ -1,12 +1,16 @@
 package com.projects.tenantmanager.controller;
 
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
 import com.projects.tenantmanager.model.MaintenanceRequest;
 import com.projects.tenantmanager.service.MaintenanceService;
 import com.projects.tenantmanager.dto.MaintenanceRequestDto;
+import com.projects.tenantmanager.dto.MaintenanceRequestPage;
+import com.projects.tenantmanager.exception.DuplicateRequestException;
 import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.media.Content;
 import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
@@ -25,9 +29,15 @@ public class MaintenanceController {
 
     private static final Logger logger = LoggerFactory.getLogger(MaintenanceController.class);
     private final MaintenanceService maintenanceService;
+    private final int defaultPageSize;
+    private final int maxPageSize;
 
-    public MaintenanceController(MaintenanceService maintenanceService) {
+    public MaintenanceController(MaintenanceService maintenanceService,
+            @Value("${maintenance.page.default-size:50}") int defaultPageSize,
+            @Value("${maintenance.page.max-size:500}") int maxPageSize) {
         this.maintenanceService = maintenanceService;
+        this.defaultPageSize = defaultPageSize;
+        this.maxPageSize = maxPageSize;
     }
 
     @Operation(summary = "Create maintenance request", description = "Creates a new maintenance request for the authenticated tenant")
@@ -42,16 +52,35 @@ public class MaintenanceController {
         try {
             String username = authentication.getName();
             logger.info("Received maintenance request from user: {}", username);
-            if(maintenanceService.checkRequestExist(requestDto)) {
-            	return ResponseEntity.badRequest().body("Request Already Exist");
-            }else {
-            	MaintenanceRequest request = maintenanceService.createRequest(requestDto, username);
-            	logger.info("Successfully created maintenance request with ID: {}", request.getId());
-            	return ResponseEntity.ok(request);	
-            }
+            MaintenanceRequest request = maintenanceService.createRequest(requestDto, username);
+            logger.info("Successfully created maintenance request with ID: {}", request.getId());
+            return ResponseEntity.ok(request);
+        } catch (DuplicateRequestException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
         } catch (Exception e) {
             logger.error("Error creating maintenance request", e);
             return ResponseEntity.badRequest().body(e.getMessage());
         }
     }
-}
\ No newline at end of file
+
+    @Operation(summary = "Get my maintenance requests", description = "Returns one page of the authenticated tenant's maintenance requests, newest first. Pass the returned nextCursor as cursor to get the next page; it is null on the last page")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Page retrieved successfully", content = @Content(mediaType = "application/json", schema = @Schema(implementation = MaintenanceRequestPage.class))),
+            @ApiResponse(responseCode = "400", description = "Invalid cursor", content = @Content)
+    })
+    @GetMapping("/mine")
+    public ResponseEntity<MaintenanceRequestPage> getMyRequests(
+            @Parameter(description = "Opaque cursor from the previous page; omit for the first page") @RequestParam(required = false) String cursor,
+            @Parameter(description = "Number of requests per page") @RequestParam(required = false) Integer size,
+            Authentication authentication) {
+        String username = authentication.getName();
+        logger.info("Fetching maintenance requests of user: {}", username);
+        try {
+            int pageSize = size == null ? defaultPageSize : Math.min(Math.max(size, 1), maxPageSize);
+            return ResponseEntity.ok(maintenanceService.getTenantRequestPage(username, cursor, pageSize));
+        } catch (Exception e) {
+            logger.error("Error fetching maintenance requests of user: {}", username, e);
+            return ResponseEntity.badRequest().build();
+        }
+    }
+}
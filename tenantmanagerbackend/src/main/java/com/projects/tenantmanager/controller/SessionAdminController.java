@@ -0,0 +1,76 @@
+package com.projects.tenantmanager.controller;
+
+import com.projects.tenantmanager.dto.SessionPage;
+import com.projects.tenantmanager.service.SessionService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.security.SecurityRequirement;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/admin/sessions")
+@CrossOrigin(origins = "http://localhost:3000")
+@Tag(name = "Session Admin", description = "Admin operations for managing user sessions")
+@SecurityRequirement(name = "bearerAuth")
+public class SessionAdminController {
+
+    private static final Logger logger = LoggerFactory.getLogger(SessionAdminController.class);
+    private static final int MAX_PAGE_SIZE = 1000;
+
+    private final SessionService sessionService;
+
+    public SessionAdminController(SessionService sessionService) {
+        this.sessionService = sessionService;
+    }
+
+    @Operation(summary = "List active sessions", description = "Returns one page of active sessions and the cursor of the next page (\"0\" when there are no more pages)")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Sessions retrieved successfully", content = @Content(mediaType = "application/json", schema = @Schema(implementation = SessionPage.class))),
+            @ApiResponse(responseCode = "400", description = "Invalid cursor, or sessions cannot be listed in the configured session mode", content = @Content),
+            @ApiResponse(responseCode = "500", description = "The session store could not be read", content = @Content)
+    })
+    @GetMapping
+    public ResponseEntity<?> listSessions(
+            @Parameter(description = "Cursor returned by the previous page, or 0 to start") @RequestParam(defaultValue = "0") String cursor,
+            @Parameter(description = "Approximate number of sessions per page") @RequestParam(defaultValue = "100") int count) {
+        logger.info("Listing active sessions from cursor: {}", cursor);
+        try {
+            return ResponseEntity.ok(sessionService.listSessions(cursor, Math.min(Math.max(count, 1), MAX_PAGE_SIZE)));
+        } catch (IllegalArgumentException | IllegalStateException e) {
+            logger.warn("Cannot list sessions: {}", e.getMessage());
+            return ResponseEntity.badRequest().body(e.getMessage());
+        } catch (Exception e) {
+            logger.error("Error listing sessions", e);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
+        }
+    }
+
+    @Operation(summary = "Revoke sessions", description = "Logs out every user in the given list")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Sessions revoked successfully", content = @Content),
+            @ApiResponse(responseCode = "400", description = "Error revoking sessions", content = @Content)
+    })
+    @PostMapping("/revoke")
+    public ResponseEntity<?> revokeSessions(@RequestBody List<String> usernames) {
+        logger.info("Revoking sessions for {} users", usernames.size());
+        try {
+            int revoked = sessionService.invalidateSessions(usernames);
+            return ResponseEntity.ok(Map.of("revoked", revoked));
+        } catch (Exception e) {
+            logger.error("Error revoking sessions", e);
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+    }
+}
@@ -2,7 +2,9 @@ package com.projects.tenantmanager.controller;
 
 import com.projects.tenantmanager.dto.AuthResponse;
 import com.projects.tenantmanager.dto.LoginRequest;
+import com.projects.tenantmanager.exception.ServiceBusyException;
 import com.projects.tenantmanager.security.JwtUtil;
+import com.projects.tenantmanager.security.LoginAttemptLimiter;
 import com.projects.tenantmanager.service.UserService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.media.Content;
@@ -10,8 +12,11 @@ import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletRequest;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.authentication.BadCredentialsException;
 import org.springframework.web.bind.annotation.*;
@@ -25,28 +30,43 @@ public class SignInController {
 
     private final UserService userService;
     private final JwtUtil jwtUtil;
+    private final LoginAttemptLimiter loginAttemptLimiter;
 
-    SignInController(UserService userService, JwtUtil jwtUtil) {
+    SignInController(UserService userService, JwtUtil jwtUtil, LoginAttemptLimiter loginAttemptLimiter) {
         this.userService = userService;
         this.jwtUtil = jwtUtil;
+        this.loginAttemptLimiter = loginAttemptLimiter;
     }
 
     /**
      * Authenticates a user and generates a JWT token
      * 
      * @param loginRequest The login credentials
+     * @param request      The HTTP request, used for the client address
      * @return ResponseEntity containing the JWT token if authentication is
      *         successful
      */
     @Operation(summary = "User login", description = "Authenticates a user with username and password, returns JWT token and user details")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Login successful", content = @Content(mediaType = "application/json", schema = @Schema(implementation = AuthResponse.class))),
-            @ApiResponse(responseCode = "401", description = "Invalid credentials", content = @Content)
+            @ApiResponse(responseCode = "401", description = "Invalid credentials", content = @Content),
+            @ApiResponse(responseCode = "429", description = "Too many failed attempts for this user or address", content = @Content),
+            @ApiResponse(responseCode = "500", description = "Authentication could not be completed", content = @Content),
+            @ApiResponse(responseCode = "503", description = "Too many concurrent logins, retry after the given delay", content = @Content)
     })
     @PostMapping("/signin")
-    public ResponseEntity<AuthResponse> authenticateUser(@RequestBody LoginRequest loginRequest) {
+    public ResponseEntity<AuthResponse> authenticateUser(@RequestBody LoginRequest loginRequest,
+            HttpServletRequest request) {
         logger.info("Attempting authentication for user: {}", loginRequest.getUsername());
 
+        // Reject over-budget attempts before touching the database or the password hash
+        String clientIp = request.getRemoteAddr();
+        if (!loginAttemptLimiter.tryAcquire(loginRequest.getUsername(), clientIp)) {
+            return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                    .header(HttpHeaders.RETRY_AFTER, String.valueOf(loginAttemptLimiter.getWindowSeconds()))
+                    .build();
+        }
+
         try {
             // Authenticate user
             AuthResponse response = userService.authenticate(loginRequest.getUsername(), loginRequest.getPassword());
@@ -54,9 +74,19 @@ public class SignInController {
             logger.info("User authenticated successfully: {}", loginRequest.getUsername());
 
             return ResponseEntity.ok(response);
-        } catch (Exception e) {
-            logger.error("Authentication failed for user: {}", loginRequest.getUsername(), e);
+        } catch (ServiceBusyException e) {
+            logger.warn("Login shed for user: {}: {}", loginRequest.getUsername(), e.getMessage());
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                    .header(HttpHeaders.RETRY_AFTER, String.valueOf(e.getRetryAfterSeconds()))
+                    .build();
+        } catch (BadCredentialsException e) {
+            loginAttemptLimiter.recordFailure(loginRequest.getUsername(), clientIp);
+            logger.warn("Authentication failed for user: {}", loginRequest.getUsername());
             throw new BadCredentialsException("Invalid username or password");
+        } catch (Exception e) {
+            // Not the client's fault, so it does not count against its login budget
+            logger.error("Authentication error for user: {}", loginRequest.getUsername(), e);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
         }
     }
 
@@ -0,0 +1,11 @@
+package com.projects.tenantmanager.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+@Data
+@AllArgsConstructor
+public class ActiveSessionDto {
+    private String username;
+    private long expiresInSeconds;
+}
@@ -0,0 +1,17 @@
+package com.projects.tenantmanager.dto;
+
+import java.util.List;
+import java.util.UUID;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class BulkStatusUpdateDto {
+    private List<UUID> ids;
+    /** Target status; ignored by bulk approve and reject */
+    private String status;
+}
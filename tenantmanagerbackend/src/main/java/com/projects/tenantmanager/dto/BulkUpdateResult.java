@@ -0,0 +1,21 @@
+package com.projects.tenantmanager.dto;
+
+import java.util.UUID;
+
+import com.projects.tenantmanager.model.MaintenanceRequest.Status;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+@Data
+@AllArgsConstructor
+public class BulkUpdateResult {
+    private UUID id;
+    private Outcome outcome;
+    /** Status after the update, null when the request was not found */
+    private Status status;
+
+    public enum Outcome {
+        UPDATED, NOT_FOUND
+    }
+}
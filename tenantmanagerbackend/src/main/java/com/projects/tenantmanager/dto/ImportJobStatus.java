@@ -0,0 +1,27 @@
+package com.projects.tenantmanager.dto;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+@Data
+@AllArgsConstructor
+public class ImportJobStatus {
+    private UUID id;
+    private State state;
+    private long rowsRead;
+    private long imported;
+    private long duplicates;
+    private long invalid;
+    /** The first rejected rows, with their line numbers */
+    private List<String> errors;
+    private Instant startedAt;
+    private Instant finishedAt;
+
+    public enum State {
+        RUNNING, COMPLETED, FAILED
+    }
+}
@@ -0,0 +1,25 @@
+package com.projects.tenantmanager.dto;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * Position in the change feed: the change sequence of the last request
+ * returned. Clients treat the encoded form as opaque.
+ */
+public record MaintenanceChangeToken(long changeSeq) {
+
+    public String encode() {
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString(Long.toString(changeSeq).getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static MaintenanceChangeToken decode(String token) {
+        try {
+            return new MaintenanceChangeToken(
+                    Long.parseLong(new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8)));
+        } catch (RuntimeException e) {
+            throw new IllegalArgumentException("Invalid change token: " + token, e);
+        }
+    }
+}
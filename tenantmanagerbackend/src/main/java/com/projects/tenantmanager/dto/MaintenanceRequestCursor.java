@@ -0,0 +1,36 @@
+package com.projects.tenantmanager.dto;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.Base64;
+import java.util.UUID;
+
+/**
+ * Position of a page in the keyset order {@code (createdAt, id)}: the key of
+ * the last request on the previous page. Clients treat the encoded form as
+ * opaque.
+ */
+public record MaintenanceRequestCursor(Instant createdAt, UUID id) {
+
+    public MaintenanceRequestCursor {
+        // The database keeps microseconds, so compare at that precision
+        createdAt = createdAt.truncatedTo(ChronoUnit.MICROS);
+    }
+
+    public String encode() {
+        String key = createdAt + "|" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(key.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static MaintenanceRequestCursor decode(String cursor) {
+        try {
+            String key = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int separator = key.indexOf('|');
+            return new MaintenanceRequestCursor(Instant.parse(key.substring(0, separator)),
+                    UUID.fromString(key.substring(separator + 1)));
+        } catch (RuntimeException e) {
+            throw new IllegalArgumentException("Invalid cursor: " + cursor, e);
+        }
+    }
+}
@@ -0,0 +1,15 @@
+package com.projects.tenantmanager.dto;
+
+import java.util.List;
+
+import com.projects.tenantmanager.model.MaintenanceRequest;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+@Data
+@AllArgsConstructor
+public class MaintenanceRequestPage {
+    private List<MaintenanceRequest> requests;
+    private String nextCursor;
+}
@@ -0,0 +1,13 @@
+package com.projects.tenantmanager.dto;
+
+import com.projects.tenantmanager.model.MaintenanceRequest;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+@Data
+@AllArgsConstructor
+public class MaintenanceSearchHit {
+    private MaintenanceRequest request;
+    private double score;
+}
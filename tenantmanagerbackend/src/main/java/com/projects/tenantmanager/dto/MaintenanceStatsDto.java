@@ -0,0 +1,17 @@
+package com.projects.tenantmanager.dto;
+
+import java.util.Map;
+
+import com.projects.tenantmanager.model.MaintenanceRequest.Department;
+import com.projects.tenantmanager.model.MaintenanceRequest.Status;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+@Data
+@AllArgsConstructor
+public class MaintenanceStatsDto {
+    private Map<Status, Map<Department, Long>> byStatusAndDepartment;
+    private Map<Status, Long> byStatus;
+    private long total;
+}
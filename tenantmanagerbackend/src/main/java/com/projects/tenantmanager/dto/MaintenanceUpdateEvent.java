@@ -0,0 +1,22 @@
+package com.projects.tenantmanager.dto;
+
+import java.util.UUID;
+
+import com.projects.tenantmanager.model.MaintenanceRequest.Department;
+import com.projects.tenantmanager.model.MaintenanceRequest.Status;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+/**
+ * Data of a pushed maintenance request update; the old status is null for
+ * a new request.
+ */
+@Data
+@AllArgsConstructor
+public class MaintenanceUpdateEvent {
+    private UUID id;
+    private Status oldStatus;
+    private Status status;
+    private Department department;
+}
@@ -0,0 +1,13 @@
+package com.projects.tenantmanager.dto;
+
+import java.util.List;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+@Data
+@AllArgsConstructor
+public class SessionPage {
+    private List<ActiveSessionDto> sessions;
+    private String nextCursor;
+}
@@ -0,0 +1,12 @@
+package com.projects.tenantmanager.exception;
+
+/**
+ * Thrown when a maintenance request has the same fingerprint (unit,
+ * department and normalized description) as an existing one.
+ */
+public class DuplicateRequestException extends RuntimeException {
+
+    public DuplicateRequestException(String message) {
+        super(message);
+    }
+}
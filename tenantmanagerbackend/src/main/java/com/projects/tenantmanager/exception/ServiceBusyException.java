@@ -0,0 +1,19 @@
+package com.projects.tenantmanager.exception;
+
+/**
+ * Thrown when a request is shed because a bounded resource is saturated.
+ * Callers should answer with 503 and a Retry-After header.
+ */
+public class ServiceBusyException extends RuntimeException {
+
+    private final long retryAfterSeconds;
+
+    public ServiceBusyException(String message, long retryAfterSeconds) {
+        super(message);
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+
+    public long getRetryAfterSeconds() {
+        return retryAfterSeconds;
+    }
+}
@@ -0,0 +1,18 @@
+package com.projects.tenantmanager.model;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+import org.hibernate.annotations.ValueGenerationType;
+
+/**
+ * Sets the attribute to the next value of the change feed sequence whenever
+ * the entity is updated. See {@link ChangeSequenceGenerator}.
+ */
+@ValueGenerationType(generatedBy = ChangeSequenceGenerator.class)
+@Retention(RetentionPolicy.RUNTIME)
+@Target({ ElementType.FIELD, ElementType.METHOD })
+public @interface ChangeSequence {
+}
@@ -0,0 +1,45 @@
+package com.projects.tenantmanager.model;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.EnumSet;
+
+import org.hibernate.engine.jdbc.spi.JdbcCoordinator;
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.hibernate.generator.BeforeExecutionGenerator;
+import org.hibernate.generator.EventType;
+
+/**
+ * Reads the next change feed sequence value before an entity update, the
+ * way Hibernate reads id sequences, so that the value is written by the
+ * update itself and known without reading the row back. Inserts take the
+ * column default instead, which keeps them batched.
+ */
+public class ChangeSequenceGenerator implements BeforeExecutionGenerator {
+
+    @Override
+    public Object generate(SharedSessionContractImplementor session, Object owner, Object currentValue,
+            EventType eventType) {
+        String sql = session.getJdbcServices().getDialect().getSequenceSupport()
+                .getSequenceNextValString(MaintenanceRequest.CHANGE_SEQUENCE);
+        JdbcCoordinator jdbc = session.getJdbcCoordinator();
+        PreparedStatement statement = jdbc.getStatementPreparer().prepareStatement(sql);
+        try {
+            ResultSet result = jdbc.getResultSetReturn().extract(statement, sql);
+            result.next();
+            return result.getLong(1);
+        } catch (SQLException e) {
+            throw session.getJdbcServices().getSqlExceptionHelper().convert(e,
+                    "Could not read the next change sequence value", sql);
+        } finally {
+            jdbc.getLogicalConnection().getResourceRegistry().release(statement);
+            jdbc.afterStatementExecution();
+        }
+    }
+
+    @Override
+    public EnumSet<EventType> getEventTypes() {
+        return EnumSet.of(EventType.UPDATE);
+    }
+}
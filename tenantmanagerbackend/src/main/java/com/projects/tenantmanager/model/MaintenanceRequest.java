@@ -3,24 +3,47 @@ package com.projects.tenantmanager.model;
 import java.time.Instant;
 import java.util.UUID;
 
-import org.hibernate.annotations.CreationTimestamp;
+import org.hibernate.annotations.ColumnDefault;
 import org.hibernate.annotations.UpdateTimestamp;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonInclude;
+
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
 import jakarta.persistence.EnumType;
 import jakarta.persistence.Enumerated;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.PrePersist;
 import jakarta.persistence.Table;
+import jakarta.persistence.UniqueConstraint;
 import lombok.Getter;
 import lombok.Setter;
 
 @Entity
-@Table(name = "maintenance_request")
+@Table(name = "maintenance_request", indexes = {
+		// Keyset pagination on (created_at, id), one index per filter combination
+		@Index(name = "idx_maintenance_request_created", columnList = "created_at, id"),
+		@Index(name = "idx_maintenance_request_status_created", columnList = "status, created_at, id"),
+		@Index(name = "idx_maintenance_request_department_created", columnList = "department, created_at, id"),
+		@Index(name = "idx_maintenance_request_status_department_created", columnList = "status, department, created_at, id"),
+		@Index(name = "idx_maintenance_request_tenant_created", columnList = "tenant_name, created_at, id"),
+		// Incremental sync of the in-process search index
+		@Index(name = "idx_maintenance_request_updated", columnList = "updated_at"),
+		// Change feed order
+		@Index(name = "idx_maintenance_request_change_seq", columnList = "change_seq")
+}, uniqueConstraints = {
+		// Rejects duplicate requests atomically on insert
+		@UniqueConstraint(name = "uk_maintenance_request_fingerprint", columnNames = "fingerprint")
+})
 @Getter
 @Setter
 public class MaintenanceRequest {
+	/** Created by schema.sql, before Hibernate creates the table */
+	public static final String CHANGE_SEQUENCE = "maintenance_request_change_seq";
+
 	@Id
 	@GeneratedValue
 	private UUID id;
@@ -38,12 +61,31 @@ public class MaintenanceRequest {
 
 	private boolean approved = false;
 
-	@CreationTimestamp
+	/** Set on insert unless given, as for imported requests; see {@link #defaultCreatedAt()} */
 	private Instant createdAt;
 
 	@UpdateTimestamp
 	private Instant updatedAt;
 
+	/** Hex of the request's content fingerprint, see RequestFingerprint */
+	@JsonIgnore
+	@Column(length = 32)
+	private String fingerprint;
+
+	/**
+	 * Position of the request's last change in the change feed, from a database
+	 * sequence: the column default on insert, and the next value on every update.
+	 * Not read back on insert, so that inserts stay batched.
+	 */
+	@ColumnDefault("nextval('" + CHANGE_SEQUENCE + "')")
+	@ChangeSequence
+	@Column(insertable = false)
+	@JsonInclude(JsonInclude.Include.NON_NULL)
+	private Long changeSeq;
+
+	/** An open request of the same unit and department with a similar description, if any when this was created */
+	private UUID possibleDuplicateOf;
+
 	public enum Status {
 		OPEN, IN_PROGRESS, RESOLVED, REJECTED
 	}
@@ -61,6 +103,13 @@ public class MaintenanceRequest {
 		GENERAL_MAINTENANCE
 	}
 
+    @PrePersist
+    void defaultCreatedAt() {
+        if (createdAt == null) {
+            createdAt = Instant.now();
+        }
+    }
+
     public UUID getId() {
         return id;
     }
@@ -132,4 +181,28 @@ public class MaintenanceRequest {
     public void setUpdatedAt(Instant updatedAt) {
         this.updatedAt = updatedAt;
     }
+
+    public String getFingerprint() {
+        return fingerprint;
+    }
+
+    public void setFingerprint(String fingerprint) {
+        this.fingerprint = fingerprint;
+    }
+
+    public Long getChangeSeq() {
+        return changeSeq;
+    }
+
+    public void setChangeSeq(Long changeSeq) {
+        this.changeSeq = changeSeq;
+    }
+
+    public UUID getPossibleDuplicateOf() {
+        return possibleDuplicateOf;
+    }
+
+    public void setPossibleDuplicateOf(UUID possibleDuplicateOf) {
+        this.possibleDuplicateOf = possibleDuplicateOf;
+    }
 }
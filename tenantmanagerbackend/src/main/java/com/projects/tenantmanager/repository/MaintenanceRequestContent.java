@@ -0,0 +1,20 @@
+package com.projects.tenantmanager.repository;
+
+import java.util.UUID;
+
+import com.projects.tenantmanager.model.MaintenanceRequest.Department;
+
+/**
+ * The columns a maintenance request's fingerprint and near-duplicate
+ * signature are computed from.
+ */
+public interface MaintenanceRequestContent {
+
+    UUID getId();
+
+    String getUnitNumber();
+
+    Department getDepartment();
+
+    String getDescription();
+}
@@ -0,0 +1,16 @@
+package com.projects.tenantmanager.repository;
+
+import com.projects.tenantmanager.model.MaintenanceRequest.Department;
+import com.projects.tenantmanager.model.MaintenanceRequest.Status;
+
+/**
+ * Number of maintenance requests with one status and department.
+ */
+public interface MaintenanceRequestCount {
+
+    Status getStatus();
+
+    Department getDepartment();
+
+    long getCount();
+}
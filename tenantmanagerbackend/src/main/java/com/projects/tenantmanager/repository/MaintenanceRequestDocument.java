@@ -0,0 +1,25 @@
+package com.projects.tenantmanager.repository;
+
+import java.util.UUID;
+
+import com.projects.tenantmanager.model.MaintenanceRequest.Department;
+import com.projects.tenantmanager.model.MaintenanceRequest.Status;
+
+/**
+ * The columns the full-text search index is built from: the searchable
+ * text, and the status and department results are filtered by.
+ */
+public interface MaintenanceRequestDocument {
+
+    UUID getId();
+
+    String getTenantName();
+
+    String getUnitNumber();
+
+    String getDescription();
+
+    Status getStatus();
+
+    Department getDepartment();
+}
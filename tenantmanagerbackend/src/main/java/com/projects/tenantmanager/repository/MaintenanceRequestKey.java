@@ -0,0 +1,18 @@
+package com.projects.tenantmanager.repository;
+
+import java.util.UUID;
+
+import com.projects.tenantmanager.model.MaintenanceRequest.Department;
+import com.projects.tenantmanager.model.MaintenanceRequest.Status;
+
+/**
+ * The columns a maintenance request is indexed by in the request cache.
+ */
+public interface MaintenanceRequestKey {
+
+    UUID getId();
+
+    Status getStatus();
+
+    Department getDepartment();
+}
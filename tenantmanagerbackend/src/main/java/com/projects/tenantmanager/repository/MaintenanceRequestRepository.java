@@ -1,29 +1,159 @@
 package com.projects.tenantmanager.repository;
 
+import java.time.Instant;
+import java.util.Collection;
 import java.util.List;
+import java.util.Set;
 import java.util.UUID;
+import java.util.stream.Stream;
 
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import com.projects.tenantmanager.model.MaintenanceRequest;
 import com.projects.tenantmanager.model.MaintenanceRequest.Department;
 import com.projects.tenantmanager.model.MaintenanceRequest.Status;
 
+import jakarta.persistence.QueryHint;
+
 @Repository
-public interface MaintenanceRequestRepository extends JpaRepository<MaintenanceRequest, UUID> {
+public interface MaintenanceRequestRepository extends JpaRepository<MaintenanceRequest, UUID>,
+        JpaSpecificationExecutor<MaintenanceRequest> {
 
     List<MaintenanceRequest> findByStatus(Status status);
 
     List<MaintenanceRequest> findByDepartment(Department department);
 
     List<MaintenanceRequest> findByStatusAndDepartment(Status status, Department department);
-    
-    @Query("select mr from MaintenanceRequest mr "
-    		+ "where mr.unitNumber = ?1 "
-    		+ "and mr.department = ?2 "
-    		+ "and mr.description = ?3")
-    List<MaintenanceRequest> findByUnitDepartmentDescription(String unitNumber,Department department,String description);
+
+    boolean existsByFingerprint(String fingerprint);
+
+    @Query("select mr.fingerprint from MaintenanceRequest mr where mr.fingerprint in :fingerprints")
+    Set<String> findExistingFingerprints(@Param("fingerprints") Collection<String> fingerprints);
+
+    /**
+     * All stored fingerprints, fetched in batches through a cursor. Must be
+     * consumed inside a transaction.
+     */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    @Query("select mr.fingerprint from MaintenanceRequest mr where mr.fingerprint is not null")
+    Stream<String> streamFingerprints();
+
+    /**
+     * Requests stored before fingerprints were introduced. Must be consumed
+     * inside a transaction.
+     */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    @Query("select mr.id as id, mr.unitNumber as unitNumber, mr.department as department, "
+            + "mr.description as description from MaintenanceRequest mr where mr.fingerprint is null")
+    Stream<MaintenanceRequestContent> streamWithoutFingerprint();
+
+    /**
+     * Requests with the given status. Must be consumed inside a transaction.
+     */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    @Query("select mr.id as id, mr.unitNumber as unitNumber, mr.department as department, "
+            + "mr.description as description from MaintenanceRequest mr where mr.status = :status")
+    Stream<MaintenanceRequestContent> streamContentByStatus(@Param("status") Status status);
+
+    @Query("select mr.id as id, mr.unitNumber as unitNumber, mr.department as department, "
+            + "mr.description as description from MaintenanceRequest mr where mr.id in :ids")
+    List<MaintenanceRequestContent> findContentByIdIn(@Param("ids") Collection<UUID> ids);
+
+    @Modifying
+    @Query("update MaintenanceRequest mr set mr.fingerprint = :fingerprint where mr.id = :id")
+    int setFingerprint(@Param("id") UUID id, @Param("fingerprint") String fingerprint);
+
+    /**
+     * Ids of the tenant's requests, newest first.
+     */
+    @Query("select mr.id from MaintenanceRequest mr where mr.tenantName = :tenantName "
+            + "order by mr.createdAt desc, mr.id desc")
+    List<UUID> findIdsByTenantName(@Param("tenantName") String tenantName, Limit limit);
+
+    @Query("select mr.id as id, mr.status as status, mr.department as department from MaintenanceRequest mr")
+    List<MaintenanceRequestKey> findAllKeys();
+
+    /**
+     * Same as {@link #findAllKeys()}, fetched in batches through a cursor.
+     * Must be consumed inside a transaction.
+     */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    @Query("select mr.id as id, mr.status as status, mr.department as department from MaintenanceRequest mr")
+    Stream<MaintenanceRequestKey> streamAllKeys();
+
+    /**
+     * The searchable content of every request, fetched in batches through a
+     * cursor. Must be consumed inside a transaction.
+     */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    @Query("select mr.id as id, mr.tenantName as tenantName, mr.unitNumber as unitNumber, "
+            + "mr.description as description, mr.status as status, mr.department as department "
+            + "from MaintenanceRequest mr")
+    Stream<MaintenanceRequestDocument> streamDocuments();
+
+    /**
+     * Same as {@link #streamDocuments()}, limited to requests created or
+     * updated at or after the given instant.
+     */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    @Query("select mr.id as id, mr.tenantName as tenantName, mr.unitNumber as unitNumber, "
+            + "mr.description as description, mr.status as status, mr.department as department "
+            + "from MaintenanceRequest mr where mr.updatedAt >= :since")
+    Stream<MaintenanceRequestDocument> streamDocumentsUpdatedSince(@Param("since") Instant since);
+
+    @Query("select mr.id as id, mr.tenantName as tenantName, mr.unitNumber as unitNumber, "
+            + "mr.description as description, mr.status as status, mr.department as department "
+            + "from MaintenanceRequest mr where mr.id in :ids")
+    List<MaintenanceRequestDocument> findDocumentsByIdIn(@Param("ids") Collection<UUID> ids);
+
+    @Query("select mr.status as status, mr.department as department, count(mr) as count "
+            + "from MaintenanceRequest mr group by mr.status, mr.department")
+    List<MaintenanceRequestCount> countByStatusAndDepartment();
+
+    /**
+     * Requests whose last change comes after the given position of the
+     * change feed, in change feed order.
+     */
+    @Query("select mr from MaintenanceRequest mr where mr.changeSeq > :after order by mr.changeSeq")
+    List<MaintenanceRequest> findChangedAfter(@Param("after") long after, Limit limit);
+
+    @Query("select min(mr.changeSeq) from MaintenanceRequest mr where mr.updatedAt >= :since")
+    Long findFirstChangeSeqUpdatedSince(@Param("since") Instant since);
+
+    @Query("select max(mr.changeSeq) from MaintenanceRequest mr where mr.updatedAt < :before")
+    Long findLastChangeSeqUpdatedBefore(@Param("before") Instant before);
+
+    /**
+     * Sets the update time of the given requests. Run first in a bulk update,
+     * it takes the row locks, so the keys read next stay current until commit.
+     */
+    @Modifying(flushAutomatically = true)
+    @Query("update MaintenanceRequest mr set mr.updatedAt = :updatedAt where mr.id in :ids")
+    int touchByIdIn(@Param("ids") Collection<UUID> ids, @Param("updatedAt") Instant updatedAt);
+
+    @Query("select mr.id as id, mr.status as status, mr.department as department from MaintenanceRequest mr "
+            + "where mr.id in :ids")
+    List<MaintenanceRequestKey> findKeysByIdIn(@Param("ids") Collection<UUID> ids);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("update MaintenanceRequest mr set mr.status = :status, mr.updatedAt = :updatedAt, "
+            + "mr.changeSeq = function('nextval', '" + MaintenanceRequest.CHANGE_SEQUENCE + "') where mr.id in :ids")
+    int updateStatus(@Param("ids") Collection<UUID> ids, @Param("status") Status status,
+            @Param("updatedAt") Instant updatedAt);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("update MaintenanceRequest mr set mr.status = :status, mr.approved = :approved, "
+            + "mr.updatedAt = :updatedAt, "
+            + "mr.changeSeq = function('nextval', '" + MaintenanceRequest.CHANGE_SEQUENCE + "') where mr.id in :ids")
+    int updateStatusAndApproval(@Param("ids") Collection<UUID> ids, @Param("status") Status status,
+            @Param("approved") boolean approved, @Param("updatedAt") Instant updatedAt);
 
 }
@@ -0,0 +1,84 @@
+package com.projects.tenantmanager.repository;
+
+import java.time.Instant;
+
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+
+import com.projects.tenantmanager.dto.MaintenanceRequestCursor;
+import com.projects.tenantmanager.model.MaintenanceRequest;
+import com.projects.tenantmanager.model.MaintenanceRequest.Department;
+import com.projects.tenantmanager.model.MaintenanceRequest.Status;
+
+/**
+ * Filters for keyset-paginated listings. A null argument leaves its filter
+ * out of the query altogether, so each combination is matched by one of the
+ * composite indexes on {@code maintenance_request}.
+ */
+public final class MaintenanceRequestSpecifications {
+
+    private MaintenanceRequestSpecifications() {
+    }
+
+    /**
+     * Order of a keyset page: {@code createdAt}, then {@code id} to break ties.
+     */
+    public static Sort keysetOrder(Sort.Direction direction) {
+        return Sort.by(direction, "createdAt", "id");
+    }
+
+    public static Specification<MaintenanceRequest> hasStatus(Status status) {
+        return (root, query, cb) -> status == null ? null : cb.equal(root.get("status"), status);
+    }
+
+    public static Specification<MaintenanceRequest> hasDepartment(Department department) {
+        return (root, query, cb) -> department == null ? null : cb.equal(root.get("department"), department);
+    }
+
+    public static Specification<MaintenanceRequest> hasTenant(String tenantName) {
+        return (root, query, cb) -> tenantName == null ? null : cb.equal(root.get("tenantName"), tenantName);
+    }
+
+    /**
+     * Created at or after {@code from} and strictly before {@code to}.
+     */
+    public static Specification<MaintenanceRequest> createdBetween(Instant from, Instant to) {
+        return (root, query, cb) -> {
+            if (from == null && to == null) {
+                return null;
+            }
+            if (from == null) {
+                return cb.lessThan(root.get("createdAt"), to);
+            }
+            if (to == null) {
+                return cb.greaterThanOrEqualTo(root.get("createdAt"), from);
+            }
+            return cb.and(cb.greaterThanOrEqualTo(root.get("createdAt"), from),
+                    cb.lessThan(root.get("createdAt"), to));
+        };
+    }
+
+    /**
+     * Requests that come after the cursor in {@link #keysetOrder} with the
+     * given direction. The bound on {@code createdAt} alone is implied by the
+     * rest, but the OR gives the planner no start key on the indexes; with it
+     * the scan starts at the cursor instead of filtering its way there.
+     */
+    public static Specification<MaintenanceRequest> after(MaintenanceRequestCursor cursor, Sort.Direction direction) {
+        return (root, query, cb) -> {
+            if (cursor == null) {
+                return null;
+            }
+            if (direction.isAscending()) {
+                return cb.and(cb.greaterThanOrEqualTo(root.get("createdAt"), cursor.createdAt()),
+                        cb.or(cb.greaterThan(root.get("createdAt"), cursor.createdAt()),
+                                cb.and(cb.equal(root.get("createdAt"), cursor.createdAt()),
+                                        cb.greaterThan(root.get("id"), cursor.id()))));
+            }
+            return cb.and(cb.lessThanOrEqualTo(root.get("createdAt"), cursor.createdAt()),
+                    cb.or(cb.lessThan(root.get("createdAt"), cursor.createdAt()),
+                            cb.and(cb.equal(root.get("createdAt"), cursor.createdAt()),
+                                    cb.lessThan(root.get("id"), cursor.id()))));
+        };
+    }
+}
@@ -3,10 +3,17 @@ package com.projects.tenantmanager.repository;
 import com.projects.tenantmanager.model.User;
 import org.springframework.cache.annotation.Cacheable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.util.Collection;
 import java.util.Optional;
+import java.util.Set;
 
 public interface UserRepository extends JpaRepository<User, Long> {
     @Cacheable(value = "users", key = "#username", unless = "#result == null")
     Optional<User> findByUsername(String username);
+
+    @Query("select u.username from User u where u.username in :usernames")
+    Set<String> findExistingUsernames(@Param("usernames") Collection<String> usernames);
 }
\ No newline at end of file
@@ -1,30 +1,84 @@
 package com.projects.tenantmanager.security;
 
-import com.projects.tenantmanager.service.RedisSessionService;
+import com.projects.tenantmanager.model.UserRole;
+import com.projects.tenantmanager.service.SessionService;
+import com.projects.tenantmanager.service.SessionExtender;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
 
 import java.io.IOException;
+import java.util.Arrays;
 import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 @Component
 public class JwtAuthenticationFilter extends OncePerRequestFilter {
     private static final Logger log = LoggerFactory.getLogger(JwtAuthenticationFilter.class);
+
+    /**
+     * Paths open to everyone, where the filter has no work to do.
+     */
+    public static final String[] PUBLIC_PATHS = { "/api/auth/**", "/swagger-ui/**", "/api-docs/**" };
+
+    private static final String[] PUBLIC_PATH_PREFIXES = Arrays.stream(PUBLIC_PATHS)
+            .map(path -> path.substring(0, path.length() - "/**".length()))
+            .toArray(String[]::new);
+
+    private static final String ALREADY_FILTERED_ATTRIBUTE =
+            JwtAuthenticationFilter.class.getName() + ALREADY_FILTERED_SUFFIX;
+
+    /**
+     * Immutable authority lists shared by every request of the same role.
+     */
+    private static final Map<String, List<GrantedAuthority>> AUTHORITIES = Arrays.stream(UserRole.values())
+            .map(role -> "ROLE_" + role.name())
+            .collect(Collectors.toUnmodifiableMap(Function.identity(),
+                    role -> List.of(new SimpleGrantedAuthority(role))));
+
     private final JwtUtil jwtUtil;
-    private final RedisSessionService redisSessionService;
+    private final SessionService sessionService;
+    private final SessionExtender sessionExtender;
+    private final SessionMode sessionMode;
 
-    public JwtAuthenticationFilter(JwtUtil jwtUtil, RedisSessionService redisSessionService) {
+    public JwtAuthenticationFilter(JwtUtil jwtUtil, SessionService sessionService,
+            SessionExtender sessionExtender, @Value("${session.mode:ALLOWLIST}") SessionMode sessionMode) {
         this.jwtUtil = jwtUtil;
-        this.redisSessionService = redisSessionService;
+        this.sessionService = sessionService;
+        this.sessionExtender = sessionExtender;
+        this.sessionMode = sessionMode;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        String uri = request.getRequestURI();
+        int offset = request.getContextPath().length();
+        for (String prefix : PUBLIC_PATH_PREFIXES) {
+            int end = offset + prefix.length();
+            if (uri.startsWith(prefix, offset) && (uri.length() == end || uri.charAt(end) == '/')) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @Override
+    protected String getAlreadyFilteredAttributeName() {
+        // The default concatenates the filter name on every request
+        return ALREADY_FILTERED_ATTRIBUTE;
     }
 
     @Override
@@ -39,25 +93,42 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
         try {
             String jwt = authHeader.substring(7);
+            // Hashed once and shared by every cache lookup below
+            TokenDigest digest = TokenDigest.of(jwt);
 
-            // Validate token exists in Redis (not logged out)
-            if (!redisSessionService.isTokenValid(jwt)) {
-                log.warn("Token not found in Redis or has been invalidated");
+            if (sessionMode == SessionMode.ALLOWLIST && !sessionService.isTokenValid(jwt, digest)) {
+                // Validate token exists in the session store (not logged out)
+                log.warn("Token not found in session store or has been invalidated");
                 filterChain.doFilter(request, response);
                 return;
             }
 
-            String username = jwtUtil.extractUsername(jwt);
-            String role = jwtUtil.extractRole(jwt);
+            // Verifies signature and expiry
+            JwtPrincipal principal = jwtUtil.parseToken(jwt, digest);
+
+            if (sessionMode == SessionMode.REVOCATION && sessionService.isRevoked(digest)) {
+                log.warn("Token has been revoked");
+                filterChain.doFilter(request, response);
+                return;
+            }
+            if (sessionMode == SessionMode.GENERATION && !isCurrentSession(jwt, digest, principal)) {
+                log.warn("Token belongs to a session that has ended");
+                filterChain.doFilter(request, response);
+                return;
+            }
+            String username = principal.username();
+            String role = principal.role();
 
             if (username != null && SecurityContextHolder.getContext().getAuthentication() == null) {
-                // Extend session on each valid request
-                redisSessionService.extendSession(jwt);
+                if (sessionMode == SessionMode.ALLOWLIST) {
+                    // Extend session on each valid request (coalesced and written behind)
+                    sessionExtender.touch(jwt, digest, username);
+                }
 
                 UsernamePasswordAuthenticationToken authToken = new UsernamePasswordAuthenticationToken(
                         username,
                         null,
-                        Collections.singletonList(new SimpleGrantedAuthority(role)));
+                        authoritiesOf(role));
                 SecurityContextHolder.getContext().setAuthentication(authToken);
                 log.debug("Set authentication for user: {} with role: {}", username, role);
             }
@@ -67,4 +138,17 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
         filterChain.doFilter(request, response);
     }
-}
\ No newline at end of file
+
+    private boolean isCurrentSession(String jwt, TokenDigest digest, JwtPrincipal principal) {
+        if (principal.generation() == null) {
+            // Issued before the switch to generations; valid while still allowlisted
+            return sessionService.isTokenValid(jwt, digest);
+        }
+        return sessionService.isGenerationCurrent(principal.username(), principal.generation());
+    }
+
+    private static List<GrantedAuthority> authoritiesOf(String role) {
+        List<GrantedAuthority> authorities = AUTHORITIES.get(role);
+        return authorities != null ? authorities : Collections.singletonList(new SimpleGrantedAuthority(role));
+    }
+}
@@ -0,0 +1,15 @@
+package com.projects.tenantmanager.security;
+
+import java.time.Instant;
+
+/**
+ * Immutable view of a verified JWT.
+ *
+ * @param username   The token subject
+ * @param role       The role claim, already prefixed with {@code ROLE_}
+ * @param expiresAt  The expiry of the token
+ * @param generation The session generation of the user, or null for tokens
+ *                   issued before generations were enabled
+ */
+public record JwtPrincipal(String username, String role, Instant expiresAt, Long generation) {
+}
@@ -1,14 +1,19 @@
 package com.projects.tenantmanager.security;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
 import io.jsonwebtoken.*;
 import io.jsonwebtoken.security.Keys;
 import io.jsonwebtoken.security.SignatureException;
+import jakarta.annotation.PostConstruct;
 import org.apache.log4j.Logger;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
+import java.time.Duration;
+import java.time.Instant;
 import java.util.Date;
-import java.util.function.Function;
 
 import javax.crypto.SecretKey;
 
@@ -16,48 +21,124 @@ import javax.crypto.SecretKey;
 public class JwtUtil {
     private static final Logger logger = Logger.getLogger(JwtUtil.class);
 
+    private static final String GENERATION_CLAIM = "gen";
+
     @Value("${jwt.secret}")
     private String jwtSecret;
 
     @Value("${jwt.expiration}")
     private int jwtExpiration;
 
+    @Value("${jwt.claims-cache.max-size:10000}")
+    private long claimsCacheMaxSize;
+
+    private SecretKey signingKey;
+    private JwtParser parser;
+
+    /**
+     * Verified tokens keyed by digest. Each entry expires together with its
+     * token, so a hit is always as good as a fresh signature check.
+     */
+    private Cache<TokenDigest, JwtPrincipal> verifiedTokens;
+
+    @PostConstruct
+    void init() {
+        signingKey = Keys.hmacShaKeyFor(jwtSecret.getBytes());
+        parser = Jwts.parserBuilder()
+                .setSigningKey(signingKey)
+                .build();
+        verifiedTokens = Caffeine.newBuilder()
+                .maximumSize(claimsCacheMaxSize)
+                .expireAfter(new Expiry<TokenDigest, JwtPrincipal>() {
+                    @Override
+                    public long expireAfterCreate(TokenDigest key, JwtPrincipal principal, long currentTime) {
+                        return Math.max(0, Duration.between(Instant.now(), principal.expiresAt()).toNanos());
+                    }
+
+                    @Override
+                    public long expireAfterUpdate(TokenDigest key, JwtPrincipal principal, long currentTime,
+                            long currentDuration) {
+                        return currentDuration;
+                    }
+
+                    @Override
+                    public long expireAfterRead(TokenDigest key, JwtPrincipal principal, long currentTime,
+                            long currentDuration) {
+                        return currentDuration;
+                    }
+                })
+                .build();
+    }
+
     private SecretKey getSigningKey() {
-        return Keys.hmacShaKeyFor(jwtSecret.getBytes());
+        return signingKey;
     }
 
     public String generateToken(String username, String role) {
+        return generateToken(username, role, null);
+    }
+
+    /**
+     * @param generation The session generation of the user, or null to
+     *                   issue a token without one
+     */
+    public String generateToken(String username, String role, Long generation) {
         logger.debug("Generating token for user: " +username + " with role: " + role);
-        return Jwts.builder()
+        JwtBuilder builder = Jwts.builder()
                 .setSubject(username)
                 .claim("role", "ROLE_" + role)
                 .setIssuedAt(new Date())
-                .setExpiration(new Date(System.currentTimeMillis() + 1000 * 60 * 60 * 10)) // 10 hours
+                .setExpiration(new Date(System.currentTimeMillis() + 1000 * 60 * 60 * 10)); // 10 hours
+        if (generation != null) {
+            builder.claim(GENERATION_CLAIM, generation);
+        }
+        return builder
                 .signWith(getSigningKey(), SignatureAlgorithm.HS256)
                 .compact();
     }
 
-    public String extractUsername(String token) {
-        return extractClaim(token, Claims::getSubject);
+    /**
+     * Verifies the token and returns its principal. The signature is checked
+     * once per token; later calls are served from the verified-claims cache
+     * until the token expires.
+     *
+     * @param token The JWT token
+     * @return The verified principal
+     * @throws JwtException if the token is invalid or expired
+     */
+    public JwtPrincipal parseToken(String token) {
+        return parseToken(token, TokenDigest.of(token));
     }
 
-    public String extractRole(String token) {
-        Claims claims = extractAllClaims(token);
-        return claims.get("role", String.class);
+    /**
+     * Same as {@link #parseToken(String)} for callers that already hold the
+     * digest of the token.
+     */
+    public JwtPrincipal parseToken(String token, TokenDigest digest) {
+        JwtPrincipal principal = verifiedTokens.getIfPresent(digest);
+        if (principal == null) {
+            Claims claims = extractAllClaims(token);
+            principal = new JwtPrincipal(
+                    claims.getSubject(),
+                    claims.get("role", String.class),
+                    claims.getExpiration().toInstant(),
+                    claims.get(GENERATION_CLAIM, Long.class));
+            verifiedTokens.put(digest, principal);
+        }
+        return principal;
+    }
+
+    public String extractUsername(String token) {
+        return parseToken(token).username();
     }
 
-    private <T> T extractClaim(String token, Function<Claims, T> claimsResolver) {
-        final Claims claims = extractAllClaims(token);
-        return claimsResolver.apply(claims);
+    public String extractRole(String token) {
+        return parseToken(token).role();
     }
 
     private Claims extractAllClaims(String token) {
         try {
-            return Jwts.parserBuilder()
-                    .setSigningKey(getSigningKey())
-                    .build()
-                    .parseClaimsJws(token)
-                    .getBody();
+            return parser.parseClaimsJws(token).getBody();
         } catch (SignatureException e) {
             logger.error("Invalid JWT signature: " + e.getMessage());
             throw e;
@@ -84,10 +165,7 @@ public class JwtUtil {
      */
     public boolean validateToken(String token) {
         try {
-            Jwts.parserBuilder()
-                    .setSigningKey(getSigningKey())
-                    .build()
-                    .parseClaimsJws(token);
+            parser.parseClaimsJws(token);
             return true;
         } catch (SignatureException e) {
             logger.error("Invalid JWT signature: " + e.getMessage(), e);
@@ -110,6 +188,6 @@ public class JwtUtil {
      * @return The username from the token
      */
     public String getUsernameFromToken(String token) {
-        return Jwts.parserBuilder().setSigningKey(getSigningKey()).build().parseClaimsJws(token).getBody().getSubject();
+        return parseToken(token).username();
     }
 }
\ No newline at end of file
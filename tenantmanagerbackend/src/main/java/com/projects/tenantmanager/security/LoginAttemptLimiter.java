@@ -0,0 +1,193 @@
+package com.projects.tenantmanager.security;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.security.SecureRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.function.LongSupplier;
+
+/**
+ * Tracks failed logins per username and per client IP over a sliding window
+ * and rejects attempts that are over budget before any database lookup or
+ * password hashing happens.
+ * <p>
+ * Counts are kept in fixed-size count-min sketches, so memory stays constant
+ * no matter how many distinct usernames or addresses an attacker cycles
+ * through. Sketches may over-count on collisions but never under-count.
+ */
+@Component
+public class LoginAttemptLimiter {
+
+    private static final Logger logger = LoggerFactory.getLogger(LoginAttemptLimiter.class);
+
+    private final SlidingWindowSketch userFailures;
+    private final SlidingWindowSketch ipFailures;
+    private final int maxFailuresPerUser;
+    private final int maxFailuresPerIp;
+    private final long windowSeconds;
+
+    private final Counter userRejections;
+    private final Counter ipRejections;
+
+    @Autowired
+    public LoginAttemptLimiter(MeterRegistry meterRegistry,
+            @Value("${auth.login-limit.max-failures-per-user:10}") int maxFailuresPerUser,
+            @Value("${auth.login-limit.max-failures-per-ip:50}") int maxFailuresPerIp,
+            @Value("${auth.login-limit.window-seconds:60}") long windowSeconds,
+            @Value("${auth.login-limit.sketch-width:4096}") int sketchWidth) {
+        this(meterRegistry, maxFailuresPerUser, maxFailuresPerIp, windowSeconds, sketchWidth, System::nanoTime);
+    }
+
+    LoginAttemptLimiter(MeterRegistry meterRegistry, int maxFailuresPerUser, int maxFailuresPerIp,
+            long windowSeconds, int sketchWidth, LongSupplier clock) {
+        this.maxFailuresPerUser = maxFailuresPerUser;
+        this.maxFailuresPerIp = maxFailuresPerIp;
+        this.windowSeconds = windowSeconds;
+        long windowNanos = TimeUnit.SECONDS.toNanos(windowSeconds);
+        this.userFailures = new SlidingWindowSketch(sketchWidth, windowNanos, clock);
+        this.ipFailures = new SlidingWindowSketch(sketchWidth, windowNanos, clock);
+
+        this.userRejections = Counter.builder("auth.login.throttled")
+                .tag("key", "username")
+                .description("Login attempts rejected because the username had too many recent failures")
+                .register(meterRegistry);
+        this.ipRejections = Counter.builder("auth.login.throttled")
+                .tag("key", "ip")
+                .description("Login attempts rejected because the client IP had too many recent failures")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Checks whether a login attempt is within budget.
+     *
+     * @param username The username being attempted
+     * @param clientIp The address of the client
+     * @return false if the attempt must be rejected without checking credentials
+     */
+    public boolean tryAcquire(String username, String clientIp) {
+        if (userFailures.estimate(normalize(username)) >= maxFailuresPerUser) {
+            userRejections.increment();
+            logger.warn("Rejected login for user {}: too many recent failures", username);
+            return false;
+        }
+        if (ipFailures.estimate(normalize(clientIp)) >= maxFailuresPerIp) {
+            ipRejections.increment();
+            logger.warn("Rejected login from {}: too many recent failures", clientIp);
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * Records a failed login against both the username and the client IP.
+     */
+    public void recordFailure(String username, String clientIp) {
+        userFailures.increment(normalize(username));
+        ipFailures.increment(normalize(clientIp));
+    }
+
+    public long getWindowSeconds() {
+        return windowSeconds;
+    }
+
+    private static String normalize(String key) {
+        return key == null ? "" : key;
+    }
+
+    /**
+     * Count-min sketch over two consecutive fixed windows. The estimate
+     * weights the previous window by how much of it still overlaps the
+     * sliding window, which approximates a true sliding count without
+     * storing timestamps.
+     */
+    static final class SlidingWindowSketch {
+
+        private static final int DEPTH = 4;
+
+        private final int mask;
+        private final long windowNanos;
+        private final LongSupplier clock;
+        private final int[] seeds = new int[DEPTH];
+        private volatile Windows windows;
+
+        SlidingWindowSketch(int width, long windowNanos, LongSupplier clock) {
+            this.mask = Integer.highestOneBit(Math.max(width, 16)) - 1;
+            this.windowNanos = windowNanos;
+            this.clock = clock;
+            SecureRandom random = new SecureRandom();
+            for (int i = 0; i < DEPTH; i++) {
+                seeds[i] = random.nextInt();
+            }
+            this.windows = new Windows(Math.floorDiv(clock.getAsLong(), windowNanos), newCounters(), newCounters());
+        }
+
+        void increment(String key) {
+            AtomicIntegerArray current = currentWindows(clock.getAsLong()).current;
+            for (int row = 0; row < DEPTH; row++) {
+                int index = index(row, key);
+                // Saturate instead of overflowing under a sustained attack
+                if (current.get(index) < Integer.MAX_VALUE) {
+                    current.incrementAndGet(index);
+                }
+            }
+        }
+
+        double estimate(String key) {
+            long now = clock.getAsLong();
+            Windows w = currentWindows(now);
+            double previousWeight = 1.0 - (double) Math.floorMod(now, windowNanos) / windowNanos;
+            double estimate = Double.MAX_VALUE;
+            for (int row = 0; row < DEPTH; row++) {
+                int index = index(row, key);
+                double count = w.current.get(index) + w.previous.get(index) * previousWeight;
+                estimate = Math.min(estimate, count);
+            }
+            return estimate;
+        }
+
+        private Windows currentWindows(long now) {
+            long epoch = Math.floorDiv(now, windowNanos);
+            Windows w = windows;
+            if (w.epoch == epoch) {
+                return w;
+            }
+            synchronized (this) {
+                w = windows;
+                if (w.epoch != epoch) {
+                    AtomicIntegerArray previous = epoch - w.epoch == 1 ? w.current : newCounters();
+                    w = new Windows(epoch, newCounters(), previous);
+                    windows = w;
+                }
+                return w;
+            }
+        }
+
+        private AtomicIntegerArray newCounters() {
+            return new AtomicIntegerArray(DEPTH * (mask + 1));
+        }
+
+        private int index(int row, String key) {
+            int h = seeds[row];
+            for (int i = 0; i < key.length(); i++) {
+                h = (h ^ key.charAt(i)) * 0x01000193;
+            }
+            // Murmur3 finalizer to spread the FNV state across all bits
+            h ^= h >>> 16;
+            h *= 0x85ebca6b;
+            h ^= h >>> 13;
+            h *= 0xc2b2ae35;
+            h ^= h >>> 16;
+            return row * (mask + 1) + (h & mask);
+        }
+
+        private record Windows(long epoch, AtomicIntegerArray current, AtomicIntegerArray previous) {
+        }
+    }
+}
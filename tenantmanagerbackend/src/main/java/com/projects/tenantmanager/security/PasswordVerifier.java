@@ -0,0 +1,124 @@
+package com.projects.tenantmanager.security;
+
+import com.projects.tenantmanager.exception.ServiceBusyException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Runs password hash verification on a dedicated, CPU-sized pool so that a
+ * login storm cannot occupy every servlet thread. Work that cannot be
+ * queued, or that waited longer than the queue-time SLO, is shed with a
+ * {@link ServiceBusyException}.
+ */
+@Component
+public class PasswordVerifier implements DisposableBean {
+
+    private static final Logger logger = LoggerFactory.getLogger(PasswordVerifier.class);
+
+    private final PasswordEncoder passwordEncoder;
+    private final ThreadPoolExecutor executor;
+    private final long queueTimeoutNanos;
+    private final long retryAfterSeconds;
+
+    private final Timer verificationTimer;
+    private final Timer queueWaitTimer;
+    private final Counter rejectedCounter;
+
+    public PasswordVerifier(PasswordEncoder passwordEncoder, MeterRegistry meterRegistry,
+            @Value("${auth.password-verification.threads:0}") int threads,
+            @Value("${auth.password-verification.queue-capacity:64}") int queueCapacity,
+            @Value("${auth.password-verification.queue-timeout-ms:500}") long queueTimeoutMillis,
+            @Value("${auth.password-verification.retry-after-seconds:2}") long retryAfterSeconds) {
+        this.passwordEncoder = passwordEncoder;
+        this.queueTimeoutNanos = TimeUnit.MILLISECONDS.toNanos(queueTimeoutMillis);
+        this.retryAfterSeconds = retryAfterSeconds;
+
+        // Hashing is CPU bound: more threads than cores only adds queueing inside the OS
+        int poolSize = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+        AtomicInteger threadCount = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(poolSize, poolSize, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "password-verifier-" + threadCount.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+
+        this.verificationTimer = Timer.builder("auth.password.verification")
+                .description("Time spent verifying password hashes")
+                .register(meterRegistry);
+        this.queueWaitTimer = Timer.builder("auth.password.queue.wait")
+                .description("Time password verifications waited for a worker")
+                .register(meterRegistry);
+        this.rejectedCounter = Counter.builder("auth.password.rejected")
+                .description("Password verifications shed because the queue was saturated")
+                .register(meterRegistry);
+        meterRegistry.gauge("auth.password.queue.depth", executor, e -> e.getQueue().size());
+    }
+
+    /**
+     * Verifies a raw password against its encoded hash on the verification pool.
+     *
+     * @param rawPassword     The password supplied by the user
+     * @param encodedPassword The stored hash
+     * @return true if the password matches
+     * @throws ServiceBusyException if the pool is saturated
+     */
+    public boolean matches(String rawPassword, String encodedPassword) {
+        long enqueuedAt = System.nanoTime();
+        Future<Boolean> result;
+        try {
+            result = executor.submit(() -> {
+                long waited = System.nanoTime() - enqueuedAt;
+                queueWaitTimer.record(waited, TimeUnit.NANOSECONDS);
+                if (waited > queueTimeoutNanos) {
+                    // The caller has been waiting past the SLO; don't spend CPU on a stale attempt
+                    throw busy("Password verification waited too long in queue");
+                }
+                return verificationTimer.record(() -> passwordEncoder.matches(rawPassword, encodedPassword));
+            });
+        } catch (RejectedExecutionException e) {
+            throw busy("Password verification queue is full");
+        }
+
+        try {
+            return result.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            result.cancel(true);
+            throw new IllegalStateException("Interrupted while verifying password", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new IllegalStateException("Password verification failed", e.getCause());
+        }
+    }
+
+    private ServiceBusyException busy(String message) {
+        rejectedCounter.increment();
+        logger.warn("{} (queue depth: {})", message, executor.getQueue().size());
+        return new ServiceBusyException(message, retryAfterSeconds);
+    }
+
+    @Override
+    public void destroy() {
+        executor.shutdownNow();
+    }
+}
@@ -0,0 +1,25 @@
+package com.projects.tenantmanager.security;
+
+/**
+ * How {@link JwtAuthenticationFilter} decides whether a signed, unexpired
+ * token is still usable. Selected with the {@code session.mode} property.
+ */
+public enum SessionMode {
+    /**
+     * Every issued token must have a live {@code token:} key in the session store.
+     */
+    ALLOWLIST,
+    /**
+     * Tokens are trusted on signature and expiry; only revoked tokens are
+     * tracked, behind an in-memory Bloom filter.
+     */
+    REVOCATION,
+    /**
+     * Tokens carry the session generation of their user, which must match
+     * the user's single {@code gen:} record. Logging out advances the
+     * generation and so ends every session of the user at once. Tokens
+     * issued without a generation are checked against the allowlist until
+     * they expire.
+     */
+    GENERATION
+}
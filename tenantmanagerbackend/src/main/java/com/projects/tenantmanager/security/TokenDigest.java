@@ -0,0 +1,90 @@
+package com.projects.tenantmanager.security;
+
+import java.nio.charset.StandardCharsets;
+import java.security.DigestException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+
+/**
+ * Compact, fixed-size identity of a JWT: the first 128 bits of its SHA-256 hash.
+ * Used as a cache key so that caches never retain the raw token strings.
+ */
+public record TokenDigest(long high, long low) {
+
+    /**
+     * Per-thread hashing state, so hashing a token on the request path
+     * allocates nothing but the digest itself.
+     */
+    private static final ThreadLocal<Hasher> HASHER = ThreadLocal.withInitial(Hasher::new);
+
+    public static TokenDigest of(String token) {
+        return HASHER.get().digest(token);
+    }
+
+    /**
+     * Parses the value produced by {@link #toString()}.
+     */
+    public static TokenDigest parse(String hex) {
+        if (hex == null || hex.length() != 32) {
+            throw new IllegalArgumentException("Invalid token digest: " + hex);
+        }
+        return new TokenDigest(Long.parseUnsignedLong(hex.substring(0, 16), 16),
+                Long.parseUnsignedLong(hex.substring(16), 16));
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%016x%016x", high, low);
+    }
+
+    private static final class Hasher {
+
+        private final MessageDigest sha256;
+        private final byte[] hash = new byte[32];
+        private byte[] input = new byte[512];
+
+        Hasher() {
+            try {
+                sha256 = MessageDigest.getInstance("SHA-256");
+            } catch (NoSuchAlgorithmException e) {
+                throw new IllegalStateException("SHA-256 not available", e);
+            }
+        }
+
+        TokenDigest digest(String value) {
+            int length = value.length();
+            if (input.length < length) {
+                input = new byte[Math.max(length, input.length * 2)];
+            }
+            // JWTs are ASCII, so their UTF-8 encoding is one byte per char
+            for (int i = 0; i < length; i++) {
+                char c = value.charAt(i);
+                if (c >= 0x80) {
+                    sha256.reset();
+                    sha256.update(value.getBytes(StandardCharsets.UTF_8));
+                    return finish();
+                }
+                input[i] = (byte) c;
+            }
+            sha256.update(input, 0, length);
+            return finish();
+        }
+
+        private TokenDigest finish() {
+            try {
+                sha256.digest(hash, 0, hash.length);
+            } catch (DigestException e) {
+                throw new IllegalStateException("Could not hash token", e);
+            }
+            return new TokenDigest(readLong(0), readLong(8));
+        }
+
+        private long readLong(int offset) {
+            long value = 0;
+            for (int i = offset; i < offset + Long.BYTES; i++) {
+                value = (value << 8) | (hash[i] & 0xff);
+            }
+            return value;
+        }
+    }
+}
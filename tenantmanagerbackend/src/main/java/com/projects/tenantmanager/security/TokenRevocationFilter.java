@@ -0,0 +1,100 @@
+package com.projects.tenantmanager.security;
+
+import com.projects.tenantmanager.util.BloomFilter;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+
+/**
+ * In-memory Bloom filter of revoked token digests. A negative answer is
+ * exact and needs no network call; a positive answer must be confirmed
+ * against Redis.
+ * <p>
+ * A fresh filter is started every epoch and the previous one is kept, so a
+ * revoked token is remembered for at least one full epoch. The epoch is
+ * therefore the token lifetime unless configured longer, and a shorter one
+ * fails startup.
+ */
+@Component
+public class TokenRevocationFilter {
+
+    private final long epochMillis;
+    private final long expectedRevocations;
+    private final double falsePositiveRate;
+    private final LongSupplier clock;
+    private volatile Filters filters;
+
+    /**
+     * @param tokenLifetimeMillis The lifetime of issued tokens
+     * @param epochHours          The epoch, or 0 for the token lifetime
+     */
+    @Autowired
+    public TokenRevocationFilter(
+            @Value("${jwt.expiration}") long tokenLifetimeMillis,
+            @Value("${session.revocation.epoch-hours:0}") long epochHours,
+            @Value("${session.revocation.expected-revocations:100000}") long expectedRevocations,
+            @Value("${session.revocation.false-positive-rate:0.001}") double falsePositiveRate) {
+        this(epochMillis(tokenLifetimeMillis, epochHours), expectedRevocations, falsePositiveRate,
+                System::currentTimeMillis);
+    }
+
+    TokenRevocationFilter(long epochMillis, long expectedRevocations, double falsePositiveRate, LongSupplier clock) {
+        this.epochMillis = epochMillis;
+        this.expectedRevocations = expectedRevocations;
+        this.falsePositiveRate = falsePositiveRate;
+        this.clock = clock;
+        this.filters = new Filters(clock.getAsLong() / epochMillis, newFilter(), newFilter());
+    }
+
+    private static long epochMillis(long tokenLifetimeMillis, long epochHours) {
+        if (epochHours == 0) {
+            return tokenLifetimeMillis;
+        }
+        long epochMillis = TimeUnit.HOURS.toMillis(epochHours);
+        if (epochMillis < tokenLifetimeMillis) {
+            throw new IllegalArgumentException("session.revocation.epoch-hours (" + epochHours
+                    + ") is shorter than the token lifetime jwt.expiration (" + tokenLifetimeMillis + " ms)");
+        }
+        return epochMillis;
+    }
+
+    public void add(TokenDigest digest) {
+        currentFilters().current.put(digest.high(), digest.low());
+    }
+
+    /**
+     * @return false if the token has definitely not been revoked
+     */
+    public boolean mightBeRevoked(TokenDigest digest) {
+        Filters f = currentFilters();
+        return f.current.mightContain(digest.high(), digest.low())
+                || f.previous.mightContain(digest.high(), digest.low());
+    }
+
+    private Filters currentFilters() {
+        long epoch = clock.getAsLong() / epochMillis;
+        Filters f = filters;
+        if (f.epoch == epoch) {
+            return f;
+        }
+        synchronized (this) {
+            f = filters;
+            if (f.epoch != epoch) {
+                BloomFilter previous = epoch - f.epoch == 1 ? f.current : newFilter();
+                f = new Filters(epoch, newFilter(), previous);
+                filters = f;
+            }
+            return f;
+        }
+    }
+
+    private BloomFilter newFilter() {
+        return new BloomFilter(expectedRevocations, falsePositiveRate);
+    }
+
+    private record Filters(long epoch, BloomFilter current, BloomFilter previous) {
+    }
+}
@@ -0,0 +1,535 @@
+package com.projects.tenantmanager.service;
+
+import com.projects.tenantmanager.dto.ActiveSessionDto;
+import com.projects.tenantmanager.dto.SessionPage;
+import com.projects.tenantmanager.security.TokenDigest;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+import java.util.function.LongSupplier;
+
+/**
+ * Single-node session store kept off-heap in a memory-mapped file, so
+ * lookups cost no network hop and no serialization, sessions put no
+ * pressure on the garbage collector, and they survive a restart.
+ * <p>
+ * The file holds four open-addressing hash tables of fixed-size slots
+ * keyed by 128-bit digests: sessions by username, usernames by token,
+ * revoked tokens, and session generations by username. Expiries are
+ * wall-clock timestamps; expired and deleted slots are reused by later
+ * inserts, and a table is compacted in place when too few of its slots
+ * are still empty.
+ */
+@Component
+@ConditionalOnProperty(name = "session.store", havingValue = "embedded")
+public class EmbeddedSessionStore implements SessionStore, DisposableBean {
+
+    private static final Logger logger = LoggerFactory.getLogger(EmbeddedSessionStore.class);
+
+    private static final int MAGIC = 0x53455353;
+    private static final int VERSION = 2;
+    private static final int HEADER_SIZE = 64;
+    private static final int TABLES = 4;
+
+    // Slot layout: key digest, expiry, value digest, then the length-prefixed UTF-8 username
+    private static final int SLOT_SIZE = 128;
+    private static final int KEY_HIGH = 0;
+    private static final int KEY_LOW = 8;
+    private static final int EXPIRES_AT = 16;
+    private static final int VALUE_HIGH = 24;
+    private static final int VALUE_LOW = 32;
+    private static final int NAME_LENGTH = 40;
+    private static final int NAME = 42;
+    static final int MAX_NAME_BYTES = SLOT_SIZE - NAME;
+
+    private static final long EMPTY = 0;
+    private static final long DELETED = -1;
+
+    private static final long SESSION_TTL_MILLIS = TimeUnit.HOURS.toMillis(SESSION_TTL_HOURS);
+    private static final byte[] NO_NAME = new byte[0];
+
+    private final MappedByteBuffer buffer;
+    private final int capacity;
+    private final long tokenLifetimeMillis;
+    private final LongSupplier clock;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    /**
+     * Keyed by username digest; the value is the digest of the current token.
+     */
+    private final Table sessions;
+
+    /**
+     * Keyed by token digest; holds the username.
+     */
+    private final Table tokens;
+
+    private final Table revoked;
+
+    /**
+     * Keyed by username digest; the value holds the generation.
+     */
+    private final Table generations;
+
+    @Autowired
+    public EmbeddedSessionStore(@Value("${session.embedded.path:data/sessions.db}") String path,
+            @Value("${session.embedded.capacity:65536}") int capacity,
+            @Value("${jwt.expiration}") long tokenLifetimeMillis) throws IOException {
+        this(Path.of(path), capacity, tokenLifetimeMillis, System::currentTimeMillis);
+    }
+
+    EmbeddedSessionStore(Path path, int capacity, long tokenLifetimeMillis, LongSupplier clock) throws IOException {
+        this.capacity = Integer.highestOneBit(Math.max(capacity, 16) - 1) << 1;
+        this.tokenLifetimeMillis = tokenLifetimeMillis;
+        this.clock = clock;
+        long size = HEADER_SIZE + (long) TABLES * this.capacity * SLOT_SIZE;
+        if (size > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Embedded session store capacity too large: " + capacity);
+        }
+
+        Path parent = path.toAbsolutePath().getParent();
+        if (parent != null) {
+            Files.createDirectories(parent);
+        }
+        try (FileChannel channel = FileChannel.open(path,
+                StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            if (channel.size() > 0 && !isCompatible(channel, size)) {
+                logger.warn("Discarding incompatible session file {}", path);
+                channel.truncate(0);
+            }
+            // The mapping stays valid after the channel is closed
+            this.buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, size);
+        }
+        buffer.putInt(0, MAGIC);
+        buffer.putInt(4, VERSION);
+        buffer.putInt(8, this.capacity);
+
+        this.sessions = new Table(0);
+        this.tokens = new Table(1);
+        this.revoked = new Table(2);
+        this.generations = new Table(3);
+        logger.info("Opened embedded session store {} with {} slots", path, this.capacity);
+    }
+
+    private boolean isCompatible(FileChannel channel, long size) throws IOException {
+        ByteBuffer header = ByteBuffer.allocate(12);
+        channel.read(header, 0);
+        return channel.size() == size
+                && header.getInt(0) == MAGIC
+                && header.getInt(4) == VERSION
+                && header.getInt(8) == capacity;
+    }
+
+    @Override
+    public void store(String username, String token) {
+        byte[] name = username.getBytes(StandardCharsets.UTF_8);
+        if (name.length > MAX_NAME_BYTES) {
+            throw new IllegalArgumentException("Username too long for the embedded session store");
+        }
+        TokenDigest user = TokenDigest.of(username);
+        TokenDigest digest = TokenDigest.of(token);
+        long now = clock.getAsLong();
+        long expiresAt = now + SESSION_TTL_MILLIS;
+
+        lock.writeLock().lock();
+        try {
+            tokens.put(tokens.claim(digest.high(), digest.low(), now),
+                    digest.high(), digest.low(), expiresAt, 0, 0, name);
+            sessions.put(sessions.claim(user.high(), user.low(), now),
+                    user.high(), user.low(), expiresAt, digest.high(), digest.low(), name);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public boolean contains(String token) {
+        TokenDigest digest = TokenDigest.of(token);
+        long now = clock.getAsLong();
+        lock.readLock().lock();
+        try {
+            return tokens.find(digest.high(), digest.low(), now) >= 0;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public String getUsername(String token) {
+        TokenDigest digest = TokenDigest.of(token);
+        long now = clock.getAsLong();
+        lock.readLock().lock();
+        try {
+            int offset = tokens.find(digest.high(), digest.low(), now);
+            return offset >= 0 ? tokens.name(offset) : null;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public TokenDigest remove(String username) {
+        long now = clock.getAsLong();
+        lock.writeLock().lock();
+        try {
+            return removeLocked(username, now);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public List<TokenDigest> removeAll(List<String> usernames) {
+        long now = clock.getAsLong();
+        List<TokenDigest> removed = new ArrayList<>();
+        lock.writeLock().lock();
+        try {
+            for (String username : usernames) {
+                TokenDigest digest = removeLocked(username, now);
+                if (digest != null) {
+                    removed.add(digest);
+                }
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+        return removed;
+    }
+
+    private TokenDigest removeLocked(String username, long now) {
+        TokenDigest user = TokenDigest.of(username);
+        int session = sessions.find(user.high(), user.low(), now);
+        if (session < 0) {
+            return null;
+        }
+        TokenDigest digest = new TokenDigest(buffer.getLong(session + VALUE_HIGH), buffer.getLong(session + VALUE_LOW));
+        sessions.delete(session);
+
+        int token = tokens.find(digest.high(), digest.low(), now);
+        if (token >= 0) {
+            tokens.delete(token);
+        }
+        return digest;
+    }
+
+    @Override
+    public void extend(Map<String, String> usernamesByToken) {
+        long now = clock.getAsLong();
+        long expiresAt = now + SESSION_TTL_MILLIS;
+        lock.writeLock().lock();
+        try {
+            usernamesByToken.forEach((token, username) -> {
+                TokenDigest digest = TokenDigest.of(token);
+                int offset = tokens.find(digest.high(), digest.low(), now);
+                if (offset >= 0) {
+                    buffer.putLong(offset + EXPIRES_AT, expiresAt);
+                }
+                TokenDigest user = TokenDigest.of(username);
+                offset = sessions.find(user.high(), user.low(), now);
+                if (offset >= 0) {
+                    buffer.putLong(offset + EXPIRES_AT, expiresAt);
+                }
+            });
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Lists sessions in slot order; the cursor is the next slot to visit.
+     */
+    @Override
+    public SessionPage list(String cursor, int count) {
+        int slot = Integer.parseInt(cursor);
+        long now = clock.getAsLong();
+        List<ActiveSessionDto> page = new ArrayList<>(count);
+        lock.readLock().lock();
+        try {
+            for (; slot < capacity && page.size() < count; slot++) {
+                int offset = sessions.offset(slot);
+                long expiresAt = buffer.getLong(offset + EXPIRES_AT);
+                if (expiresAt > now) {
+                    page.add(new ActiveSessionDto(sessions.name(offset),
+                            TimeUnit.MILLISECONDS.toSeconds(expiresAt - now)));
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        return new SessionPage(page, slot >= capacity ? "0" : String.valueOf(slot));
+    }
+
+    /**
+     * Records the revocations for the token lifetime. There are no other
+     * nodes to notify.
+     */
+    @Override
+    public void revoke(List<TokenDigest> digests) {
+        long now = clock.getAsLong();
+        long expiresAt = now + tokenLifetimeMillis;
+        lock.writeLock().lock();
+        try {
+            for (TokenDigest digest : digests) {
+                revoked.put(revoked.claim(digest.high(), digest.low(), now),
+                        digest.high(), digest.low(), expiresAt, 0, 0, NO_NAME);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public boolean isRevoked(TokenDigest digest) {
+        long now = clock.getAsLong();
+        lock.readLock().lock();
+        try {
+            return revoked.find(digest.high(), digest.low(), now) >= 0;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public void forEachRevoked(Consumer<TokenDigest> action) {
+        long now = clock.getAsLong();
+        lock.readLock().lock();
+        try {
+            for (int slot = 0; slot < capacity; slot++) {
+                int offset = revoked.offset(slot);
+                if (buffer.getLong(offset + EXPIRES_AT) > now) {
+                    action.accept(new TokenDigest(buffer.getLong(offset + KEY_HIGH), buffer.getLong(offset + KEY_LOW)));
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * A new record starts at the clock millis, above any generation a lost
+     * or expired record of the user can have reached.
+     */
+    @Override
+    public long acquireGeneration(String username) {
+        TokenDigest user = TokenDigest.of(username);
+        long now = clock.getAsLong();
+        long expiresAt = now + tokenLifetimeMillis;
+        lock.writeLock().lock();
+        try {
+            int offset = generations.find(user.high(), user.low(), now);
+            if (offset >= 0) {
+                buffer.putLong(offset + EXPIRES_AT, expiresAt);
+                return buffer.getLong(offset + VALUE_HIGH);
+            }
+            generations.put(generations.claim(user.high(), user.low(), now),
+                    user.high(), user.low(), expiresAt, now, 0, NO_NAME);
+            return now;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public Long getGeneration(String username) {
+        TokenDigest user = TokenDigest.of(username);
+        long now = clock.getAsLong();
+        lock.readLock().lock();
+        try {
+            int offset = generations.find(user.high(), user.low(), now);
+            return offset >= 0 ? buffer.getLong(offset + VALUE_HIGH) : null;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public List<String> advanceGenerations(List<String> usernames) {
+        long now = clock.getAsLong();
+        long expiresAt = now + tokenLifetimeMillis;
+        List<String> advanced = new ArrayList<>();
+        lock.writeLock().lock();
+        try {
+            for (String username : usernames) {
+                TokenDigest user = TokenDigest.of(username);
+                int offset = generations.find(user.high(), user.low(), now);
+                if (offset >= 0) {
+                    buffer.putLong(offset + VALUE_HIGH, buffer.getLong(offset + VALUE_HIGH) + 1);
+                    buffer.putLong(offset + EXPIRES_AT, expiresAt);
+                    advanced.add(username);
+                }
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+        return advanced;
+    }
+
+    @Override
+    public void destroy() {
+        buffer.force();
+    }
+
+    /**
+     * Linear-probing hash table over a region of the mapped file. Lookups
+     * stop at the first never-used slot, so a table is compacted before
+     * never-used slots run short. All mutations happen under the write lock.
+     */
+    private final class Table {
+
+        private final int base;
+        private final int maxUsed;
+
+        /**
+         * Number of slots that are not {@link #EMPTY}.
+         */
+        private int used;
+
+        Table(int index) {
+            this.base = HEADER_SIZE + index * capacity * SLOT_SIZE;
+            this.maxUsed = capacity / 4 * 3;
+            for (int slot = 0; slot < capacity; slot++) {
+                if (buffer.getLong(offset(slot) + EXPIRES_AT) != EMPTY) {
+                    used++;
+                }
+            }
+        }
+
+        int offset(int slot) {
+            return base + slot * SLOT_SIZE;
+        }
+
+        /**
+         * @return The offset of the live slot holding the key, or -1
+         */
+        int find(long high, long low, long now) {
+            int mask = capacity - 1;
+            int slot = (int) high & mask;
+            for (int probes = 0; probes < capacity; probes++) {
+                int offset = offset(slot);
+                long expiresAt = buffer.getLong(offset + EXPIRES_AT);
+                if (expiresAt == EMPTY) {
+                    return -1;
+                }
+                if (expiresAt > now && matches(offset, high, low)) {
+                    return offset;
+                }
+                slot = (slot + 1) & mask;
+            }
+            return -1;
+        }
+
+        /**
+         * @return The offset of the slot to write the key to: its existing
+         *         slot if present, otherwise the first reusable slot
+         */
+        int claim(long high, long low, long now) {
+            if (used >= maxUsed) {
+                compact(now);
+                if (used >= maxUsed) {
+                    throw new IllegalStateException("Embedded session store is full, increase session.embedded.capacity");
+                }
+            }
+            int offset = slotFor(high, low, now);
+            if (buffer.getLong(offset + EXPIRES_AT) == EMPTY) {
+                used++;
+            }
+            return offset;
+        }
+
+        private int slotFor(long high, long low, long now) {
+            int mask = capacity - 1;
+            int slot = (int) high & mask;
+            int reusable = -1;
+            for (int probes = 0; probes < capacity; probes++) {
+                int offset = offset(slot);
+                long expiresAt = buffer.getLong(offset + EXPIRES_AT);
+                if (expiresAt == EMPTY) {
+                    return reusable >= 0 ? reusable : offset;
+                }
+                if (expiresAt != DELETED && matches(offset, high, low)) {
+                    return offset;
+                }
+                if (expiresAt <= now && reusable < 0) {
+                    reusable = offset;
+                }
+                slot = (slot + 1) & mask;
+            }
+            if (reusable < 0) {
+                throw new IllegalStateException("Embedded session store is full, increase session.embedded.capacity");
+            }
+            return reusable;
+        }
+
+        void put(int offset, long high, long low, long expiresAt, long valueHigh, long valueLow, byte[] name) {
+            buffer.putLong(offset + KEY_HIGH, high);
+            buffer.putLong(offset + KEY_LOW, low);
+            buffer.putLong(offset + VALUE_HIGH, valueHigh);
+            buffer.putLong(offset + VALUE_LOW, valueLow);
+            buffer.putShort(offset + NAME_LENGTH, (short) name.length);
+            buffer.put(offset + NAME, name);
+            buffer.putLong(offset + EXPIRES_AT, expiresAt);
+        }
+
+        void delete(int offset) {
+            buffer.putLong(offset + EXPIRES_AT, DELETED);
+        }
+
+        String name(int offset) {
+            byte[] name = new byte[buffer.getShort(offset + NAME_LENGTH)];
+            buffer.get(offset + NAME, name);
+            return new String(name, StandardCharsets.UTF_8);
+        }
+
+        private boolean matches(int offset, long high, long low) {
+            return buffer.getLong(offset + KEY_HIGH) == high && buffer.getLong(offset + KEY_LOW) == low;
+        }
+
+        /**
+         * Rehashes the live slots in place, turning deleted and expired
+         * slots back into never-used ones.
+         */
+        private void compact(long now) {
+            List<byte[]> live = new ArrayList<>();
+            for (int slot = 0; slot < capacity; slot++) {
+                int offset = offset(slot);
+                if (buffer.getLong(offset + EXPIRES_AT) > now) {
+                    byte[] entry = new byte[SLOT_SIZE];
+                    buffer.get(offset, entry);
+                    live.add(entry);
+                }
+            }
+
+            for (int i = 0; i < capacity * SLOT_SIZE; i += Long.BYTES) {
+                buffer.putLong(base + i, EMPTY);
+            }
+            used = 0;
+            for (byte[] entry : live) {
+                ByteBuffer slot = ByteBuffer.wrap(entry);
+                int offset = slotFor(slot.getLong(KEY_HIGH), slot.getLong(KEY_LOW), now);
+                buffer.put(offset, entry);
+                used++;
+            }
+            logger.debug("Compacted session table at {} to {} live slots", base, live.size());
+        }
+    }
+}
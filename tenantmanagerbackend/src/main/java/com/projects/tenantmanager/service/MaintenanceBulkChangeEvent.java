@@ -0,0 +1,10 @@
+package com.projects.tenantmanager.service;
+
+import java.util.List;
+
+/**
+ * Several maintenance requests changed in one transaction. Listeners apply
+ * the changes together, e.g. in one cache round trip.
+ */
+public record MaintenanceBulkChangeEvent(List<MaintenanceChangeEvent> changes) {
+}
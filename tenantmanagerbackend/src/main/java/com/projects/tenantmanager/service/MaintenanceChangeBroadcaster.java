@@ -0,0 +1,104 @@
+package com.projects.tenantmanager.service;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.UUID;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Keeps the in-process read models of every node current with the others'
+ * writes: this node's committed changes are published on {@link #CHANNEL},
+ * and changes received from other nodes are applied to the local
+ * {@link MaintenanceFilterIndex} and {@link MaintenanceListingVersions}.
+ *
+ * Pub/sub drops messages while a node is disconnected; the filter index's
+ * periodic rebuild picks those changes up.
+ */
+@Component
+public class MaintenanceChangeBroadcaster implements MessageListener {
+
+    public static final String CHANNEL = "maintenance:changes";
+
+    private static final Logger logger = LoggerFactory.getLogger(MaintenanceChangeBroadcaster.class);
+
+    private final StringRedisTemplate redisTemplate;
+    private final ObjectMapper objectMapper;
+    private final MaintenanceFilterIndex filterIndex;
+    private final MaintenanceListingVersions listingVersions;
+    private final String node = UUID.randomUUID().toString();
+
+    public MaintenanceChangeBroadcaster(StringRedisTemplate redisTemplate, ObjectMapper objectMapper,
+            MaintenanceFilterIndex filterIndex, MaintenanceListingVersions listingVersions) {
+        this.redisTemplate = redisTemplate;
+        this.objectMapper = objectMapper;
+        this.filterIndex = filterIndex;
+        this.listingVersions = listingVersions;
+    }
+
+    /**
+     * Runs after the change commits, and after this node's read models have
+     * applied it (their listeners come first, see
+     * {@link MaintenanceChangeEvent#READ_MODEL_ORDER}), so that the shared
+     * request cache no longer holds the old request when another node bumps
+     * its listing versions.
+     */
+    @Order(Ordered.LOWEST_PRECEDENCE)
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onChange(MaintenanceChangeEvent event) {
+        publish(List.of(event));
+    }
+
+    @Order(Ordered.LOWEST_PRECEDENCE)
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onBulkChange(MaintenanceBulkChangeEvent event) {
+        publish(event.changes());
+    }
+
+    /**
+     * Applies other nodes' changes in the order this node applies its own:
+     * the filter index first, then the listing versions.
+     */
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        try {
+            ChangeMessage changes = objectMapper.readValue(message.getBody(), ChangeMessage.class);
+            if (node.equals(changes.node())) {
+                return;
+            }
+            filterIndex.apply(changes.changes());
+            listingVersions.apply(changes.changes());
+        } catch (IOException | RuntimeException e) {
+            logger.error("Could not process maintenance change message", e);
+        }
+    }
+
+    /**
+     * A failure to publish leaves the other nodes to pick the change up at
+     * their next rebuild.
+     */
+    private void publish(List<MaintenanceChangeEvent> changes) {
+        if (changes.isEmpty()) {
+            return;
+        }
+        try {
+            redisTemplate.convertAndSend(CHANNEL, objectMapper.writeValueAsString(new ChangeMessage(node, changes)));
+        } catch (JsonProcessingException | RuntimeException e) {
+            logger.warn("Could not publish {} maintenance changes: {}", changes.size(), e.getMessage());
+        }
+    }
+
+    record ChangeMessage(String node, List<MaintenanceChangeEvent> changes) {
+    }
+}
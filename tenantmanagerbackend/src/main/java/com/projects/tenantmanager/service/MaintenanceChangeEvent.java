@@ -0,0 +1,30 @@
+package com.projects.tenantmanager.service;
+
+import java.util.UUID;
+
+import com.projects.tenantmanager.model.MaintenanceRequest.Department;
+import com.projects.tenantmanager.model.MaintenanceRequest.Status;
+
+/**
+ * A maintenance request was created or changed. The old values are null for
+ * a new request, and the tenant is only given for a new request.
+ */
+public record MaintenanceChangeEvent(UUID id, Status oldStatus, Department oldDepartment,
+        Status newStatus, Department newDepartment, String tenantName) {
+
+    /**
+     * Order of the listeners that apply a change to the read models listings
+     * are served from. Listeners that announce the change, by a new ETag or
+     * otherwise, keep the default lowest precedence and so run after them.
+     */
+    public static final int READ_MODEL_ORDER = 0;
+
+    public MaintenanceChangeEvent(UUID id, Status oldStatus, Department oldDepartment, Status newStatus,
+            Department newDepartment) {
+        this(id, oldStatus, oldDepartment, newStatus, newDepartment, null);
+    }
+
+    public static MaintenanceChangeEvent created(UUID id, String tenantName, Status status, Department department) {
+        return new MaintenanceChangeEvent(id, null, null, status, department, tenantName);
+    }
+}
@@ -0,0 +1,83 @@
+package com.projects.tenantmanager.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.projects.tenantmanager.dto.MaintenanceChangePage;
+import com.projects.tenantmanager.dto.MaintenanceChangeToken;
+import com.projects.tenantmanager.model.MaintenanceRequest;
+import com.projects.tenantmanager.repository.MaintenanceRequestRepository;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Feed of created and updated maintenance requests, in the order of their
+ * change sequence, for clients that keep a mirror: each page holds the
+ * current state of the requests changed after the client's token.
+ *
+ * Sequence numbers are taken when a write executes, not when it commits,
+ * so a write may become visible after one with a higher number. The feed
+ * therefore stops at the first change younger than the settle time, which
+ * must exceed the duration of any transaction writing requests.
+ */
+@Service
+@Transactional(readOnly = true)
+public class MaintenanceChangeFeedService {
+
+    private static final Logger logger = LoggerFactory.getLogger(MaintenanceChangeFeedService.class);
+
+    private final MaintenanceRequestRepository maintenanceRepository;
+    private final long settleMillis;
+
+    public MaintenanceChangeFeedService(MaintenanceRequestRepository maintenanceRepository,
+            @Value("${maintenance.changes.settle-ms:5000}") long settleMillis) {
+        this.maintenanceRepository = maintenanceRepository;
+        this.settleMillis = settleMillis;
+    }
+
+    /**
+     * Changes after the given token, or else those made at or after the
+     * given instant, or else all of them.
+     */
+    public MaintenanceChangePage getChanges(String token, Instant since, int limit) {
+        Instant settledBefore = Instant.now().minusMillis(settleMillis);
+        long after = token != null ? MaintenanceChangeToken.decode(token).changeSeq() : start(since, settledBefore);
+        logger.debug("Fetching up to {} maintenance request changes after: {}", limit, after);
+
+        List<MaintenanceRequest> rows = maintenanceRepository.findChangedAfter(after, Limit.of(limit + 1));
+        List<MaintenanceRequest> changes = new ArrayList<>(Math.min(rows.size(), limit));
+        boolean settled = true;
+        for (MaintenanceRequest row : rows) {
+            if (changes.size() == limit) {
+                break;
+            }
+            if (row.getUpdatedAt() != null && !row.getUpdatedAt().isBefore(settledBefore)) {
+                settled = false;
+                break;
+            }
+            changes.add(row);
+            after = row.getChangeSeq();
+        }
+        boolean hasMore = settled && rows.size() > limit;
+        return new MaintenanceChangePage(changes, new MaintenanceChangeToken(after).encode(), hasMore);
+    }
+
+    private long start(Instant since, Instant settledBefore) {
+        if (since == null) {
+            return 0;
+        }
+        Long first = maintenanceRepository.findFirstChangeSeqUpdatedSince(since);
+        if (first != null) {
+            return first - 1;
+        }
+        // Nothing changed since then: start after the last settled change
+        Long last = maintenanceRepository.findLastChangeSeqUpdatedBefore(settledBefore);
+        return last == null ? 0 : last;
+    }
+}
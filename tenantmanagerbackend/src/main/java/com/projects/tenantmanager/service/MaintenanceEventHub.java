@@ -0,0 +1,221 @@
+package com.projects.tenantmanager.service;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter.DataWithMediaType;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.projects.tenantmanager.dto.MaintenanceUpdateEvent;
+
+/**
+ * Pushes committed maintenance request changes to subscribed dashboards as
+ * server-sent events: "created" and "status" per request, or one "refetch"
+ * for a bulk change too large to stream request by request.
+ *
+ * Streams are async responses, so idle subscribers hold no request thread.
+ * Each subscriber has a bounded queue drained by its own virtual thread,
+ * so a client that reads slowly blocks only its own writer; one that falls
+ * a full queue behind is disconnected, and reconnects and catches up from
+ * the change feed.
+ *
+ * Only this node's writes are pushed.
+ */
+@Component
+public class MaintenanceEventHub implements DisposableBean {
+
+    private static final Logger logger = LoggerFactory.getLogger(MaintenanceEventHub.class);
+
+    private final ObjectMapper objectMapper;
+    private final int bufferSize;
+    private final int maxSubscribers;
+    private final long timeoutMillis;
+    private final int maxBulkEvents;
+    private final Map<SseEmitter, Subscriber> subscribers = new ConcurrentHashMap<>();
+    private final ExecutorService writers;
+
+    @Autowired
+    public MaintenanceEventHub(ObjectMapper objectMapper,
+            @Value("${maintenance.events.buffer-size:256}") int bufferSize,
+            @Value("${maintenance.events.max-subscribers:10000}") int maxSubscribers,
+            @Value("${maintenance.events.timeout-ms:1800000}") long timeoutMillis,
+            @Value("${maintenance.events.max-bulk-events:100}") int maxBulkEvents) {
+        this(objectMapper, bufferSize, maxSubscribers, timeoutMillis, maxBulkEvents,
+                Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("maintenance-events-", 0).factory()));
+    }
+
+    MaintenanceEventHub(ObjectMapper objectMapper, int bufferSize, int maxSubscribers, long timeoutMillis,
+            int maxBulkEvents, ExecutorService writers) {
+        this.objectMapper = objectMapper;
+        this.bufferSize = bufferSize;
+        this.maxSubscribers = maxSubscribers;
+        this.timeoutMillis = timeoutMillis;
+        this.maxBulkEvents = maxBulkEvents;
+        this.writers = writers;
+    }
+
+    /**
+     * Opens a stream of events; fails when the subscriber limit is reached.
+     */
+    public SseEmitter subscribe() {
+        if (subscribers.size() >= maxSubscribers) {
+            throw new IllegalStateException("Too many maintenance event subscribers");
+        }
+        SseEmitter emitter = new SseEmitter(timeoutMillis);
+        Subscriber subscriber = new Subscriber(emitter, new ArrayBlockingQueue<>(bufferSize));
+        subscribers.put(emitter, subscriber);
+        emitter.onCompletion(() -> close(subscriber));
+        emitter.onError(e -> close(subscriber));
+        emitter.onTimeout(() -> {
+            close(subscriber);
+            emitter.complete();
+        });
+        // Sent first, so that the response starts before the first change
+        subscriber.queue.offer(SseEmitter.event().comment("connected").build());
+        writers.execute(() -> write(subscriber));
+        logger.debug("Maintenance event subscriber added, {} connected", subscribers.size());
+        return emitter;
+    }
+
+    public int getSubscriberCount() {
+        return subscribers.size();
+    }
+
+    /**
+     * Runs after the change commits, and after the filter index and request
+     * cache have applied it (their listeners come first, see
+     * {@link MaintenanceChangeEvent#READ_MODEL_ORDER}), so that a dashboard
+     * refetching on an event sees the change.
+     */
+    @Order(Ordered.LOWEST_PRECEDENCE)
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onChange(MaintenanceChangeEvent event) {
+        if (!subscribers.isEmpty()) {
+            publish(message(event));
+        }
+    }
+
+    @Order(Ordered.LOWEST_PRECEDENCE)
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onBulkChange(MaintenanceBulkChangeEvent event) {
+        if (subscribers.isEmpty()) {
+            return;
+        }
+        List<MaintenanceChangeEvent> changes = event.changes();
+        if (changes.size() > maxBulkEvents) {
+            publish(SseEmitter.event().name("refetch").data(json(Map.of("count", changes.size()))).build());
+            return;
+        }
+        for (MaintenanceChangeEvent change : changes) {
+            publish(message(change));
+        }
+    }
+
+    /**
+     * Keeps idle streams from being closed by proxies, and finds clients
+     * that went away without closing the connection.
+     */
+    @Scheduled(fixedDelayString = "${maintenance.events.heartbeat-ms:15000}")
+    public void heartbeat() {
+        if (!subscribers.isEmpty()) {
+            publish(SseEmitter.event().comment("").build());
+        }
+    }
+
+    @Override
+    public void destroy() {
+        subscribers.values().forEach(this::close);
+        writers.shutdownNow();
+    }
+
+    private Set<DataWithMediaType> message(MaintenanceChangeEvent change) {
+        return SseEmitter.event()
+                .name(change.oldStatus() == null ? "created" : "status")
+                .data(json(new MaintenanceUpdateEvent(change.id(), change.oldStatus(), change.newStatus(),
+                        change.newDepartment())))
+                .build();
+    }
+
+    /**
+     * Serialized once here rather than by each subscriber's writer.
+     */
+    private String json(Object data) {
+        try {
+            return objectMapper.writeValueAsString(data);
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("Cannot serialize maintenance event", e);
+        }
+    }
+
+    private void publish(Set<DataWithMediaType> message) {
+        for (Subscriber subscriber : subscribers.values()) {
+            if (!subscriber.queue.offer(message)) {
+                logger.info("Disconnecting maintenance event subscriber {} events behind", bufferSize);
+                close(subscriber);
+            }
+        }
+    }
+
+    /**
+     * Never blocks: the writer, possibly stuck on a slow connection, is
+     * interrupted and completes the stream itself.
+     */
+    private void close(Subscriber subscriber) {
+        if (subscribers.remove(subscriber.emitter) == null) {
+            return;
+        }
+        subscriber.closed = true;
+        subscriber.queue.clear();
+        Thread writer = subscriber.writer;
+        if (writer != null) {
+            writer.interrupt();
+        }
+    }
+
+    private void write(Subscriber subscriber) {
+        subscriber.writer = Thread.currentThread();
+        try {
+            while (!subscriber.closed) {
+                subscriber.emitter.send(subscriber.queue.take());
+            }
+        } catch (InterruptedException e) {
+            // Closed while waiting
+        } catch (IOException | IllegalStateException e) {
+            logger.debug("Maintenance event subscriber disconnected: {}", e.getMessage());
+            close(subscriber);
+        } finally {
+            subscriber.emitter.complete();
+        }
+    }
+
+    private static final class Subscriber {
+        final SseEmitter emitter;
+        final BlockingQueue<Set<DataWithMediaType>> queue;
+        volatile boolean closed;
+        volatile Thread writer;
+
+        Subscriber(SseEmitter emitter, BlockingQueue<Set<DataWithMediaType>> queue) {
+            this.emitter = emitter;
+            this.queue = queue;
+        }
+    }
+}
@@ -0,0 +1,159 @@
+package com.projects.tenantmanager.service;
+
+import org.hibernate.jpa.HibernateHints;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.projects.tenantmanager.model.MaintenanceRequest;
+import com.projects.tenantmanager.model.MaintenanceRequest.Department;
+import com.projects.tenantmanager.model.MaintenanceRequest.Status;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.stream.Stream;
+
+import static com.projects.tenantmanager.repository.MaintenanceRequestSpecifications.*;
+
+/**
+ * Writes maintenance requests to a stream as they are read from a database
+ * cursor. Each row is detached once written, so memory use does not depend
+ * on the number of rows exported.
+ */
+@Service
+public class MaintenanceExportService {
+
+    private static final Logger logger = LoggerFactory.getLogger(MaintenanceExportService.class);
+
+    static final String CSV_HEADER =
+            "id,tenantName,unitNumber,department,status,approved,createdAt,updatedAt,description";
+
+    private final EntityManager entityManager;
+    private final ObjectWriter jsonWriter;
+    private final int fetchSize;
+
+    public MaintenanceExportService(EntityManager entityManager, ObjectMapper objectMapper,
+            @Value("${maintenance.export.fetch-size:500}") int fetchSize) {
+        this.entityManager = entityManager;
+        this.jsonWriter = objectMapper.writerFor(MaintenanceRequest.class)
+                .without(JsonGenerator.Feature.AUTO_CLOSE_TARGET)
+                .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+        this.fetchSize = fetchSize;
+    }
+
+    /**
+     * Writes every request matching the filters, oldest first. Null filters
+     * are not applied. The output stream is flushed but not closed.
+     *
+     * @return The number of requests written
+     */
+    @Transactional(readOnly = true)
+    public long export(Status status, Department department, Instant from, Instant to, ExportFormat format,
+            OutputStream out) throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), 64 * 1024);
+        if (format == ExportFormat.CSV) {
+            writer.write(CSV_HEADER);
+            writer.write('\n');
+        }
+
+        long count = 0;
+        try (Stream<MaintenanceRequest> rows = query(
+                Specification.allOf(hasStatus(status), hasDepartment(department), createdBetween(from, to)))) {
+            for (MaintenanceRequest request : (Iterable<MaintenanceRequest>) rows::iterator) {
+                if (format == ExportFormat.CSV) {
+                    writeCsv(writer, request);
+                } else {
+                    jsonWriter.writeValue(writer, request);
+                    writer.write('\n');
+                }
+                entityManager.detach(request);
+                count++;
+            }
+        }
+        writer.flush();
+        logger.info("Exported {} maintenance requests as {}", count, format);
+        return count;
+    }
+
+    private Stream<MaintenanceRequest> query(Specification<MaintenanceRequest> filter) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<MaintenanceRequest> query = cb.createQuery(MaintenanceRequest.class);
+        Root<MaintenanceRequest> root = query.from(MaintenanceRequest.class);
+        Predicate predicate = filter.toPredicate(root, query, cb);
+        if (predicate != null) {
+            query.where(predicate);
+        }
+        query.orderBy(cb.asc(root.get("createdAt")), cb.asc(root.get("id")));
+        return entityManager.createQuery(query)
+                .setHint(HibernateHints.HINT_FETCH_SIZE, fetchSize)
+                .setHint(HibernateHints.HINT_READ_ONLY, true)
+                .getResultStream();
+    }
+
+    private static void writeCsv(Writer writer, MaintenanceRequest request) throws IOException {
+        writer.write(String.valueOf(request.getId()));
+        writer.write(',');
+        writeCsvField(writer, request.getTenantName());
+        writer.write(',');
+        writeCsvField(writer, request.getUnitNumber());
+        writer.write(',');
+        writeCsvField(writer, request.getDepartment() == null ? null : request.getDepartment().name());
+        writer.write(',');
+        writeCsvField(writer, request.getStatus() == null ? null : request.getStatus().name());
+        writer.write(',');
+        writer.write(String.valueOf(request.isApproved()));
+        writer.write(',');
+        writeCsvField(writer, request.getCreatedAt() == null ? null : request.getCreatedAt().toString());
+        writer.write(',');
+        writeCsvField(writer, request.getUpdatedAt() == null ? null : request.getUpdatedAt().toString());
+        writer.write(',');
+        writeCsvField(writer, request.getDescription());
+        writer.write('\n');
+    }
+
+    /**
+     * RFC 4180: fields containing a separator, quote or line break are quoted,
+     * with quotes doubled.
+     */
+    static void writeCsvField(Writer writer, String value) throws IOException {
+        if (value == null) {
+            return;
+        }
+        boolean quote = false;
+        for (int i = 0; i < value.length() && !quote; i++) {
+            char c = value.charAt(i);
+            quote = c == ',' || c == '"' || c == '\n' || c == '\r';
+        }
+        if (!quote) {
+            writer.write(value);
+            return;
+        }
+        writer.write('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '"') {
+                writer.write('"');
+            }
+            writer.write(c);
+        }
+        writer.write('"');
+    }
+}
@@ -0,0 +1,235 @@
+package com.projects.tenantmanager.service;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.Stream;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.annotation.Order;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.projects.tenantmanager.model.MaintenanceRequest.Department;
+import com.projects.tenantmanager.model.MaintenanceRequest.Status;
+import com.projects.tenantmanager.repository.MaintenanceRequestKey;
+import com.projects.tenantmanager.repository.MaintenanceRequestRepository;
+
+/**
+ * In-process read model answering status and department filters. Each
+ * request gets a dense row number, and each status and department a bitmap
+ * over the rows, so a filter is one bitmap AND.
+ *
+ * Built from the database at startup and kept current by this node's
+ * writes and, through {@link MaintenanceChangeBroadcaster}, the other
+ * nodes'. It is rebuilt periodically, which bounds how long a change whose
+ * message was lost stays invisible.
+ */
+@Component
+public class MaintenanceFilterIndex {
+
+    private static final Logger logger = LoggerFactory.getLogger(MaintenanceFilterIndex.class);
+
+    private final MaintenanceRequestRepository maintenanceRepository;
+    private final TransactionTemplate readOnlyTransaction;
+    private final boolean enabled;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private Rows rows = new Rows();
+    private volatile boolean ready;
+    private volatile long generation;
+
+    /**
+     * Changes applied while a rebuild reads the database, replayed on top of
+     * the rebuilt rows. Null when no rebuild is running.
+     */
+    private List<MaintenanceChangeEvent> changesDuringRebuild;
+
+    public MaintenanceFilterIndex(MaintenanceRequestRepository maintenanceRepository,
+            PlatformTransactionManager transactionManager,
+            @Value("${maintenance.index.enabled:true}") boolean enabled) {
+        this.maintenanceRepository = maintenanceRepository;
+        this.enabled = enabled;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    /**
+     * Number of completed rebuilds; a rebuild can change any filter's
+     * result, by picking up changes whose messages were lost.
+     */
+    public long getGeneration() {
+        return generation;
+    }
+
+    /**
+     * Ids of the requests with the given status and department; a null
+     * filter matches everything.
+     */
+    public List<UUID> find(Status status, Department department) {
+        lock.readLock().lock();
+        try {
+            BitSet matches;
+            if (status == null && department == null) {
+                matches = rows.live;
+            } else if (department == null) {
+                matches = rows.byStatus.get(status);
+            } else if (status == null) {
+                matches = rows.byDepartment.get(department);
+            } else {
+                matches = (BitSet) rows.byStatus.get(status).clone();
+                matches.and(rows.byDepartment.get(department));
+            }
+            List<UUID> ids = new ArrayList<>(matches.cardinality());
+            for (int row = matches.nextSetBit(0); row >= 0; row = matches.nextSetBit(row + 1)) {
+                ids.add(rows.ids.get(row));
+            }
+            return ids;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Order(MaintenanceChangeEvent.READ_MODEL_ORDER)
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onChange(MaintenanceChangeEvent event) {
+        apply(List.of(event));
+    }
+
+    @Order(MaintenanceChangeEvent.READ_MODEL_ORDER)
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onBulkChange(MaintenanceBulkChangeEvent event) {
+        apply(event.changes());
+    }
+
+    /**
+     * Applies committed changes, including those received from other nodes.
+     */
+    void apply(List<MaintenanceChangeEvent> changes) {
+        lock.writeLock().lock();
+        try {
+            for (MaintenanceChangeEvent change : changes) {
+                rows.apply(change.id(), change.newStatus(), change.newDepartment());
+            }
+            if (changesDuringRebuild != null) {
+                changesDuringRebuild.addAll(changes);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onStartup() {
+        rebuild();
+    }
+
+    @Scheduled(initialDelayString = "${maintenance.index.rebuild-interval-ms:600000}",
+            fixedDelayString = "${maintenance.index.rebuild-interval-ms:600000}")
+    public void rebuild() {
+        if (!enabled) {
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            if (changesDuringRebuild != null) {
+                return;
+            }
+            changesDuringRebuild = new ArrayList<>();
+        } finally {
+            lock.writeLock().unlock();
+        }
+
+        Rows rebuilt = new Rows();
+        try {
+            readOnlyTransaction.executeWithoutResult(transaction -> {
+                try (Stream<MaintenanceRequestKey> keys = maintenanceRepository.streamAllKeys()) {
+                    keys.forEach(key -> rebuilt.apply(key.getId(), key.getStatus(), key.getDepartment()));
+                }
+            });
+        } catch (RuntimeException e) {
+            logger.error("Could not rebuild the maintenance filter index", e);
+            lock.writeLock().lock();
+            changesDuringRebuild = null;
+            lock.writeLock().unlock();
+            return;
+        }
+
+        lock.writeLock().lock();
+        try {
+            // Each change carries its full new state, so replaying one the
+            // database pass already saw is harmless
+            for (MaintenanceChangeEvent event : changesDuringRebuild) {
+                rebuilt.apply(event.id(), event.newStatus(), event.newDepartment());
+            }
+            changesDuringRebuild = null;
+            rows = rebuilt;
+            ready = true;
+            generation++;
+        } finally {
+            lock.writeLock().unlock();
+        }
+        logger.info("Rebuilt maintenance filter index with {} requests", rebuilt.ids.size());
+    }
+
+    /**
+     * The row numbering and bitmaps, replaced as a whole on rebuild.
+     */
+    private static final class Rows {
+
+        private final Map<UUID, Integer> rowOf = new HashMap<>();
+        private final List<UUID> ids = new ArrayList<>();
+        private final BitSet live = new BitSet();
+        private final EnumMap<Status, BitSet> byStatus = new EnumMap<>(Status.class);
+        private final EnumMap<Department, BitSet> byDepartment = new EnumMap<>(Department.class);
+
+        Rows() {
+            for (Status status : Status.values()) {
+                byStatus.put(status, new BitSet());
+            }
+            for (Department department : Department.values()) {
+                byDepartment.put(department, new BitSet());
+            }
+        }
+
+        void apply(UUID id, Status status, Department department) {
+            Integer row = rowOf.get(id);
+            if (row == null) {
+                row = ids.size();
+                rowOf.put(id, row);
+                ids.add(id);
+                live.set(row);
+            } else {
+                for (BitSet bits : byStatus.values()) {
+                    bits.clear(row);
+                }
+                for (BitSet bits : byDepartment.values()) {
+                    bits.clear(row);
+                }
+            }
+            if (status != null) {
+                byStatus.get(status).set(row);
+            }
+            if (department != null) {
+                byDepartment.get(department).set(row);
+            }
+        }
+    }
+}
@@ -0,0 +1,90 @@
+package com.projects.tenantmanager.service;
+
+import java.util.stream.Stream;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.projects.tenantmanager.repository.MaintenanceRequestContent;
+import com.projects.tenantmanager.repository.MaintenanceRequestRepository;
+import com.projects.tenantmanager.util.BloomFilter;
+
+/**
+ * In-memory Bloom filter of the stored request fingerprints, so that most
+ * new requests are known not to be duplicates without a query. It can miss
+ * fingerprints stored by other nodes or during its startup load; the unique
+ * constraint on the column still rejects those duplicates on insert.
+ */
+@Component
+public class MaintenanceFingerprintFilter {
+
+    private static final Logger logger = LoggerFactory.getLogger(MaintenanceFingerprintFilter.class);
+
+    private final MaintenanceRequestRepository maintenanceRepository;
+    private final TransactionTemplate transaction;
+    private final BloomFilter filter;
+    private volatile boolean ready;
+
+    public MaintenanceFingerprintFilter(MaintenanceRequestRepository maintenanceRepository,
+            PlatformTransactionManager transactionManager,
+            @Value("${maintenance.fingerprint.expected-requests:1000000}") long expectedRequests,
+            @Value("${maintenance.fingerprint.false-positive-rate:0.01}") double falsePositiveRate) {
+        this.maintenanceRepository = maintenanceRepository;
+        this.transaction = new TransactionTemplate(transactionManager);
+        this.filter = new BloomFilter(expectedRequests, falsePositiveRate);
+    }
+
+    /**
+     * False if no stored request has this fingerprint. Until the filter is
+     * loaded, every fingerprint might exist.
+     */
+    public boolean mightExist(RequestFingerprint fingerprint) {
+        return !ready || filter.mightContain(fingerprint.high(), fingerprint.low());
+    }
+
+    public void add(RequestFingerprint fingerprint) {
+        filter.put(fingerprint.high(), fingerprint.low());
+    }
+
+    /**
+     * Loads the stored fingerprints, first computing those of requests stored
+     * before fingerprints existed. Of several such requests with the same
+     * content, only the oldest one found is fingerprinted; the others stay
+     * unfingerprinted rather than violate the unique constraint.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        int[] backfill = new int[2];
+        transaction.executeWithoutResult(status -> {
+            try (Stream<String> fingerprints = maintenanceRepository.streamFingerprints()) {
+                fingerprints.forEach(hex -> add(RequestFingerprint.parse(hex)));
+            }
+            try (Stream<MaintenanceRequestContent> rows = maintenanceRepository.streamWithoutFingerprint()) {
+                rows.forEach(row -> {
+                    RequestFingerprint fingerprint = RequestFingerprint.of(row.getUnitNumber(), row.getDepartment(),
+                            row.getDescription());
+                    if (filter.mightContain(fingerprint.high(), fingerprint.low())
+                            && maintenanceRepository.existsByFingerprint(fingerprint.toString())) {
+                        backfill[1]++;
+                        return;
+                    }
+                    maintenanceRepository.setFingerprint(row.getId(), fingerprint.toString());
+                    add(fingerprint);
+                    backfill[0]++;
+                });
+            }
+        });
+        ready = true;
+        if (backfill[0] > 0 || backfill[1] > 0) {
+            logger.info("Fingerprinted {} existing maintenance requests, left {} duplicates unfingerprinted",
+                    backfill[0], backfill[1]);
+        }
+        logger.info("Loaded maintenance request fingerprint filter");
+    }
+}
@@ -0,0 +1,65 @@
+package com.projects.tenantmanager.service;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import com.projects.tenantmanager.dto.ImportJobStatus;
+import com.projects.tenantmanager.dto.ImportJobStatus.State;
+
+/**
+ * Progress of one import, written by the import thread and read by status
+ * requests.
+ */
+class MaintenanceImportJob {
+
+    private final UUID id = UUID.randomUUID();
+    private final Instant startedAt = Instant.now();
+    private final int maxErrors;
+    private final List<String> errors = new ArrayList<>();
+
+    private State state = State.RUNNING;
+    private long rowsRead;
+    private long imported;
+    private long duplicates;
+    private long invalid;
+    private Instant finishedAt;
+
+    MaintenanceImportJob(int maxErrors) {
+        this.maxErrors = maxErrors;
+    }
+
+    UUID getId() {
+        return id;
+    }
+
+    synchronized void rowRead() {
+        rowsRead++;
+    }
+
+    synchronized void duplicate() {
+        duplicates++;
+    }
+
+    synchronized void invalid(int line, String error) {
+        invalid++;
+        if (errors.size() < maxErrors) {
+            errors.add("Line " + line + ": " + error);
+        }
+    }
+
+    synchronized void imported(int count) {
+        imported += count;
+    }
+
+    synchronized void finish(State state) {
+        this.state = state;
+        this.finishedAt = Instant.now();
+    }
+
+    synchronized ImportJobStatus status() {
+        return new ImportJobStatus(id, state, rowsRead, imported, duplicates, invalid, List.copyOf(errors), startedAt,
+                finishedAt);
+    }
+}
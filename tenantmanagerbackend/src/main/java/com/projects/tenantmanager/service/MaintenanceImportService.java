@@ -0,0 +1,404 @@
+package com.projects.tenantmanager.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.projects.tenantmanager.dto.ImportJobStatus;
+import com.projects.tenantmanager.model.MaintenanceRequest;
+import com.projects.tenantmanager.model.MaintenanceRequest.Department;
+import com.projects.tenantmanager.model.MaintenanceRequest.Status;
+import com.projects.tenantmanager.repository.MaintenanceRequestRepository;
+import com.projects.tenantmanager.repository.UserRepository;
+
+import jakarta.persistence.EntityManager;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Bulk import of maintenance requests from CSV or NDJSON. The upload is
+ * spooled to a temporary file and imported in the background: rows are
+ * parsed one at a time, validated, de-duplicated by fingerprint within the
+ * import and against stored requests, and inserted in chunks with JDBC
+ * batching, one transaction per chunk. Each chunk's requests are announced
+ * when its transaction commits, so that the caches and other nodes follow
+ * the import as it goes and a failed import leaves them matching what was
+ * committed.
+ *
+ * CSV files need a header row naming the columns; the columns of the export
+ * are accepted, and those that cannot be imported (id and updatedAt) are
+ * ignored. A request keeps its createdAt when given, so that imported
+ * history is not listed as new.
+ */
+@Service
+public class MaintenanceImportService implements DisposableBean {
+
+    private static final Logger logger = LoggerFactory.getLogger(MaintenanceImportService.class);
+
+    private static final int MAX_DESCRIPTION_LENGTH = 2000;
+
+    /**
+     * One input row, as read from either format.
+     */
+    record ImportRow(String tenantName, String unitNumber, String department, String description, String status,
+            String approved, String createdAt) {
+    }
+
+    private final UserRepository userRepository;
+    private final MaintenanceRequestRepository maintenanceRepository;
+    private final MaintenanceFingerprintFilter fingerprintFilter;
+    private final EntityManager entityManager;
+    private final TransactionTemplate transaction;
+    private final ApplicationEventPublisher eventPublisher;
+    private final ObjectReader rowReader;
+    private final int chunkSize;
+    private final int maxErrors;
+    private final ExecutorService executor;
+    private final Cache<UUID, MaintenanceImportJob> jobs = Caffeine.newBuilder()
+            .expireAfterWrite(Duration.ofHours(24))
+            .build();
+
+    public MaintenanceImportService(UserRepository userRepository,
+            MaintenanceRequestRepository maintenanceRepository, MaintenanceFingerprintFilter fingerprintFilter,
+            EntityManager entityManager,
+            PlatformTransactionManager transactionManager, ApplicationEventPublisher eventPublisher,
+            ObjectMapper objectMapper,
+            @Value("${maintenance.import.chunk-size:1000}") int chunkSize,
+            @Value("${maintenance.import.max-reported-errors:100}") int maxErrors) {
+        this.userRepository = userRepository;
+        this.maintenanceRepository = maintenanceRepository;
+        this.fingerprintFilter = fingerprintFilter;
+        this.entityManager = entityManager;
+        this.transaction = new TransactionTemplate(transactionManager);
+        this.eventPublisher = eventPublisher;
+        this.rowReader = objectMapper.readerFor(ImportRow.class)
+                .without(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES);
+        this.chunkSize = chunkSize;
+        this.maxErrors = maxErrors;
+        // Imports run one at a time, so that they do not compete for connections
+        this.executor = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "maintenance-import");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Stores the upload and starts importing it.
+     *
+     * @return The status of the new import, to be polled with {@link #getStatus}
+     */
+    public ImportJobStatus start(InputStream body, ExportFormat format) throws IOException {
+        Path file = Files.createTempFile("maintenance-import", "." + format.getExtension());
+        try {
+            Files.copy(body, file, StandardCopyOption.REPLACE_EXISTING);
+        } catch (IOException e) {
+            Files.deleteIfExists(file);
+            throw e;
+        }
+
+        MaintenanceImportJob job = new MaintenanceImportJob(maxErrors);
+        jobs.put(job.getId(), job);
+        logger.info("Starting maintenance request import {} of {} bytes as {}", job.getId(), Files.size(file), format);
+        executor.execute(() -> {
+            try (InputStream in = Files.newInputStream(file)) {
+                run(job, in, format);
+            } catch (IOException e) {
+                logger.error("Could not read import file {}", file, e);
+            } finally {
+                try {
+                    Files.deleteIfExists(file);
+                } catch (IOException e) {
+                    logger.warn("Could not delete import file {}", file, e);
+                }
+            }
+        });
+        return job.status();
+    }
+
+    /**
+     * Status of a recent import, or null if there is none with this id.
+     */
+    public ImportJobStatus getStatus(UUID id) {
+        MaintenanceImportJob job = jobs.getIfPresent(id);
+        return job == null ? null : job.status();
+    }
+
+    /**
+     * Imports every row of the input, recording progress in the job.
+     */
+    void run(MaintenanceImportJob job, InputStream in, ExportFormat format) {
+        BufferedReader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8), 64 * 1024);
+        Chunk chunk = new Chunk();
+        Set<RequestFingerprint> seen = new HashSet<>();
+        try {
+            RowSource rows = format == ExportFormat.CSV ? csvRows(reader) : ndjsonRows(reader);
+            for (int line = rows.nextLine(); line > 0; line = rows.nextLine()) {
+                job.rowRead();
+                MaintenanceRequest request;
+                try {
+                    request = toRequest(rows.row());
+                } catch (IllegalArgumentException e) {
+                    job.invalid(line, e.getMessage());
+                    continue;
+                }
+                // Same fingerprint as the duplicate check of a single request
+                RequestFingerprint fingerprint = RequestFingerprint.of(request.getUnitNumber(),
+                        request.getDepartment(), request.getDescription());
+                request.setFingerprint(fingerprint.toString());
+                if (!seen.add(fingerprint)) {
+                    job.duplicate();
+                    continue;
+                }
+                chunk.add(line, request, fingerprint);
+                if (chunk.size() >= chunkSize) {
+                    insert(job, chunk);
+                }
+            }
+            insert(job, chunk);
+            job.finish(ImportJobStatus.State.COMPLETED);
+        } catch (IOException | RuntimeException e) {
+            // Chunks already committed stay imported
+            logger.error("Maintenance request import {} failed", job.getId(), e);
+            job.finish(ImportJobStatus.State.FAILED);
+        }
+        ImportJobStatus status = job.status();
+        logger.info("Maintenance request import {} {}: {} rows read, {} imported, {} duplicates, {} invalid",
+                job.getId(), status.getState(), status.getRowsRead(), status.getImported(), status.getDuplicates(),
+                status.getInvalid());
+    }
+
+    /**
+     * Inserts the chunk in one transaction, skipping requests of unknown
+     * tenants, and empties it. The inserted requests are published as one
+     * bulk change, which listeners apply when the transaction commits.
+     */
+    private void insert(MaintenanceImportJob job, Chunk chunk) {
+        if (chunk.size() == 0) {
+            return;
+        }
+        Set<String> tenants = new HashSet<>();
+        List<String> fingerprints = new ArrayList<>(chunk.size());
+        for (MaintenanceRequest request : chunk.requests) {
+            tenants.add(request.getTenantName());
+            fingerprints.add(request.getFingerprint());
+        }
+
+        List<MaintenanceChangeEvent> inserted = transaction.execute(status -> {
+            Set<String> known = userRepository.findExistingUsernames(tenants);
+            // Not filtered through the Bloom filter: it can miss other nodes' requests,
+            // and a conflicting insert would fail the whole chunk
+            Set<String> stored = maintenanceRepository.findExistingFingerprints(fingerprints);
+            List<MaintenanceChangeEvent> events = new ArrayList<>(chunk.size());
+            for (int i = 0; i < chunk.size(); i++) {
+                MaintenanceRequest request = chunk.requests.get(i);
+                if (!known.contains(request.getTenantName())) {
+                    job.invalid(chunk.lines.get(i), "Unknown tenant " + request.getTenantName());
+                    continue;
+                }
+                if (stored.contains(request.getFingerprint())) {
+                    job.duplicate();
+                    continue;
+                }
+                entityManager.persist(request);
+                events.add(MaintenanceChangeEvent.created(request.getId(), request.getTenantName(),
+                        request.getStatus(), request.getDepartment()));
+            }
+            // Send the batched inserts now and drop the entities, so memory stays flat
+            entityManager.flush();
+            entityManager.clear();
+            if (!events.isEmpty()) {
+                eventPublisher.publishEvent(new MaintenanceBulkChangeEvent(events));
+            }
+            return events;
+        });
+        for (int i = 0; i < chunk.size(); i++) {
+            if (chunk.requests.get(i).getId() != null) {
+                fingerprintFilter.add(chunk.fingerprints.get(i));
+            }
+        }
+        job.imported(inserted.size());
+        logger.debug("Import {}: inserted {} requests up to line {}", job.getId(), inserted.size(),
+                chunk.lines.get(chunk.size() - 1));
+        chunk.clear();
+    }
+
+    private static MaintenanceRequest toRequest(ImportRow row) {
+        MaintenanceRequest request = new MaintenanceRequest();
+        request.setTenantName(required(row.tenantName(), "tenantName"));
+        request.setUnitNumber(required(row.unitNumber(), "unitNumber"));
+        request.setDescription(required(row.description(), "description"));
+        if (request.getDescription().length() > MAX_DESCRIPTION_LENGTH) {
+            throw new IllegalArgumentException("description is longer than " + MAX_DESCRIPTION_LENGTH + " characters");
+        }
+        request.setDepartment(parseEnum(Department.class, required(row.department(), "department"), "department"));
+        request.setStatus(isBlank(row.status()) ? Status.OPEN : parseEnum(Status.class, row.status(), "status"));
+        if (isBlank(row.approved())) {
+            request.setApproved(false);
+        } else if (row.approved().equalsIgnoreCase("true") || row.approved().equalsIgnoreCase("false")) {
+            request.setApproved(Boolean.parseBoolean(row.approved()));
+        } else {
+            throw new IllegalArgumentException("Invalid approved value " + row.approved());
+        }
+        if (!isBlank(row.createdAt())) {
+            request.setCreatedAt(parseInstant(row.createdAt().trim(), "createdAt"));
+        }
+        return request;
+    }
+
+    private static String required(String value, String column) {
+        if (isBlank(value)) {
+            throw new IllegalArgumentException("Missing " + column);
+        }
+        return value.trim();
+    }
+
+    private static boolean isBlank(String value) {
+        return value == null || value.isBlank();
+    }
+
+    private static Instant parseInstant(String value, String column) {
+        Instant instant;
+        try {
+            instant = Instant.parse(value);
+        } catch (DateTimeParseException e) {
+            throw new IllegalArgumentException("Invalid " + column + " " + value);
+        }
+        if (instant.isAfter(Instant.now())) {
+            throw new IllegalArgumentException(column + " " + value + " is in the future");
+        }
+        return instant;
+    }
+
+    private static <E extends Enum<E>> E parseEnum(Class<E> type, String value, String column) {
+        try {
+            return Enum.valueOf(type, value.trim().toUpperCase());
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Invalid " + column + " " + value);
+        }
+    }
+
+    /**
+     * Rows of an input, read one at a time: {@link #nextLine()} advances to
+     * the next non-blank row and returns its line number, or 0 at the end;
+     * {@link #row()} parses it.
+     */
+    private interface RowSource {
+
+        int nextLine() throws IOException;
+
+        ImportRow row();
+    }
+
+    private RowSource ndjsonRows(BufferedReader reader) {
+        return new RowSource() {
+            private int lineNumber;
+            private String line;
+
+            @Override
+            public int nextLine() throws IOException {
+                do {
+                    line = reader.readLine();
+                    lineNumber++;
+                } while (line != null && line.isBlank());
+                return line == null ? 0 : lineNumber;
+            }
+
+            @Override
+            public ImportRow row() {
+                try {
+                    return rowReader.readValue(line);
+                } catch (JsonProcessingException e) {
+                    throw new IllegalArgumentException("Invalid JSON: " + e.getOriginalMessage());
+                }
+            }
+        };
+    }
+
+    private static RowSource csvRows(BufferedReader reader) throws IOException {
+        CsvRecordReader csv = new CsvRecordReader(reader);
+        List<String> header = csv.next();
+        Map<String, Integer> columns = new HashMap<>();
+        for (int i = 0; header != null && i < header.size(); i++) {
+            columns.put(header.get(i).trim(), i);
+        }
+        return new RowSource() {
+            private List<String> record;
+
+            @Override
+            public int nextLine() throws IOException {
+                record = csv.next();
+                return record == null ? 0 : csv.getRecordLine();
+            }
+
+            @Override
+            public ImportRow row() {
+                return new ImportRow(column("tenantName"), column("unitNumber"), column("department"),
+                        column("description"), column("status"), column("approved"), column("createdAt"));
+            }
+
+            private String column(String name) {
+                Integer index = columns.get(name);
+                return index == null || index >= record.size() ? null : record.get(index);
+            }
+        };
+    }
+
+    private static final class Chunk {
+
+        private final List<Integer> lines = new ArrayList<>();
+        private final List<MaintenanceRequest> requests = new ArrayList<>();
+        private final List<RequestFingerprint> fingerprints = new ArrayList<>();
+
+        void add(int line, MaintenanceRequest request, RequestFingerprint fingerprint) {
+            lines.add(line);
+            requests.add(request);
+            fingerprints.add(fingerprint);
+        }
+
+        int size() {
+            return requests.size();
+        }
+
+        void clear() {
+            lines.clear();
+            requests.clear();
+            fingerprints.clear();
+        }
+    }
+
+    @Override
+    public void destroy() {
+        executor.shutdownNow();
+    }
+}
@@ -0,0 +1,105 @@
+package com.projects.tenantmanager.service;
+
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import com.projects.tenantmanager.model.MaintenanceRequest.Department;
+import com.projects.tenantmanager.model.MaintenanceRequest.Status;
+
+/**
+ * Version counters of the admin maintenance listings, for ETags that are
+ * computed without reading the listing. There is one counter per status
+ * and department bucket, incremented by each change that moves a request
+ * into, out of or within it; a listing's version is the sum of the
+ * counters of the buckets it covers, so it grows with any of them.
+ *
+ * Other nodes' changes, received by {@link MaintenanceChangeBroadcaster},
+ * increment the counters too. A change whose message was lost reaches the
+ * {@link MaintenanceFilterIndex} only when it is rebuilt, so its rebuild
+ * count is part of the version too, as is a per-process epoch because
+ * counters restart at zero.
+ */
+@Component
+public class MaintenanceListingVersions {
+
+    private static final int DEPARTMENT_SLOTS = Department.values().length + 1;
+
+    private final MaintenanceFilterIndex filterIndex;
+    private final String epoch = Long.toString(UUID.randomUUID().getMostSignificantBits() >>> 1, 36);
+    private final AtomicLongArray counters = new AtomicLongArray(Status.values().length * DEPARTMENT_SLOTS);
+
+    public MaintenanceListingVersions(MaintenanceFilterIndex filterIndex) {
+        this.filterIndex = filterIndex;
+    }
+
+    /**
+     * Strong ETag of the listing with the given status and department; a
+     * null filter matches everything. Null while the filter index is not
+     * built, since listings then come from the shared cache, which other
+     * nodes change.
+     */
+    public String etag(Status status, Department department) {
+        if (!filterIndex.isReady()) {
+            return null;
+        }
+        long generation = filterIndex.getGeneration();
+        long version = 0;
+        for (Status s : Status.values()) {
+            if (status != null && s != status) {
+                continue;
+            }
+            for (int slot = 0; slot < DEPARTMENT_SLOTS; slot++) {
+                if (department == null || slot == department.ordinal()) {
+                    version += counters.get(index(s, slot));
+                }
+            }
+        }
+        return "\"" + epoch + "-" + generation + "-" + version + "\"";
+    }
+
+    /**
+     * Runs after the change commits, and after the filter index and request
+     * cache have applied it (their listeners come first, see
+     * {@link MaintenanceChangeEvent#READ_MODEL_ORDER}), so that a listing
+     * read with the new version already contains the change.
+     */
+    @Order(Ordered.LOWEST_PRECEDENCE)
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onChange(MaintenanceChangeEvent event) {
+        apply(List.of(event));
+    }
+
+    @Order(Ordered.LOWEST_PRECEDENCE)
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onBulkChange(MaintenanceBulkChangeEvent event) {
+        apply(event.changes());
+    }
+
+    /**
+     * Counts committed changes, including those received from other nodes.
+     */
+    void apply(List<MaintenanceChangeEvent> changes) {
+        for (MaintenanceChangeEvent change : changes) {
+            increment(change.oldStatus(), change.oldDepartment());
+            if (change.newStatus() != change.oldStatus() || change.newDepartment() != change.oldDepartment()) {
+                increment(change.newStatus(), change.newDepartment());
+            }
+        }
+    }
+
+    private void increment(Status status, Department department) {
+        if (status != null) {
+            counters.incrementAndGet(index(status, department == null ? DEPARTMENT_SLOTS - 1 : department.ordinal()));
+        }
+    }
+
+    private static int index(Status status, int departmentSlot) {
+        return status.ordinal() * DEPARTMENT_SLOTS + departmentSlot;
+    }
+}
@@ -0,0 +1,486 @@
+package com.projects.tenantmanager.service;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.Stream;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.projects.tenantmanager.model.MaintenanceRequest.Department;
+import com.projects.tenantmanager.model.MaintenanceRequest.Status;
+import com.projects.tenantmanager.repository.MaintenanceRequestContent;
+import com.projects.tenantmanager.repository.MaintenanceRequestRepository;
+
+/**
+ * Locality-sensitive hashing index of the descriptions of open requests, for
+ * finding near-duplicates of a new request without comparing it with every
+ * open request of its unit and department.
+ *
+ * A description is reduced to the character 4-grams of its words, and those
+ * to a MinHash signature: for each of {@code bands * rows} hash functions,
+ * the smallest hash of any shingle. Two signatures agree at a position with
+ * probability equal to the Jaccard similarity of the shingle sets. The
+ * signature is cut into bands, and each band is hashed, together with the
+ * unit and department, into a bucket; requests sharing any bucket are the
+ * candidates, and only those are compared. Only the low 8 bits of each
+ * signature value are kept for that comparison, which keeps an entry to a
+ * few hundred bytes.
+ *
+ * Built from the database at startup and kept current by this node's
+ * writes. It is rebuilt periodically, which bounds how long writes made
+ * by other nodes stay invisible, and drops the bucket entries of requests
+ * that are no longer open.
+ */
+@Component
+public class MaintenanceNearDuplicateIndex {
+
+    private static final Logger logger = LoggerFactory.getLogger(MaintenanceNearDuplicateIndex.class);
+
+    private static final int SHINGLE_LENGTH = 4;
+    private static final int LOAD_BATCH_SIZE = 1000;
+
+    private final MaintenanceRequestRepository maintenanceRepository;
+    private final TransactionTemplate readOnlyTransaction;
+    private final boolean enabled;
+    private final int bands;
+    private final int rows;
+    private final double similarityThreshold;
+    private final long[] seeds;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private Entries entries;
+    private volatile boolean ready;
+
+    /**
+     * Changes applied while a rebuild reads the database, replayed on top of
+     * the rebuilt entries. Null when no rebuild is running.
+     */
+    private List<MaintenanceChangeEvent> changesDuringRebuild;
+
+    public MaintenanceNearDuplicateIndex(MaintenanceRequestRepository maintenanceRepository,
+            PlatformTransactionManager transactionManager,
+            @Value("${maintenance.near-duplicate.enabled:true}") boolean enabled,
+            @Value("${maintenance.near-duplicate.bands:20}") int bands,
+            @Value("${maintenance.near-duplicate.rows-per-band:3}") int rows,
+            @Value("${maintenance.near-duplicate.similarity-threshold:0.4}") double similarityThreshold) {
+        this.maintenanceRepository = maintenanceRepository;
+        this.enabled = enabled;
+        this.bands = bands;
+        this.rows = rows;
+        this.similarityThreshold = similarityThreshold;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.seeds = new long[bands * rows];
+        long seed = 0x5eed;
+        for (int i = 0; i < seeds.length; i++) {
+            seed += 0x9e3779b97f4a7c15L;
+            seeds[i] = mix(seed);
+        }
+        this.entries = new Entries(bands);
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    /**
+     * The open request of the same unit and department whose description is
+     * most similar to this one, if the estimated similarity reaches the
+     * threshold; otherwise null.
+     */
+    public UUID findSimilar(String unitNumber, Department department, String description) {
+        long[] signature = signature(description);
+        if (signature == null) {
+            return null;
+        }
+        long[] keys = bandKeys(scope(unitNumber, department), signature);
+        byte[] compact = compact(signature);
+
+        lock.readLock().lock();
+        try {
+            UUID best = null;
+            double bestSimilarity = similarityThreshold;
+            int[] compared = new int[8];
+            int comparedCount = 0;
+            for (long key : keys) {
+                for (int i = entries.buckets.first(key); i >= 0; i = entries.buckets.next(key, i)) {
+                    int doc = entries.buckets.docs[i];
+                    byte[] other = entries.signatures.get(doc);
+                    if (other == null || contains(compared, comparedCount, doc)) {
+                        continue;
+                    }
+                    if (comparedCount == compared.length) {
+                        compared = Arrays.copyOf(compared, comparedCount * 2);
+                    }
+                    compared[comparedCount++] = doc;
+                    double similarity = similarity(compact, other);
+                    if (similarity >= bestSimilarity) {
+                        bestSimilarity = similarity;
+                        best = entries.ids.get(doc);
+                    }
+                }
+            }
+            return best;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Runs after the change commits, so that a request that became open can
+     * be read back.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onChange(MaintenanceChangeEvent event) {
+        apply(List.of(event));
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onBulkChange(MaintenanceBulkChangeEvent event) {
+        apply(event.changes());
+    }
+
+    private void apply(List<MaintenanceChangeEvent> changes) {
+        if (!enabled) {
+            return;
+        }
+        List<UUID> opened = new ArrayList<>();
+        lock.writeLock().lock();
+        try {
+            for (MaintenanceChangeEvent change : changes) {
+                boolean moved = change.oldDepartment() != change.newDepartment();
+                if (change.newStatus() != Status.OPEN || moved) {
+                    entries.remove(change.id());
+                }
+                if (change.newStatus() == Status.OPEN && !entries.contains(change.id())) {
+                    opened.add(change.id());
+                }
+            }
+            if (changesDuringRebuild != null) {
+                changesDuringRebuild.addAll(changes);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+
+        try {
+            for (int from = 0; from < opened.size(); from += LOAD_BATCH_SIZE) {
+                List<UUID> batch = opened.subList(from, Math.min(from + LOAD_BATCH_SIZE, opened.size()));
+                List<MaintenanceRequestContent> rows = maintenanceRepository.findContentByIdIn(batch);
+                lock.writeLock().lock();
+                try {
+                    for (MaintenanceRequestContent row : rows) {
+                        add(entries, row);
+                    }
+                } finally {
+                    lock.writeLock().unlock();
+                }
+            }
+        } catch (RuntimeException e) {
+            // The write itself succeeded; the next rebuild indexes what could not be read here
+            logger.warn("Could not index {} open maintenance requests", opened.size(), e);
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onStartup() {
+        rebuild();
+    }
+
+    @Scheduled(initialDelayString = "${maintenance.near-duplicate.rebuild-interval-ms:600000}",
+            fixedDelayString = "${maintenance.near-duplicate.rebuild-interval-ms:600000}")
+    public void rebuild() {
+        if (!enabled) {
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            if (changesDuringRebuild != null) {
+                return;
+            }
+            changesDuringRebuild = new ArrayList<>();
+        } finally {
+            lock.writeLock().unlock();
+        }
+
+        Entries rebuilt = new Entries(bands);
+        try {
+            readOnlyTransaction.executeWithoutResult(transaction -> {
+                try (Stream<MaintenanceRequestContent> open = maintenanceRepository.streamContentByStatus(
+                        Status.OPEN)) {
+                    open.forEach(row -> add(rebuilt, row));
+                }
+            });
+        } catch (RuntimeException e) {
+            logger.error("Could not rebuild the maintenance near-duplicate index", e);
+            lock.writeLock().lock();
+            changesDuringRebuild = null;
+            lock.writeLock().unlock();
+            return;
+        }
+
+        lock.writeLock().lock();
+        try {
+            // Requests that stopped being open meanwhile are dropped, and those
+            // that became open are taken over from the live entries
+            for (MaintenanceChangeEvent change : changesDuringRebuild) {
+                if (change.newStatus() != Status.OPEN) {
+                    rebuilt.remove(change.id());
+                } else if (!rebuilt.contains(change.id()) && entries.contains(change.id())) {
+                    rebuilt.copyFrom(entries, change.id());
+                }
+            }
+            changesDuringRebuild = null;
+            entries = rebuilt;
+            ready = true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+        logger.info("Rebuilt maintenance near-duplicate index with {} open requests", rebuilt.size());
+    }
+
+    private void add(Entries target, MaintenanceRequestContent row) {
+        long[] signature = signature(row.getDescription());
+        if (signature != null && !target.contains(row.getId())) {
+            target.add(row.getId(), bandKeys(scope(row.getUnitNumber(), row.getDepartment()), signature),
+                    compact(signature));
+        }
+    }
+
+    /**
+     * MinHash signature of the description's shingles; null if it has none.
+     */
+    long[] signature(String description) {
+        long[] shingles = shingles(description);
+        if (shingles.length == 0) {
+            return null;
+        }
+        long[] signature = new long[seeds.length];
+        Arrays.fill(signature, Long.MAX_VALUE);
+        for (long shingle : shingles) {
+            for (int i = 0; i < seeds.length; i++) {
+                long hash = mix(shingle ^ seeds[i]);
+                if (hash < signature[i]) {
+                    signature[i] = hash;
+                }
+            }
+        }
+        return signature;
+    }
+
+    /**
+     * Hashes of the character 4-grams of the description's search terms,
+     * each padded with a boundary marker; shorter terms are one shingle.
+     */
+    static long[] shingles(String description) {
+        List<String> terms = MaintenanceSearchIndex.tokenize(description);
+        long[] shingles = new long[16];
+        int count = 0;
+        for (String term : terms) {
+            String padded = '_' + term + '_';
+            int last = Math.max(padded.length() - SHINGLE_LENGTH, 0);
+            for (int start = 0; start <= last; start++) {
+                long hash = 0xcbf29ce484222325L;
+                for (int i = start; i < Math.min(start + SHINGLE_LENGTH, padded.length()); i++) {
+                    hash = (hash ^ padded.charAt(i)) * 0x100000001b3L;
+                }
+                if (count == shingles.length) {
+                    shingles = Arrays.copyOf(shingles, count * 2);
+                }
+                shingles[count++] = hash;
+            }
+        }
+        return Arrays.stream(shingles, 0, count).distinct().toArray();
+    }
+
+    private long[] bandKeys(long scope, long[] signature) {
+        long[] keys = new long[bands];
+        for (int band = 0; band < bands; band++) {
+            long key = mix(scope + band);
+            for (int row = band * rows; row < (band + 1) * rows; row++) {
+                key = mix(key ^ signature[row]);
+            }
+            keys[band] = key;
+        }
+        return keys;
+    }
+
+    private static long scope(String unitNumber, Department department) {
+        String unit = RequestFingerprint.normalize(unitNumber);
+        return mix(unit.hashCode() * 31L + (department == null ? -1 : department.ordinal()));
+    }
+
+    private static byte[] compact(long[] signature) {
+        byte[] compact = new byte[signature.length];
+        for (int i = 0; i < signature.length; i++) {
+            compact[i] = (byte) signature[i];
+        }
+        return compact;
+    }
+
+    /**
+     * Estimated Jaccard similarity from the share of equal 8-bit values,
+     * corrected for values that are equal by chance.
+     */
+    static double similarity(byte[] a, byte[] b) {
+        int equal = 0;
+        for (int i = 0; i < a.length; i++) {
+            if (a[i] == b[i]) {
+                equal++;
+            }
+        }
+        double chance = 1.0 / 256;
+        return Math.max(0, ((double) equal / a.length - chance) / (1 - chance));
+    }
+
+    private static boolean contains(int[] values, int count, int value) {
+        for (int i = 0; i < count; i++) {
+            if (values[i] == value) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /** SplitMix64 finalizer */
+    private static long mix(long z) {
+        z = (z ^ (z >>> 30)) * 0xbf58476d1ce4e5b9L;
+        z = (z ^ (z >>> 27)) * 0x94d049bb133111ebL;
+        return z ^ (z >>> 31);
+    }
+
+    /**
+     * The indexed requests and their buckets, replaced as a whole on rebuild.
+     * Removing a request drops its signature; its bucket entries are skipped
+     * from then on and dropped by the next rebuild.
+     */
+    private static final class Entries {
+
+        private final int bands;
+        private final Map<UUID, Integer> docOf = new HashMap<>();
+        private final List<UUID> ids = new ArrayList<>();
+        private final List<byte[]> signatures = new ArrayList<>();
+        private final BucketTable buckets = new BucketTable();
+        /** Bucket keys of each document, kept to carry it over into a rebuild */
+        private long[] keysOf = new long[0];
+
+        Entries(int bands) {
+            this.bands = bands;
+        }
+
+        boolean contains(UUID id) {
+            return docOf.containsKey(id);
+        }
+
+        int size() {
+            return docOf.size();
+        }
+
+        void add(UUID id, long[] keys, byte[] signature) {
+            int doc = ids.size();
+            docOf.put(id, doc);
+            ids.add(id);
+            signatures.add(signature);
+            if ((doc + 1) * bands > keysOf.length) {
+                keysOf = Arrays.copyOf(keysOf, Math.max(keysOf.length * 2, (doc + 1) * bands));
+            }
+            System.arraycopy(keys, 0, keysOf, doc * bands, bands);
+            for (long key : keys) {
+                buckets.put(key, doc);
+            }
+        }
+
+        void remove(UUID id) {
+            Integer doc = docOf.remove(id);
+            if (doc != null) {
+                signatures.set(doc, null);
+            }
+        }
+
+        void copyFrom(Entries other, UUID id) {
+            int doc = other.docOf.get(id);
+            long[] keys = Arrays.copyOfRange(other.keysOf, doc * bands, (doc + 1) * bands);
+            add(id, keys, other.signatures.get(doc));
+        }
+    }
+
+    /**
+     * Open-addressing multimap from bucket key to document number, so that a
+     * bucket entry costs twelve bytes rather than a boxed key and a list.
+     */
+    private static final class BucketTable {
+
+        private long[] keys = new long[1024];
+        private int[] docs = new int[1024];
+        private boolean[] used = new boolean[1024];
+        private int size;
+
+        void put(long key, int doc) {
+            if (2 * (size + 1) > keys.length) {
+                grow();
+            }
+            int slot = slot(key, keys.length);
+            while (used[slot]) {
+                slot = (slot + 1) & (keys.length - 1);
+            }
+            keys[slot] = key;
+            docs[slot] = doc;
+            used[slot] = true;
+            size++;
+        }
+
+        /** First slot holding the key, or -1 */
+        int first(long key) {
+            return scan(key, slot(key, keys.length));
+        }
+
+        /** Next slot after the given one holding the key, or -1 */
+        int next(long key, int slot) {
+            return scan(key, (slot + 1) & (keys.length - 1));
+        }
+
+        private int scan(long key, int slot) {
+            while (used[slot]) {
+                if (keys[slot] == key) {
+                    return slot;
+                }
+                slot = (slot + 1) & (keys.length - 1);
+            }
+            return -1;
+        }
+
+        private void grow() {
+            long[] oldKeys = keys;
+            int[] oldDocs = docs;
+            boolean[] oldUsed = used;
+            keys = new long[oldKeys.length * 2];
+            docs = new int[oldKeys.length * 2];
+            used = new boolean[oldKeys.length * 2];
+            size = 0;
+            for (int i = 0; i < oldKeys.length; i++) {
+                if (oldUsed[i]) {
+                    put(oldKeys[i], oldDocs[i]);
+                }
+            }
+        }
+
+        private static int slot(long key, int capacity) {
+            return (int) mix(key) & (capacity - 1);
+        }
+    }
+}
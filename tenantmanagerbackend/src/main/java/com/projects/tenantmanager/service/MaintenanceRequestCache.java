@@ -0,0 +1,242 @@
+package com.projects.tenantmanager.service;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.annotation.Order;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import com.projects.tenantmanager.model.MaintenanceRequest;
+import com.projects.tenantmanager.model.MaintenanceRequest.Department;
+import com.projects.tenantmanager.model.MaintenanceRequest.Status;
+import com.projects.tenantmanager.repository.MaintenanceRequestKey;
+import com.projects.tenantmanager.repository.MaintenanceRequestRepository;
+
+/**
+ * Normalized cache of maintenance requests: each request is cached once under
+ * its id, and each filter (all, status, department, status and department)
+ * is a set of ids. A filtered list is assembled with one multi-get, and a
+ * change touches the changed request and the id sets it moves between.
+ *
+ * Once the in-process {@link MaintenanceFilterIndex} is built, the ids come
+ * from it instead of the shared id sets.
+ *
+ * Each tenant's newest request ids are cached as a list too, loaded on first
+ * use and extended by the tenant's own new requests; changes to a request
+ * only evict the request itself, and imports drop their tenants' lists.
+ */
+@Component
+public class MaintenanceRequestCache {
+
+    private static final Logger logger = LoggerFactory.getLogger(MaintenanceRequestCache.class);
+
+    static final String ALL = "all";
+
+    private final MaintenanceRequestCacheStore store;
+    private final MaintenanceRequestRepository maintenanceRepository;
+    private final MaintenanceFilterIndex filterIndex;
+    private final int maxTenantRequests;
+
+    public MaintenanceRequestCache(MaintenanceRequestCacheStore store,
+            MaintenanceRequestRepository maintenanceRepository, MaintenanceFilterIndex filterIndex,
+            @Value("${maintenance.cache.tenant-max-requests:200}") int maxTenantRequests) {
+        this.store = store;
+        this.maintenanceRepository = maintenanceRepository;
+        this.filterIndex = filterIndex;
+        this.maxTenantRequests = maxTenantRequests;
+    }
+
+    /**
+     * Requests with the given status and department; a null filter matches
+     * everything.
+     */
+    public List<MaintenanceRequest> getRequests(Status status, Department department) {
+        String index = indexKey(status, department);
+        List<UUID> idList = filterIndex.isReady() ? filterIndex.find(status, department) : indexedIds(index);
+        return getRequestsById(idList);
+    }
+
+    /**
+     * Ids of the tenant's requests, newest first: all of them, or the newest
+     * {@link #getMaxTenantRequests()} when there are at least that many.
+     */
+    public List<UUID> getTenantRequestIds(String tenantName) {
+        List<UUID> cached = store.tenantRequests(tenantName);
+        if (cached != null) {
+            // Adding a request can race with loading the list, which then holds it twice
+            return List.copyOf(new LinkedHashSet<>(cached));
+        }
+        long version = store.tenantVersion(tenantName);
+        List<UUID> ids = maintenanceRepository.findIdsByTenantName(tenantName, Limit.of(maxTenantRequests));
+        store.putTenantRequests(tenantName, ids, version);
+        logger.debug("Loaded {} request ids of tenant: {}", ids.size(), tenantName);
+        return ids;
+    }
+
+    public int getMaxTenantRequests() {
+        return maxTenantRequests;
+    }
+
+    /**
+     * The requests with the given ids, in the same order; ids of requests
+     * that do not exist are skipped.
+     */
+    public List<MaintenanceRequest> getRequestsById(List<UUID> idList) {
+        if (idList.isEmpty()) {
+            return List.of();
+        }
+
+        List<MaintenanceRequest> cached = store.getAll(idList);
+        List<UUID> missing = new ArrayList<>();
+        for (int i = 0; i < idList.size(); i++) {
+            if (cached.get(i) == null) {
+                missing.add(idList.get(i));
+            }
+        }
+        if (missing.isEmpty()) {
+            return cached;
+        }
+
+        logger.debug("Loading {} of {} requests from the database", missing.size(), idList.size());
+        long version = store.requestVersion();
+        List<MaintenanceRequest> loaded = maintenanceRepository.findAllById(missing);
+        store.putAll(loaded, version);
+        Map<UUID, MaintenanceRequest> loadedById = new HashMap<>();
+        for (MaintenanceRequest request : loaded) {
+            loadedById.put(request.getId(), request);
+        }
+        List<MaintenanceRequest> requests = new ArrayList<>(idList.size());
+        for (int i = 0; i < idList.size(); i++) {
+            MaintenanceRequest request = cached.get(i) != null ? cached.get(i) : loadedById.get(idList.get(i));
+            if (request != null) {
+                requests.add(request);
+            }
+        }
+        return requests;
+    }
+
+    /**
+     * Runs after the change commits, so that the request is reloaded with
+     * its committed state.
+     */
+    @Order(MaintenanceChangeEvent.READ_MODEL_ORDER)
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onChange(MaintenanceChangeEvent event) {
+        apply(List.of(event));
+        if (event.tenantName() != null) {
+            store.addTenantRequests(Map.of(event.tenantName(), List.of(event.id())), maxTenantRequests);
+        }
+    }
+
+    /**
+     * Requests created in bulk are imported, with their original creation
+     * time, so they do not go to the front of their tenants' lists; the
+     * lists are dropped instead.
+     */
+    @Order(MaintenanceChangeEvent.READ_MODEL_ORDER)
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onBulkChange(MaintenanceBulkChangeEvent event) {
+        apply(event.changes());
+        Set<String> tenants = new HashSet<>();
+        for (MaintenanceChangeEvent change : event.changes()) {
+            if (change.tenantName() != null) {
+                tenants.add(change.tenantName());
+            }
+        }
+        store.evictTenantRequests(tenants);
+    }
+
+    private void apply(List<MaintenanceChangeEvent> changes) {
+        List<UUID> ids = new ArrayList<>(changes.size());
+        List<MaintenanceRequestCacheStore.IndexMove> moves = new ArrayList<>(changes.size());
+        for (MaintenanceChangeEvent change : changes) {
+            ids.add(change.id());
+            Set<String> from = indexKeys(change.oldStatus(), change.oldDepartment());
+            Set<String> to = indexKeys(change.newStatus(), change.newDepartment());
+            Set<String> unchanged = new HashSet<>(from);
+            unchanged.retainAll(to);
+            from.removeAll(unchanged);
+            to.removeAll(unchanged);
+            if (!from.isEmpty() || !to.isEmpty()) {
+                moves.add(new MaintenanceRequestCacheStore.IndexMove(change.id(), from, to));
+            }
+        }
+        store.evict(ids);
+        store.move(moves);
+    }
+
+    private List<UUID> indexedIds(String index) {
+        Set<UUID> ids = store.members(index);
+        if (ids == null) {
+            ids = rebuildIndexes().getOrDefault(index, Set.of());
+        }
+        return new ArrayList<>(ids);
+    }
+
+    private Map<String, Set<UUID>> rebuildIndexes() {
+        Map<String, Set<UUID>> indexes = new HashMap<>();
+        indexes.put(ALL, new HashSet<>());
+        for (Status status : Status.values()) {
+            indexes.put(indexKey(status, null), new HashSet<>());
+            for (Department department : Department.values()) {
+                indexes.put(indexKey(null, department), new HashSet<>());
+                indexes.put(indexKey(status, department), new HashSet<>());
+            }
+        }
+        List<MaintenanceRequestKey> keys = maintenanceRepository.findAllKeys();
+        for (MaintenanceRequestKey key : keys) {
+            for (String index : indexKeys(key.getStatus(), key.getDepartment())) {
+                indexes.get(index).add(key.getId());
+            }
+        }
+        store.rebuild(indexes);
+        logger.info("Rebuilt maintenance request indexes for {} requests", keys.size());
+        return indexes;
+    }
+
+    static String indexKey(Status status, Department department) {
+        if (status == null && department == null) {
+            return ALL;
+        }
+        if (department == null) {
+            return "status:" + status.name();
+        }
+        if (status == null) {
+            return "department:" + department.name();
+        }
+        return "status:" + status.name() + ":department:" + department.name();
+    }
+
+    /**
+     * Every index a request with the given status and department belongs to;
+     * empty when both are null, as for the old side of a newly created request.
+     */
+    static Set<String> indexKeys(Status status, Department department) {
+        Set<String> keys = new LinkedHashSet<>();
+        if (status == null && department == null) {
+            return keys;
+        }
+        keys.add(ALL);
+        if (status != null) {
+            keys.add(indexKey(status, null));
+        }
+        if (department != null) {
+            keys.add(indexKey(null, department));
+        }
+        if (status != null && department != null) {
+            keys.add(indexKey(status, department));
+        }
+        return keys;
+    }
+}
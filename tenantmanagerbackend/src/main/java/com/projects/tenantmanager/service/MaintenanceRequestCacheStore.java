@@ -0,0 +1,87 @@
+package com.projects.tenantmanager.service;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+import com.projects.tenantmanager.model.MaintenanceRequest;
+
+/**
+ * Storage behind {@link MaintenanceRequestCache}: one entry per request, one
+ * id set per index key, and one list of request ids per tenant.
+ */
+public interface MaintenanceRequestCacheStore {
+
+    /**
+     * Ids in the given index, or null when the indexes need to be rebuilt.
+     */
+    Set<UUID> members(String index);
+
+    /**
+     * Cached requests in the order of the ids, with null for each miss.
+     */
+    List<MaintenanceRequest> getAll(List<UUID> ids);
+
+    /**
+     * Version of the cached requests, to pass to {@link #putAll}.
+     */
+    long requestVersion();
+
+    /**
+     * Caches the requests unless any request was evicted since the given
+     * version was read, i.e. while the requests were loaded, since then
+     * they may predate the change that caused the eviction.
+     */
+    void putAll(Collection<MaintenanceRequest> requests, long version);
+
+    /**
+     * Evicts the requests and advances the request version.
+     */
+    void evict(Collection<UUID> ids);
+
+    /**
+     * Applies the moves, each removing an id from one set of indexes and
+     * adding it to another.
+     */
+    void move(List<IndexMove> moves);
+
+    /**
+     * Atomically replaces the given indexes, an empty set clearing its index,
+     * and marks the indexes as built.
+     */
+    void rebuild(Map<String, Set<UUID>> indexes);
+
+    /**
+     * Ids of the tenant's requests, newest first, or null when not cached.
+     * An id may be listed twice.
+     */
+    List<UUID> tenantRequests(String tenantName);
+
+    /**
+     * Version of the tenant's list, to pass to {@link #putTenantRequests}.
+     */
+    long tenantVersion(String tenantName);
+
+    /**
+     * Caches the tenant's list unless the tenant added requests since the
+     * given version was read, i.e. while the list was loaded.
+     */
+    void putTenantRequests(String tenantName, List<UUID> ids, long version);
+
+    /**
+     * Adds new requests, oldest first, to the front of each tenant's cached
+     * list, keeping its newest {@code maxSize} ids, and advances the
+     * tenant's version.
+     */
+    void addTenantRequests(Map<String, List<UUID>> idsByTenant, int maxSize);
+
+    /**
+     * Drops the tenants' cached lists and advances their versions.
+     */
+    void evictTenantRequests(Collection<String> tenantNames);
+
+    record IndexMove(UUID id, Set<String> from, Set<String> to) {
+    }
+}
@@ -0,0 +1,550 @@
+package com.projects.tenantmanager.service;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.text.Normalizer;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.Stream;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.projects.tenantmanager.model.MaintenanceRequest.Department;
+import com.projects.tenantmanager.model.MaintenanceRequest.Status;
+import com.projects.tenantmanager.repository.MaintenanceRequestDocument;
+import com.projects.tenantmanager.repository.MaintenanceRequestRepository;
+
+/**
+ * In-process inverted index over the description, unit number and tenant
+ * name of maintenance requests, ranked with BM25. Each request gets a dense
+ * document number, and each term a postings list of document numbers and
+ * term frequencies. The status and department of each document are kept
+ * alongside, so filters are applied while scoring.
+ *
+ * The searchable text of a request never changes once created, so postings
+ * are only ever appended to; later changes only move the request between
+ * statuses. Requests created by this node are indexed when their creation
+ * commits. A periodic sync re-reads the requests updated since the previous
+ * one, which picks up other nodes' writes, and the index is saved to local
+ * disk so that a restart only has to catch up from the saved sync point.
+ */
+@Component
+public class MaintenanceSearchIndex implements DisposableBean {
+
+    private static final Logger logger = LoggerFactory.getLogger(MaintenanceSearchIndex.class);
+
+    private static final int SNAPSHOT_MAGIC = 0x4d534958;
+    private static final int SNAPSHOT_VERSION = 1;
+    private static final int LOAD_BATCH_SIZE = 1000;
+
+    // Standard BM25 parameters: term frequency saturation and length normalization
+    private static final double K1 = 1.2;
+    private static final double B = 0.75;
+
+    private final MaintenanceRequestRepository maintenanceRepository;
+    private final TransactionTemplate readOnlyTransaction;
+    private final boolean enabled;
+    private final Path snapshotPath;
+    private final long syncOverlapMillis;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private Documents documents = new Documents();
+    private volatile boolean ready;
+
+    /** Start of the last completed sync; null until the first one */
+    private Instant syncedAt;
+
+    /** Document changes since the index was last saved */
+    private long unsavedChanges;
+
+    /**
+     * Changes applied while a sync reads the database, replayed on top of
+     * what it read. Null when no sync is running.
+     */
+    private List<MaintenanceChangeEvent> changesDuringSync;
+
+    public MaintenanceSearchIndex(MaintenanceRequestRepository maintenanceRepository,
+            PlatformTransactionManager transactionManager,
+            @Value("${maintenance.search.enabled:true}") boolean enabled,
+            @Value("${maintenance.search.snapshot-path:}") String snapshotPath,
+            @Value("${maintenance.search.sync-overlap-ms:60000}") long syncOverlapMillis) {
+        this.maintenanceRepository = maintenanceRepository;
+        this.enabled = enabled;
+        this.snapshotPath = snapshotPath.isBlank() ? null : Path.of(snapshotPath);
+        this.syncOverlapMillis = syncOverlapMillis;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    public record Hit(UUID id, double score) {
+    }
+
+    /**
+     * The best matching requests for the query, highest score first. A
+     * request matches if it contains any query term; a null filter matches
+     * everything.
+     */
+    public List<Hit> search(String query, Status status, Department department, int limit) {
+        Set<String> terms = new LinkedHashSet<>(tokenize(query));
+        lock.readLock().lock();
+        try {
+            Documents docs = documents;
+            int count = docs.ids.size();
+            if (terms.isEmpty() || count == 0 || limit <= 0) {
+                return List.of();
+            }
+            double averageLength = (double) docs.totalLength / count;
+            byte statusCode = status == null ? -1 : (byte) status.ordinal();
+            byte departmentCode = department == null ? -1 : (byte) department.ordinal();
+
+            Map<Integer, Double> scores = new HashMap<>();
+            for (String term : terms) {
+                Postings postings = docs.postings.get(term);
+                if (postings == null) {
+                    continue;
+                }
+                double idf = Math.log(1 + (count - postings.size + 0.5) / (postings.size + 0.5));
+                for (int i = 0; i < postings.size; i++) {
+                    int doc = postings.docs[i];
+                    if ((statusCode >= 0 && docs.statuses[doc] != statusCode)
+                            || (departmentCode >= 0 && docs.departments[doc] != departmentCode)) {
+                        continue;
+                    }
+                    int frequency = postings.frequencies[i];
+                    double norm = K1 * (1 - B + B * docs.lengths[doc] / averageLength);
+                    scores.merge(doc, idf * frequency * (K1 + 1) / (frequency + norm), Double::sum);
+                }
+            }
+
+            // Keep the top hits in a min-heap; on equal scores newer requests rank first
+            Comparator<Map.Entry<Integer, Double>> ranking = Map.Entry.<Integer, Double>comparingByValue()
+                    .thenComparing(Map.Entry.comparingByKey());
+            PriorityQueue<Map.Entry<Integer, Double>> top = new PriorityQueue<>(ranking);
+            for (Map.Entry<Integer, Double> entry : scores.entrySet()) {
+                top.add(entry);
+                if (top.size() > limit) {
+                    top.poll();
+                }
+            }
+            Hit[] hits = new Hit[top.size()];
+            for (int i = hits.length - 1; i >= 0; i--) {
+                Map.Entry<Integer, Double> entry = top.poll();
+                hits[i] = new Hit(docs.ids.get(entry.getKey()), entry.getValue());
+            }
+            return Arrays.asList(hits);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Runs after the change commits, so that a new request's text can be
+     * read back.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onChange(MaintenanceChangeEvent event) {
+        apply(List.of(event));
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onBulkChange(MaintenanceBulkChangeEvent event) {
+        apply(event.changes());
+    }
+
+    private void apply(List<MaintenanceChangeEvent> changes) {
+        if (!enabled) {
+            return;
+        }
+        List<UUID> created = new ArrayList<>();
+        for (MaintenanceChangeEvent change : changes) {
+            if (change.oldStatus() == null && change.oldDepartment() == null) {
+                created.add(change.id());
+            }
+        }
+        try {
+            for (int from = 0; from < created.size(); from += LOAD_BATCH_SIZE) {
+                List<UUID> batch = created.subList(from, Math.min(from + LOAD_BATCH_SIZE, created.size()));
+                addAll(maintenanceRepository.findDocumentsByIdIn(batch));
+            }
+        } catch (RuntimeException e) {
+            // The write itself succeeded; the next sync indexes what could not be read here
+            logger.warn("Could not index {} new maintenance requests", created.size(), e);
+        }
+
+        lock.writeLock().lock();
+        try {
+            for (MaintenanceChangeEvent change : changes) {
+                documents.move(change.id(), change.newStatus(), change.newDepartment());
+            }
+            unsavedChanges += changes.size();
+            if (changesDuringSync != null) {
+                changesDuringSync.addAll(changes);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void addAll(List<MaintenanceRequestDocument> batch) {
+        lock.writeLock().lock();
+        try {
+            for (MaintenanceRequestDocument document : batch) {
+                documents.add(document);
+            }
+            unsavedChanges += batch.size();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onStartup() {
+        if (!enabled) {
+            return;
+        }
+        load();
+        sync();
+    }
+
+    /**
+     * Reads the requests created or updated since the last sync, or all of
+     * them the first time. The read starts a little before the last sync,
+     * so that writes committed shortly after their update time are not
+     * missed.
+     */
+    @Scheduled(initialDelayString = "${maintenance.search.sync-interval-ms:60000}",
+            fixedDelayString = "${maintenance.search.sync-interval-ms:60000}")
+    public void sync() {
+        if (!enabled) {
+            return;
+        }
+        Instant since;
+        lock.writeLock().lock();
+        try {
+            if (changesDuringSync != null) {
+                return;
+            }
+            changesDuringSync = new ArrayList<>();
+            since = syncedAt == null ? null : syncedAt.minusMillis(syncOverlapMillis);
+        } finally {
+            lock.writeLock().unlock();
+        }
+
+        Instant started = Instant.now();
+        int[] read = new int[1];
+        try {
+            readOnlyTransaction.executeWithoutResult(transaction -> {
+                try (Stream<MaintenanceRequestDocument> rows = since == null
+                        ? maintenanceRepository.streamDocuments()
+                        : maintenanceRepository.streamDocumentsUpdatedSince(since)) {
+                    List<MaintenanceRequestDocument> batch = new ArrayList<>(LOAD_BATCH_SIZE);
+                    rows.forEach(row -> {
+                        batch.add(row);
+                        if (batch.size() == LOAD_BATCH_SIZE) {
+                            addAll(batch);
+                            read[0] += batch.size();
+                            batch.clear();
+                        }
+                    });
+                    addAll(batch);
+                    read[0] += batch.size();
+                }
+            });
+        } catch (RuntimeException e) {
+            logger.error("Could not sync the maintenance search index", e);
+            lock.writeLock().lock();
+            changesDuringSync = null;
+            lock.writeLock().unlock();
+            return;
+        }
+
+        lock.writeLock().lock();
+        try {
+            // The rows read may predate changes applied meanwhile; each change
+            // carries its full new state, so replaying them restores it
+            for (MaintenanceChangeEvent change : changesDuringSync) {
+                documents.move(change.id(), change.newStatus(), change.newDepartment());
+            }
+            changesDuringSync = null;
+            syncedAt = started;
+            ready = true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+        logger.debug("Synced maintenance search index with {} requests read since {}", read[0], since);
+    }
+
+    /**
+     * Saves the index to local disk if it changed since it was last saved.
+     * Writers wait while it is written.
+     */
+    @Scheduled(initialDelayString = "${maintenance.search.snapshot-interval-ms:300000}",
+            fixedDelayString = "${maintenance.search.snapshot-interval-ms:300000}")
+    public void save() {
+        if (!enabled || snapshotPath == null || !ready) {
+            return;
+        }
+        lock.readLock().lock();
+        try {
+            if (unsavedChanges == 0) {
+                return;
+            }
+            Path parent = snapshotPath.toAbsolutePath().getParent();
+            if (parent != null) {
+                Files.createDirectories(parent);
+            }
+            // Written aside and moved into place, so a crash never leaves a partial index
+            Path temp = snapshotPath.resolveSibling(snapshotPath.getFileName() + ".tmp");
+            try (DataOutputStream out = new DataOutputStream(
+                    new BufferedOutputStream(Files.newOutputStream(temp), 64 * 1024))) {
+                out.writeInt(SNAPSHOT_MAGIC);
+                out.writeInt(SNAPSHOT_VERSION);
+                out.writeLong(syncedAt.toEpochMilli());
+                documents.writeTo(out);
+            }
+            Files.move(temp, snapshotPath, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            unsavedChanges = 0;
+            logger.info("Saved maintenance search index with {} requests to {}", documents.ids.size(),
+                    snapshotPath);
+        } catch (IOException e) {
+            logger.error("Could not save the maintenance search index to {}", snapshotPath, e);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void load() {
+        if (snapshotPath == null) {
+            return;
+        }
+        try (DataInputStream in = new DataInputStream(
+                new BufferedInputStream(Files.newInputStream(snapshotPath), 64 * 1024))) {
+            if (in.readInt() != SNAPSHOT_MAGIC || in.readInt() != SNAPSHOT_VERSION) {
+                logger.warn("Ignoring maintenance search index {} of an unknown format", snapshotPath);
+                return;
+            }
+            Instant savedAt = Instant.ofEpochMilli(in.readLong());
+            Documents loaded = Documents.readFrom(in);
+            lock.writeLock().lock();
+            try {
+                documents = loaded;
+                syncedAt = savedAt;
+                ready = true;
+            } finally {
+                lock.writeLock().unlock();
+            }
+            logger.info("Loaded maintenance search index with {} requests synced at {}", loaded.ids.size(),
+                    savedAt);
+        } catch (NoSuchFileException e) {
+            logger.info("No saved maintenance search index at {}, building it from the database", snapshotPath);
+        } catch (IOException | RuntimeException e) {
+            logger.warn("Could not load the maintenance search index from {}, building it from the database",
+                    snapshotPath, e);
+        }
+    }
+
+    @Override
+    public void destroy() {
+        save();
+    }
+
+    /**
+     * Splits text into search terms: Unicode-normalized, lower-cased runs
+     * of letters and digits, with a trailing plural "s" removed.
+     */
+    static List<String> tokenize(String text) {
+        List<String> terms = new ArrayList<>();
+        if (text == null) {
+            return terms;
+        }
+        String normalized = Normalizer.normalize(text, Normalizer.Form.NFKC).toLowerCase(Locale.ROOT);
+        int start = -1;
+        for (int i = 0; i <= normalized.length(); i++) {
+            boolean wordChar = i < normalized.length() && Character.isLetterOrDigit(normalized.charAt(i));
+            if (wordChar && start < 0) {
+                start = i;
+            } else if (!wordChar && start >= 0) {
+                terms.add(stem(normalized.substring(start, i)));
+                start = -1;
+            }
+        }
+        return terms;
+    }
+
+    private static String stem(String term) {
+        if (term.length() > 3 && term.endsWith("s") && !term.endsWith("ss")) {
+            return term.substring(0, term.length() - 1);
+        }
+        return term;
+    }
+
+    /**
+     * A term's documents in increasing order, with the term's frequency in each.
+     */
+    private static final class Postings {
+
+        private int[] docs = new int[4];
+        private int[] frequencies = new int[4];
+        private int size;
+
+        void add(int doc, int frequency) {
+            if (size == docs.length) {
+                docs = Arrays.copyOf(docs, size * 2);
+                frequencies = Arrays.copyOf(frequencies, size * 2);
+            }
+            docs[size] = doc;
+            frequencies[size] = frequency;
+            size++;
+        }
+    }
+
+    /**
+     * The document numbering, per-document fields and postings.
+     */
+    private static final class Documents {
+
+        private final Map<UUID, Integer> docOf = new HashMap<>();
+        private final List<UUID> ids = new ArrayList<>();
+        private final Map<String, Postings> postings = new HashMap<>();
+        private int[] lengths = new int[1024];
+        private byte[] statuses = new byte[1024];
+        private byte[] departments = new byte[1024];
+        private long totalLength;
+
+        /**
+         * Indexes the document unless it is already indexed, in which case
+         * only its status and department are updated.
+         */
+        void add(MaintenanceRequestDocument document) {
+            if (docOf.containsKey(document.getId())) {
+                move(document.getId(), document.getStatus(), document.getDepartment());
+                return;
+            }
+            Map<String, Integer> frequencies = new HashMap<>();
+            int length = 0;
+            for (String text : new String[] { document.getDescription(), document.getUnitNumber(),
+                    document.getTenantName() }) {
+                for (String term : tokenize(text)) {
+                    frequencies.merge(term, 1, Integer::sum);
+                    length++;
+                }
+            }
+            int doc = newDocument(document.getId(), length);
+            for (Map.Entry<String, Integer> entry : frequencies.entrySet()) {
+                postings.computeIfAbsent(entry.getKey(), term -> new Postings()).add(doc, entry.getValue());
+            }
+            setKeys(doc, document.getStatus(), document.getDepartment());
+        }
+
+        /**
+         * Updates the status and department of an indexed document; unknown
+         * documents are left to be indexed with their text.
+         */
+        void move(UUID id, Status status, Department department) {
+            Integer doc = docOf.get(id);
+            if (doc != null) {
+                setKeys(doc, status, department);
+            }
+        }
+
+        private int newDocument(UUID id, int length) {
+            int doc = ids.size();
+            if (doc == lengths.length) {
+                lengths = Arrays.copyOf(lengths, doc * 2);
+                statuses = Arrays.copyOf(statuses, doc * 2);
+                departments = Arrays.copyOf(departments, doc * 2);
+            }
+            docOf.put(id, doc);
+            ids.add(id);
+            lengths[doc] = length;
+            totalLength += length;
+            return doc;
+        }
+
+        private void setKeys(int doc, Status status, Department department) {
+            statuses[doc] = status == null ? -1 : (byte) status.ordinal();
+            departments[doc] = department == null ? -1 : (byte) department.ordinal();
+        }
+
+        void writeTo(DataOutputStream out) throws IOException {
+            out.writeInt(ids.size());
+            for (int doc = 0; doc < ids.size(); doc++) {
+                UUID id = ids.get(doc);
+                out.writeLong(id.getMostSignificantBits());
+                out.writeLong(id.getLeastSignificantBits());
+                out.writeInt(lengths[doc]);
+                out.writeByte(statuses[doc]);
+                out.writeByte(departments[doc]);
+            }
+            out.writeInt(postings.size());
+            for (Map.Entry<String, Postings> entry : postings.entrySet()) {
+                Postings list = entry.getValue();
+                out.writeUTF(entry.getKey());
+                out.writeInt(list.size);
+                for (int i = 0; i < list.size; i++) {
+                    out.writeInt(list.docs[i]);
+                    out.writeInt(list.frequencies[i]);
+                }
+            }
+        }
+
+        static Documents readFrom(DataInputStream in) throws IOException {
+            Documents documents = new Documents();
+            int count = in.readInt();
+            for (int i = 0; i < count; i++) {
+                UUID id = new UUID(in.readLong(), in.readLong());
+                int doc = documents.newDocument(id, in.readInt());
+                documents.statuses[doc] = in.readByte();
+                documents.departments[doc] = in.readByte();
+            }
+            int terms = in.readInt();
+            for (int i = 0; i < terms; i++) {
+                String term = in.readUTF();
+                int size = in.readInt();
+                Postings list = new Postings();
+                list.docs = new int[Math.max(size, 1)];
+                list.frequencies = new int[Math.max(size, 1)];
+                for (int j = 0; j < size; j++) {
+                    list.docs[j] = in.readInt();
+                    list.frequencies[j] = in.readInt();
+                }
+                list.size = size;
+                documents.postings.put(term, list);
+            }
+            return documents;
+        }
+    }
+}
@@ -0,0 +1,61 @@
+package com.projects.tenantmanager.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+
+import com.projects.tenantmanager.dto.MaintenanceSearchHit;
+import com.projects.tenantmanager.model.MaintenanceRequest;
+import com.projects.tenantmanager.model.MaintenanceRequest.Department;
+import com.projects.tenantmanager.model.MaintenanceRequest.Status;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Full-text search over maintenance requests: ranked ids from the
+ * {@link MaintenanceSearchIndex}, resolved to requests through the
+ * {@link MaintenanceRequestCache}.
+ */
+@Service
+public class MaintenanceSearchService {
+
+    private static final Logger logger = LoggerFactory.getLogger(MaintenanceSearchService.class);
+
+    private final MaintenanceSearchIndex searchIndex;
+    private final MaintenanceRequestCache requestCache;
+
+    public MaintenanceSearchService(MaintenanceSearchIndex searchIndex, MaintenanceRequestCache requestCache) {
+        this.searchIndex = searchIndex;
+        this.requestCache = requestCache;
+    }
+
+    /**
+     * Requests matching the query, best match first; a null filter matches
+     * everything.
+     *
+     * @throws IllegalStateException if the index has not been built yet
+     */
+    public List<MaintenanceSearchHit> search(String query, Status status, Department department, int limit) {
+        if (!searchIndex.isReady()) {
+            throw new IllegalStateException("Search index is not ready");
+        }
+        logger.debug("Searching maintenance requests for: {}", query);
+        List<MaintenanceSearchIndex.Hit> hits = searchIndex.search(query, status, department, limit);
+        List<UUID> ids = new ArrayList<>(hits.size());
+        Map<UUID, Double> scores = new HashMap<>();
+        for (MaintenanceSearchIndex.Hit hit : hits) {
+            ids.add(hit.id());
+            scores.put(hit.id(), hit.score());
+        }
+
+        List<MaintenanceSearchHit> results = new ArrayList<>(hits.size());
+        for (MaintenanceRequest request : requestCache.getRequestsById(ids)) {
+            results.add(new MaintenanceSearchHit(request, scores.get(request.getId())));
+        }
+        return results;
+    }
+}
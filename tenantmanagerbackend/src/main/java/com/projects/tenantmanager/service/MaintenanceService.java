@@ -2,21 +2,36 @@ package com.projects.tenantmanager.service;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.springframework.cache.annotation.CacheEvict;
-import org.springframework.cache.annotation.Cacheable;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import com.projects.tenantmanager.dto.BulkUpdateResult;
+import com.projects.tenantmanager.dto.MaintenanceRequestCursor;
 import com.projects.tenantmanager.dto.MaintenanceRequestDto;
+import com.projects.tenantmanager.dto.MaintenanceRequestPage;
+import com.projects.tenantmanager.exception.DuplicateRequestException;
 import com.projects.tenantmanager.model.MaintenanceRequest;
 import com.projects.tenantmanager.model.MaintenanceRequest.Status;
 import com.projects.tenantmanager.model.User;
+import com.projects.tenantmanager.repository.MaintenanceRequestKey;
 import com.projects.tenantmanager.repository.MaintenanceRequestRepository;
 import com.projects.tenantmanager.repository.UserRepository;
 
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.UUID;
 
+import static com.projects.tenantmanager.repository.MaintenanceRequestSpecifications.*;
+
 @Service
 @Transactional
 public class MaintenanceService {
@@ -25,14 +40,31 @@ public class MaintenanceService {
 
     private final MaintenanceRequestRepository maintenanceRepository;
     private final UserRepository userRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final MaintenanceRequestCache requestCache;
+    private final MaintenanceFingerprintFilter fingerprintFilter;
+    private final MaintenanceNearDuplicateIndex nearDuplicateIndex;
 
     public MaintenanceService(MaintenanceRequestRepository maintenanceRepository,
-            UserRepository userRepository) {
+            UserRepository userRepository, ApplicationEventPublisher eventPublisher,
+            MaintenanceRequestCache requestCache, MaintenanceFingerprintFilter fingerprintFilter,
+            MaintenanceNearDuplicateIndex nearDuplicateIndex) {
         this.maintenanceRepository = maintenanceRepository;
         this.userRepository = userRepository;
+        this.eventPublisher = eventPublisher;
+        this.requestCache = requestCache;
+        this.fingerprintFilter = fingerprintFilter;
+        this.nearDuplicateIndex = nearDuplicateIndex;
     }
 
-    @CacheEvict(value = "maintenanceRequests", allEntries = true)
+    /**
+     * Creates a request unless one with the same unit, department and
+     * normalized description exists. A request similar to an open one of the
+     * same unit and department is created, flagged as its possible duplicate.
+     *
+     * @throws DuplicateRequestException if the request is a duplicate, also
+     *                                   when a concurrent create stored it first
+     */
     public MaintenanceRequest createRequest(MaintenanceRequestDto requestDto, String username) {
         logger.debug("Creating maintenance request for user: {}", username);
 
@@ -52,94 +84,251 @@ public class MaintenanceService {
         request.setStatus(Status.OPEN);
         request.setApproved(false);
 
+        RequestFingerprint fingerprint = RequestFingerprint.of(requestDto.getUnitNumber(),
+                requestDto.getDepartment(), requestDto.getDescription());
+        if (exists(fingerprint)) {
+            throw new DuplicateRequestException("Request Already Exist");
+        }
+        request.setFingerprint(fingerprint.toString());
+
+        UUID similar = nearDuplicateIndex.findSimilar(requestDto.getUnitNumber(), requestDto.getDepartment(),
+                requestDto.getDescription());
+        if (similar != null) {
+            logger.info("Flagging maintenance request for unit: {} as a possible duplicate of: {}",
+                    requestDto.getUnitNumber(), similar);
+            request.setPossibleDuplicateOf(similar);
+        }
+
         logger.info("Saving maintenance request for tenant: {}, unit: {}, department: {}",
                 tenant.getUsername(), requestDto.getUnitNumber(), requestDto.getDepartment());
 
-        // Save and return the request
-        MaintenanceRequest savedRequest = maintenanceRepository.save(request);
+        // The unique fingerprint makes the insert itself the final duplicate check
+        MaintenanceRequest savedRequest;
+        try {
+            savedRequest = maintenanceRepository.saveAndFlush(request);
+        } catch (DataIntegrityViolationException e) {
+            if (!isFingerprintConflict(e)) {
+                throw e;
+            }
+            logger.info("Rejected concurrent duplicate maintenance request for unit: {}", requestDto.getUnitNumber());
+            throw new DuplicateRequestException("Request Already Exist");
+        }
+        fingerprintFilter.add(fingerprint);
+        eventPublisher.publishEvent(MaintenanceChangeEvent.created(savedRequest.getId(),
+                request.getTenantName(), request.getStatus(), request.getDepartment()));
 
         logger.debug("Maintenance request created successfully with ID: {}", savedRequest.getId());
 
         return savedRequest;
     }
 
-    @Cacheable(value = "maintenanceRequests", key = "'all'")
     public List<MaintenanceRequest> getAllRequests() {
         logger.debug("Fetching all maintenance requests");
-        return maintenanceRepository.findAll();
+        return requestCache.getRequests(null, null);
     }
 
-    @Cacheable(value = "maintenanceRequests", key = "#status")
     public List<MaintenanceRequest> getRequestsByStatus(String status) {
         logger.debug("Fetching maintenance requests with status: {}", status);
         Status statusEnum = Status.valueOf(status);
-        return maintenanceRepository.findByStatus(statusEnum);
+        return requestCache.getRequests(statusEnum, null);
     }
 
-    @CacheEvict(value = "maintenanceRequests", allEntries = true)
     public MaintenanceRequest approveRequest(UUID id) {
         logger.info("Approving maintenance request: {}", id);
         MaintenanceRequest request = maintenanceRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("Request not found"));
+        Status oldStatus = request.getStatus();
 
         request.setApproved(true);
         request.setStatus(Status.IN_PROGRESS);
 
         logger.debug("Request approved and status updated to IN_PROGRESS");
-        return maintenanceRepository.save(request);
+        MaintenanceRequest saved = maintenanceRepository.save(request);
+        eventPublisher.publishEvent(new MaintenanceChangeEvent(request.getId(), oldStatus, request.getDepartment(),
+                request.getStatus(), request.getDepartment()));
+        return saved;
     }
 
-    @CacheEvict(value = "maintenanceRequests", allEntries = true)
     public MaintenanceRequest rejectRequest(UUID id) {
         logger.info("Rejecting maintenance request: {}", id);
         MaintenanceRequest request = maintenanceRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("Request not found"));
+        Status oldStatus = request.getStatus();
 
         request.setApproved(false);
         request.setStatus(Status.REJECTED);
 
         logger.debug("Request rejected and status updated to REJECTED");
-        return maintenanceRepository.save(request);
+        MaintenanceRequest saved = maintenanceRepository.save(request);
+        eventPublisher.publishEvent(new MaintenanceChangeEvent(request.getId(), oldStatus, request.getDepartment(),
+                request.getStatus(), request.getDepartment()));
+        return saved;
     }
 
-    @CacheEvict(value = "maintenanceRequests", allEntries = true)
     public MaintenanceRequest updateStatus(UUID id, String status) {
         logger.info("Updating status for request: {} to {}", id, status);
         MaintenanceRequest request = maintenanceRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("Request not found"));
+        Status oldStatus = request.getStatus();
 
         Status statusEnum = Status.valueOf(status);
         request.setStatus(statusEnum);
 
         logger.debug("Status updated successfully");
-        return maintenanceRepository.save(request);
+        MaintenanceRequest saved = maintenanceRepository.save(request);
+        eventPublisher.publishEvent(new MaintenanceChangeEvent(request.getId(), oldStatus, request.getDepartment(),
+                request.getStatus(), request.getDepartment()));
+        return saved;
+    }
+
+    public List<BulkUpdateResult> approveRequests(List<UUID> ids) {
+        logger.info("Approving {} maintenance requests", ids.size());
+        return bulkUpdate(ids, Status.IN_PROGRESS, true);
+    }
+
+    public List<BulkUpdateResult> rejectRequests(List<UUID> ids) {
+        logger.info("Rejecting {} maintenance requests", ids.size());
+        return bulkUpdate(ids, Status.REJECTED, false);
+    }
+
+    public List<BulkUpdateResult> updateStatuses(List<UUID> ids, String status) {
+        logger.info("Updating status of {} maintenance requests to {}", ids.size(), status);
+        return bulkUpdate(ids, Status.valueOf(status), null);
+    }
+
+    /**
+     * Applies one transition to many requests with set-based UPDATEs, and
+     * publishes one event for all of them. The rows are locked before their
+     * old values are read, so the event matches what the update replaced. A null approval leaves
+     * the approved flag unchanged. Results follow the order of the ids, with
+     * duplicates removed.
+     */
+    private List<BulkUpdateResult> bulkUpdate(List<UUID> ids, Status status, Boolean approved) {
+        Set<UUID> requested = new LinkedHashSet<>(ids);
+        Map<UUID, MaintenanceRequestKey> found = new HashMap<>();
+        Instant now = Instant.now();
+        if (!requested.isEmpty() && maintenanceRepository.touchByIdIn(requested, now) > 0) {
+            for (MaintenanceRequestKey key : maintenanceRepository.findKeysByIdIn(requested)) {
+                found.put(key.getId(), key);
+            }
+        }
+
+        if (!found.isEmpty()) {
+            int updated = approved == null
+                    ? maintenanceRepository.updateStatus(found.keySet(), status, now)
+                    : maintenanceRepository.updateStatusAndApproval(found.keySet(), status, approved, now);
+            logger.debug("Updated {} of {} requested maintenance requests to {}", updated, requested.size(), status);
+
+            List<MaintenanceChangeEvent> changes = new ArrayList<>(found.size());
+            for (MaintenanceRequestKey key : found.values()) {
+                changes.add(new MaintenanceChangeEvent(key.getId(), key.getStatus(), key.getDepartment(), status,
+                        key.getDepartment()));
+            }
+            eventPublisher.publishEvent(new MaintenanceBulkChangeEvent(changes));
+        }
+
+        List<BulkUpdateResult> results = new ArrayList<>(requested.size());
+        for (UUID id : requested) {
+            results.add(found.containsKey(id)
+                    ? new BulkUpdateResult(id, BulkUpdateResult.Outcome.UPDATED, status)
+                    : new BulkUpdateResult(id, BulkUpdateResult.Outcome.NOT_FOUND, null));
+        }
+        return results;
     }
 
-    @Cacheable(value = "maintenanceRequests", key = "#department")
     public List<MaintenanceRequest> getRequestsByDepartment(String department) {
         logger.debug("Fetching maintenance requests with department: {}", department);
         MaintenanceRequest.Department deptEnum = MaintenanceRequest.Department.valueOf(department);
-        return maintenanceRepository.findByDepartment(deptEnum);
+        return requestCache.getRequests(null, deptEnum);
     }
 
-    @Cacheable(value = "maintenanceRequests", key = "#status + '_' + #department")
     public List<MaintenanceRequest> getRequestsByStatusAndDepartment(String status, String department) {
         logger.debug("Fetching maintenance requests with status: {} and department: {}", status, department);
         Status statusEnum = Status.valueOf(status);
         MaintenanceRequest.Department deptEnum = MaintenanceRequest.Department.valueOf(department);
-        return maintenanceRepository.findByStatusAndDepartment(statusEnum, deptEnum);
+        return requestCache.getRequests(statusEnum, deptEnum);
+    }
+
+    /**
+     * One page of requests in {@code (createdAt, id)} order, starting after the
+     * cursor. Null filters are not applied. Every page is a bounded index range
+     * scan, however deep the cursor.
+     */
+    @Transactional(readOnly = true)
+    public MaintenanceRequestPage getRequestPage(Status status, MaintenanceRequest.Department department,
+            Instant from, Instant to, Sort.Direction direction, String cursor, int size) {
+        logger.debug("Fetching page of {} maintenance requests after cursor: {}", size, cursor);
+        Specification<MaintenanceRequest> filter = Specification.allOf(
+                hasStatus(status),
+                hasDepartment(department),
+                createdBetween(from, to),
+                after(cursor == null ? null : MaintenanceRequestCursor.decode(cursor), direction));
+        return findPage(filter, direction, size);
+    }
+
+    /**
+     * One page of the tenant's requests, newest first, starting after the
+     * cursor. Pages within the tenant's newest requests are served from the
+     * tenant's cached id list, later ones by the same keyset scan as
+     * {@link #getRequestPage}, so a cursor works with either.
+     */
+    @Transactional(readOnly = true)
+    public MaintenanceRequestPage getTenantRequestPage(String username, String cursor, int size) {
+        logger.debug("Fetching page of {} maintenance requests of tenant: {} after cursor: {}", size, username,
+                cursor);
+        MaintenanceRequestCursor position = cursor == null ? null : MaintenanceRequestCursor.decode(cursor);
+        List<UUID> ids = requestCache.getTenantRequestIds(username);
+        // The list holds all of the tenant's requests unless it is full
+        boolean complete = ids.size() < requestCache.getMaxTenantRequests();
+        int start = position == null ? 0 : ids.indexOf(position.id()) + 1;
+        boolean listed = position == null || start > 0;
+        if (listed && (complete || start + size <= ids.size())) {
+            int end = Math.min(start + size, ids.size());
+            List<MaintenanceRequest> page = requestCache.getRequestsById(ids.subList(start, end));
+            boolean hasMore = end < ids.size() || !complete;
+            if (!hasMore || page.isEmpty()) {
+                return new MaintenanceRequestPage(page, null);
+            }
+            MaintenanceRequest last = page.get(page.size() - 1);
+            return new MaintenanceRequestPage(page,
+                    new MaintenanceRequestCursor(last.getCreatedAt(), last.getId()).encode());
+        }
+
+        // Past the cached requests
+        return findPage(Specification.allOf(hasTenant(username), after(position, Sort.Direction.DESC)),
+                Sort.Direction.DESC, size);
     }
 
-	public boolean checkRequestExist(MaintenanceRequestDto requestDto) {
-		
-		boolean isDuplicated = false;
-		List<MaintenanceRequest> requestFromDb = maintenanceRepository.findByUnitDepartmentDescription(requestDto.getUnitNumber(),
-				requestDto.getDepartment(),
-				requestDto.getDescription());
-		
-		if(!requestFromDb.isEmpty()) isDuplicated = true;
-		
-		return isDuplicated;
-	}
+    private MaintenanceRequestPage findPage(Specification<MaintenanceRequest> filter, Sort.Direction direction,
+            int size) {
+        // One extra row tells whether there is a next page, without a count query
+        List<MaintenanceRequest> rows = maintenanceRepository.findBy(filter,
+                query -> query.sortBy(keysetOrder(direction)).limit(size + 1).all());
+        if (rows.size() <= size) {
+            return new MaintenanceRequestPage(rows, null);
+        }
+        List<MaintenanceRequest> page = new ArrayList<>(rows.subList(0, size));
+        MaintenanceRequest last = page.get(size - 1);
+        return new MaintenanceRequestPage(page,
+                new MaintenanceRequestCursor(last.getCreatedAt(), last.getId()).encode());
+    }
+
+    public boolean checkRequestExist(MaintenanceRequestDto requestDto) {
+        return exists(RequestFingerprint.of(requestDto.getUnitNumber(), requestDto.getDepartment(),
+                requestDto.getDescription()));
+    }
 
+    /**
+     * Looks the fingerprint up by index only when the Bloom filter cannot
+     * rule it out.
+     */
+    private boolean exists(RequestFingerprint fingerprint) {
+        return fingerprintFilter.mightExist(fingerprint)
+                && maintenanceRepository.existsByFingerprint(fingerprint.toString());
+    }
+
+    private static boolean isFingerprintConflict(DataIntegrityViolationException e) {
+        String message = e.getMostSpecificCause().getMessage();
+        return message != null && message.toLowerCase().contains("uk_maintenance_request_fingerprint");
+    }
 }
@@ -0,0 +1,144 @@
+package com.projects.tenantmanager.service;
+
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import com.projects.tenantmanager.dto.MaintenanceStatsDto;
+import com.projects.tenantmanager.model.MaintenanceRequest.Department;
+import com.projects.tenantmanager.model.MaintenanceRequest.Status;
+import com.projects.tenantmanager.repository.MaintenanceRequestCount;
+import com.projects.tenantmanager.repository.MaintenanceRequestRepository;
+
+/**
+ * Live request counts per status and department, one striped counter per
+ * cell, so that reads never touch the database. Counters follow this node's
+ * writes and are reconciled against a GROUP BY query periodically, which
+ * corrects drift from writes made on other nodes or missed events.
+ */
+@Component
+public class MaintenanceStats {
+
+    private static final Logger logger = LoggerFactory.getLogger(MaintenanceStats.class);
+
+    private static final Status[] STATUSES = Status.values();
+    private static final Department[] DEPARTMENTS = Department.values();
+
+    // Requests without a department, counted in the status totals only
+    private static final int NO_DEPARTMENT = DEPARTMENTS.length;
+
+    private final MaintenanceRequestRepository maintenanceRepository;
+    private final LongAdder[][] counts = new LongAdder[STATUSES.length][DEPARTMENTS.length + 1];
+
+    public MaintenanceStats(MaintenanceRequestRepository maintenanceRepository) {
+        this.maintenanceRepository = maintenanceRepository;
+        for (LongAdder[] row : counts) {
+            for (int i = 0; i < row.length; i++) {
+                row[i] = new LongAdder();
+            }
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onChange(MaintenanceChangeEvent event) {
+        if (event.oldStatus() != null) {
+            cell(event.oldStatus(), event.oldDepartment()).decrement();
+        }
+        if (event.newStatus() != null) {
+            cell(event.newStatus(), event.newDepartment()).increment();
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onBulkChange(MaintenanceBulkChangeEvent event) {
+        event.changes().forEach(this::onChange);
+    }
+
+    public MaintenanceStatsDto getStats() {
+        Map<Status, Map<Department, Long>> byStatusAndDepartment = new EnumMap<>(Status.class);
+        Map<Status, Long> byStatus = new EnumMap<>(Status.class);
+        long total = 0;
+        for (Status status : STATUSES) {
+            Map<Department, Long> byDepartment = new EnumMap<>(Department.class);
+            long statusTotal = 0;
+            for (int d = 0; d <= NO_DEPARTMENT; d++) {
+                long count = counts[status.ordinal()][d].sum();
+                if (d < NO_DEPARTMENT) {
+                    byDepartment.put(DEPARTMENTS[d], count);
+                }
+                statusTotal += count;
+            }
+            byStatusAndDepartment.put(status, byDepartment);
+            byStatus.put(status, statusTotal);
+            total += statusTotal;
+        }
+        return new MaintenanceStatsDto(byStatusAndDepartment, byStatus, total);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onStartup() {
+        reconcile();
+    }
+
+    /**
+     * Moves every counter by the difference between the database count and
+     * its own value when the pass started. Writes counted while the query
+     * runs are kept; one that lands in both may be off by one until the next
+     * pass.
+     */
+    @Scheduled(initialDelayString = "${maintenance.stats.reconcile-interval-ms:60000}",
+            fixedDelayString = "${maintenance.stats.reconcile-interval-ms:60000}")
+    public void reconcile() {
+        long[][] before = new long[counts.length][NO_DEPARTMENT + 1];
+        for (int s = 0; s < counts.length; s++) {
+            for (int d = 0; d <= NO_DEPARTMENT; d++) {
+                before[s][d] = counts[s][d].sum();
+            }
+        }
+
+        List<MaintenanceRequestCount> rows;
+        try {
+            rows = maintenanceRepository.countByStatusAndDepartment();
+        } catch (RuntimeException e) {
+            logger.error("Could not reconcile maintenance request counters", e);
+            return;
+        }
+        long[][] actual = new long[counts.length][NO_DEPARTMENT + 1];
+        for (MaintenanceRequestCount row : rows) {
+            if (row.getStatus() != null) {
+                actual[row.getStatus().ordinal()][column(row.getDepartment())] += row.getCount();
+            }
+        }
+
+        long drift = 0;
+        for (int s = 0; s < counts.length; s++) {
+            for (int d = 0; d <= NO_DEPARTMENT; d++) {
+                long delta = actual[s][d] - before[s][d];
+                if (delta != 0) {
+                    counts[s][d].add(delta);
+                    drift += Math.abs(delta);
+                }
+            }
+        }
+        if (drift != 0) {
+            logger.info("Corrected maintenance request counters by {}", drift);
+        }
+    }
+
+    private LongAdder cell(Status status, Department department) {
+        return counts[status.ordinal()][column(department)];
+    }
+
+    private static int column(Department department) {
+        return department == null ? NO_DEPARTMENT : department.ordinal();
+    }
+}
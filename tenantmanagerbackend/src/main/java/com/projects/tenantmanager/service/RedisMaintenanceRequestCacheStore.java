@@ -0,0 +1,299 @@
+package com.projects.tenantmanager.service;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.redis.core.RedisOperations;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.SessionCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.data.redis.serializer.RedisSerializer;
+import org.springframework.stereotype.Component;
+
+import com.projects.tenantmanager.model.MaintenanceRequest;
+
+/**
+ * Requests as individual JSON values with a TTL, behind a version counter
+ * that every eviction advances, so that a request loaded while it changed
+ * is not cached after the eviction; indexes as Redis sets of
+ * ids. The indexes are kept up to date by writes and rebuilt whenever their
+ * marker key expires, which bounds the effect of any update that was lost.
+ * Tenants' request ids are Redis lists with a TTL, each with a version
+ * counter that makes loading a list and adding to it safe to interleave.
+ */
+@Component
+public class RedisMaintenanceRequestCacheStore implements MaintenanceRequestCacheStore {
+
+    private static final String REQUEST_PREFIX = "mr:request:";
+    private static final String REQUEST_VERSION = "mr:request-version";
+    private static final String INDEX_PREFIX = "mr:index:";
+    private static final String INDEX_MARKER = "mr:indexed";
+    private static final String TENANT_PREFIX = "mr:tenant:";
+    private static final String TENANT_VERSION_PREFIX = "mr:tenant-version:";
+
+    private static final RedisScript<Long> PUT_REQUESTS_SCRIPT = new DefaultRedisScript<>(
+            "if (redis.call('GET', KEYS[1]) or '0') ~= ARGV[1] then return 0 end "
+                    + "for i = 2, #KEYS do "
+                    + "  redis.call('SET', KEYS[i], ARGV[i + 1], 'EX', ARGV[2]) "
+                    + "end "
+                    + "return 1",
+            Long.class);
+
+    // Lists are never stored empty, so that a missing list reads as a miss
+    private static final RedisScript<Long> PUT_TENANT_SCRIPT = new DefaultRedisScript<>(
+            "if (redis.call('GET', KEYS[2]) or '0') ~= ARGV[1] then return 0 end "
+                    + "redis.call('DEL', KEYS[1]) "
+                    + "redis.call('RPUSH', KEYS[1], unpack(ARGV, 3)) "
+                    + "redis.call('EXPIRE', KEYS[1], ARGV[2]) "
+                    + "return 1",
+            Long.class);
+
+    private final RedisTemplate<String, MaintenanceRequest> requestTemplate;
+    private final StringRedisTemplate indexTemplate;
+    private final long requestTtlSeconds;
+    private final long indexTtlSeconds;
+    private final long tenantTtlSeconds;
+
+    public RedisMaintenanceRequestCacheStore(RedisTemplate<String, MaintenanceRequest> requestTemplate,
+            StringRedisTemplate indexTemplate,
+            @Value("${maintenance.cache.request-ttl-seconds:300}") long requestTtlSeconds,
+            @Value("${maintenance.cache.index-ttl-seconds:600}") long indexTtlSeconds,
+            @Value("${maintenance.cache.tenant-ttl-seconds:600}") long tenantTtlSeconds) {
+        this.requestTemplate = requestTemplate;
+        this.indexTemplate = indexTemplate;
+        this.requestTtlSeconds = requestTtlSeconds;
+        this.indexTtlSeconds = indexTtlSeconds;
+        this.tenantTtlSeconds = tenantTtlSeconds;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public Set<UUID> members(String index) {
+        List<Object> results = indexTemplate.executePipelined(new SessionCallback<Object>() {
+            @Override
+            @SuppressWarnings("unchecked")
+            public <K, V> Object execute(RedisOperations<K, V> operations) throws DataAccessException {
+                RedisOperations<String, String> ops = (RedisOperations<String, String>) operations;
+                ops.hasKey(INDEX_MARKER);
+                ops.opsForSet().members(INDEX_PREFIX + index);
+                return null;
+            }
+        });
+        if (!Boolean.TRUE.equals(results.get(0))) {
+            return null;
+        }
+        Set<UUID> ids = new HashSet<>();
+        for (String id : (Set<String>) results.get(1)) {
+            ids.add(UUID.fromString(id));
+        }
+        return ids;
+    }
+
+    @Override
+    public List<MaintenanceRequest> getAll(List<UUID> ids) {
+        List<String> keys = new ArrayList<>(ids.size());
+        for (UUID id : ids) {
+            keys.add(REQUEST_PREFIX + id);
+        }
+        List<MaintenanceRequest> requests = requestTemplate.opsForValue().multiGet(keys);
+        return requests != null ? requests : new ArrayList<>(Collections.nCopies(ids.size(), null));
+    }
+
+    @Override
+    public long requestVersion() {
+        String version = indexTemplate.opsForValue().get(REQUEST_VERSION);
+        return version != null ? Long.parseLong(version) : 0;
+    }
+
+    /**
+     * Written by a script as the JSON of the request template, so that the
+     * version check and the writes are atomic.
+     */
+    @Override
+    @SuppressWarnings("unchecked")
+    public void putAll(Collection<MaintenanceRequest> requests, long version) {
+        if (requests.isEmpty()) {
+            return;
+        }
+        RedisSerializer<MaintenanceRequest> serializer =
+                (RedisSerializer<MaintenanceRequest>) requestTemplate.getValueSerializer();
+        List<String> keys = new ArrayList<>(requests.size() + 1);
+        Object[] args = new Object[requests.size() + 2];
+        keys.add(REQUEST_VERSION);
+        args[0] = Long.toString(version);
+        args[1] = Long.toString(requestTtlSeconds);
+        int i = 2;
+        for (MaintenanceRequest request : requests) {
+            keys.add(REQUEST_PREFIX + request.getId());
+            args[i++] = new String(serializer.serialize(request), StandardCharsets.UTF_8);
+        }
+        indexTemplate.execute(PUT_REQUESTS_SCRIPT, keys, args);
+    }
+
+    /**
+     * The version is advanced first, so that requests loaded before the
+     * change are not cached after the eviction.
+     */
+    @Override
+    public void evict(Collection<UUID> ids) {
+        if (ids.isEmpty()) {
+            return;
+        }
+        indexTemplate.executePipelined(new SessionCallback<Object>() {
+            @Override
+            @SuppressWarnings("unchecked")
+            public <K, V> Object execute(RedisOperations<K, V> operations) throws DataAccessException {
+                RedisOperations<String, String> ops = (RedisOperations<String, String>) operations;
+                ops.opsForValue().increment(REQUEST_VERSION);
+                List<String> keys = new ArrayList<>(ids.size());
+                for (UUID id : ids) {
+                    keys.add(REQUEST_PREFIX + id);
+                }
+                ops.delete(keys);
+                return null;
+            }
+        });
+    }
+
+    @Override
+    public void move(List<IndexMove> moves) {
+        if (moves.isEmpty()) {
+            return;
+        }
+        indexTemplate.executePipelined(new SessionCallback<Object>() {
+            @Override
+            @SuppressWarnings("unchecked")
+            public <K, V> Object execute(RedisOperations<K, V> operations) throws DataAccessException {
+                RedisOperations<String, String> ops = (RedisOperations<String, String>) operations;
+                for (IndexMove move : moves) {
+                    String member = move.id().toString();
+                    for (String index : move.from()) {
+                        ops.opsForSet().remove(INDEX_PREFIX + index, member);
+                    }
+                    for (String index : move.to()) {
+                        ops.opsForSet().add(INDEX_PREFIX + index, member);
+                    }
+                }
+                return null;
+            }
+        });
+    }
+
+    @Override
+    public void rebuild(Map<String, Set<UUID>> indexes) {
+        indexTemplate.execute(new SessionCallback<Object>() {
+            @Override
+            @SuppressWarnings("unchecked")
+            public <K, V> Object execute(RedisOperations<K, V> operations) throws DataAccessException {
+                RedisOperations<String, String> ops = (RedisOperations<String, String>) operations;
+                ops.multi();
+                for (Map.Entry<String, Set<UUID>> index : indexes.entrySet()) {
+                    String key = INDEX_PREFIX + index.getKey();
+                    ops.delete(key);
+                    if (!index.getValue().isEmpty()) {
+                        ops.opsForSet().add(key, index.getValue().stream().map(UUID::toString).toArray(String[]::new));
+                    }
+                }
+                ops.opsForValue().set(INDEX_MARKER, "1", indexTtlSeconds, TimeUnit.SECONDS);
+                return ops.exec();
+            }
+        });
+    }
+
+    @Override
+    public List<UUID> tenantRequests(String tenantName) {
+        List<String> members = indexTemplate.opsForList().range(TENANT_PREFIX + tenantName, 0, -1);
+        if (members == null || members.isEmpty()) {
+            return null;
+        }
+        List<UUID> ids = new ArrayList<>(members.size());
+        for (String id : members) {
+            ids.add(UUID.fromString(id));
+        }
+        return ids;
+    }
+
+    @Override
+    public long tenantVersion(String tenantName) {
+        String version = indexTemplate.opsForValue().get(TENANT_VERSION_PREFIX + tenantName);
+        return version != null ? Long.parseLong(version) : 0;
+    }
+
+    @Override
+    public void putTenantRequests(String tenantName, List<UUID> ids, long version) {
+        if (ids.isEmpty()) {
+            return;
+        }
+        Object[] args = new Object[ids.size() + 2];
+        args[0] = Long.toString(version);
+        args[1] = Long.toString(tenantTtlSeconds);
+        for (int i = 0; i < ids.size(); i++) {
+            args[i + 2] = ids.get(i).toString();
+        }
+        indexTemplate.execute(PUT_TENANT_SCRIPT,
+                List.of(TENANT_PREFIX + tenantName, TENANT_VERSION_PREFIX + tenantName), args);
+    }
+
+    /**
+     * The version is advanced first, so that a list loaded before the new
+     * requests were added is not cached; a list loaded after the new requests
+     * committed but cached before they were added lists them twice.
+     */
+    @Override
+    public void addTenantRequests(Map<String, List<UUID>> idsByTenant, int maxSize) {
+        if (idsByTenant.isEmpty()) {
+            return;
+        }
+        indexTemplate.executePipelined(new SessionCallback<Object>() {
+            @Override
+            @SuppressWarnings("unchecked")
+            public <K, V> Object execute(RedisOperations<K, V> operations) throws DataAccessException {
+                RedisOperations<String, String> ops = (RedisOperations<String, String>) operations;
+                for (Map.Entry<String, List<UUID>> tenant : idsByTenant.entrySet()) {
+                    String versionKey = TENANT_VERSION_PREFIX + tenant.getKey();
+                    String listKey = TENANT_PREFIX + tenant.getKey();
+                    ops.opsForValue().increment(versionKey);
+                    ops.expire(versionKey, tenantTtlSeconds, TimeUnit.SECONDS);
+                    for (UUID id : tenant.getValue()) {
+                        ops.opsForList().leftPushIfPresent(listKey, id.toString());
+                    }
+                    ops.opsForList().trim(listKey, 0, maxSize - 1);
+                }
+                return null;
+            }
+        });
+    }
+
+    @Override
+    public void evictTenantRequests(Collection<String> tenantNames) {
+        if (tenantNames.isEmpty()) {
+            return;
+        }
+        indexTemplate.executePipelined(new SessionCallback<Object>() {
+            @Override
+            @SuppressWarnings("unchecked")
+            public <K, V> Object execute(RedisOperations<K, V> operations) throws DataAccessException {
+                RedisOperations<String, String> ops = (RedisOperations<String, String>) operations;
+                for (String tenantName : tenantNames) {
+                    String versionKey = TENANT_VERSION_PREFIX + tenantName;
+                    ops.opsForValue().increment(versionKey);
+                    ops.expire(versionKey, tenantTtlSeconds, TimeUnit.SECONDS);
+                    ops.delete(TENANT_PREFIX + tenantName);
+                }
+                return null;
+            }
+        });
+    }
+}
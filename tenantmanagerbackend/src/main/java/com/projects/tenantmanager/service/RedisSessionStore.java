@@ -0,0 +1,304 @@
+package com.projects.tenantmanager.service;
+
+import com.projects.tenantmanager.dto.ActiveSessionDto;
+import com.projects.tenantmanager.dto.SessionPage;
+import com.projects.tenantmanager.security.TokenDigest;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.redis.core.Cursor;
+import org.springframework.data.redis.core.RedisOperations;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.ScanOptions;
+import org.springframework.data.redis.core.SessionCallback;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.data.redis.serializer.RedisSerializer;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * Session store shared by all nodes through Redis. Revocations are
+ * broadcast on {@link #REVOCATION_CHANNEL} and generation changes on
+ * {@link #GENERATION_CHANNEL}, so that every node can update its
+ * near-caches and revocation filter.
+ */
+@Component
+@ConditionalOnProperty(name = "session.store", havingValue = "redis", matchIfMissing = true)
+public class RedisSessionStore implements SessionStore {
+
+    public static final String REVOCATION_CHANNEL = "session:revocations";
+    public static final String GENERATION_CHANNEL = "session:generations";
+
+    private static final String SESSION_PREFIX = "session:";
+    private static final String TOKEN_PREFIX = "token:";
+    private static final String REVOKED_PREFIX = "revoked:";
+    private static final String GENERATION_PREFIX = "gen:";
+
+    // Values are stored JSON-encoded by the template serializer, hence cjson.decode
+    // when a stored token is used to build a key.
+    private static final RedisScript<Long> STORE_SESSION_SCRIPT = new DefaultRedisScript<>(
+            "redis.call('SET', KEYS[1], ARGV[1], 'EX', ARGV[3]) "
+                    + "redis.call('SET', KEYS[2], ARGV[2], 'EX', ARGV[3]) "
+                    + "return 1",
+            Long.class);
+
+    private static final RedisScript<Object> INVALIDATE_SESSION_SCRIPT = new DefaultRedisScript<>(
+            "local token = redis.call('GET', KEYS[1]) "
+                    + "if not token then return nil end "
+                    + "redis.call('DEL', KEYS[1], 'token:' .. cjson.decode(token)) "
+                    + "return token",
+            Object.class);
+
+    @SuppressWarnings({ "rawtypes", "unchecked" })
+    private static final RedisScript<List<Object>> INVALIDATE_SESSIONS_SCRIPT = (RedisScript) new DefaultRedisScript<>(
+            "local revoked = {} "
+                    + "for _, sessionKey in ipairs(KEYS) do "
+                    + "  local token = redis.call('GET', sessionKey) "
+                    + "  if token then "
+                    + "    redis.call('DEL', sessionKey, 'token:' .. cjson.decode(token)) "
+                    + "    revoked[#revoked + 1] = token "
+                    + "  end "
+                    + "end "
+                    + "return revoked",
+            List.class);
+
+    // A new record starts at the given clock millis, above any generation a
+    // lost or expired record of the user can have reached
+    private static final RedisScript<Long> ACQUIRE_GENERATION_SCRIPT = new DefaultRedisScript<>(
+            "local generation = redis.call('GET', KEYS[1]) "
+                    + "if generation then "
+                    + "  redis.call('EXPIRE', KEYS[1], ARGV[1]) "
+                    + "  return tonumber(generation) "
+                    + "end "
+                    + "redis.call('SET', KEYS[1], ARGV[2], 'EX', ARGV[1]) "
+                    + "return tonumber(ARGV[2])",
+            Long.class);
+
+    // Returns the 1-based positions of the keys that were advanced
+    @SuppressWarnings({ "rawtypes", "unchecked" })
+    private static final RedisScript<List<Object>> ADVANCE_GENERATIONS_SCRIPT = (RedisScript) new DefaultRedisScript<>(
+            "local advanced = {} "
+                    + "for i, key in ipairs(KEYS) do "
+                    + "  if redis.call('EXISTS', key) == 1 then "
+                    + "    redis.call('INCR', key) "
+                    + "    redis.call('EXPIRE', key, ARGV[1]) "
+                    + "    advanced[#advanced + 1] = i "
+                    + "  end "
+                    + "end "
+                    + "return advanced",
+            List.class);
+
+    // Returns the next cursor and the page of keys, as SCAN does
+    @SuppressWarnings({ "rawtypes", "unchecked" })
+    private static final RedisScript<List<Object>> SCAN_SESSIONS_SCRIPT = (RedisScript) new DefaultRedisScript<>(
+            "return redis.call('SCAN', ARGV[1], 'MATCH', ARGV[2], 'COUNT', ARGV[3])",
+            List.class);
+
+    private final RedisTemplate<String, Object> redisTemplate;
+    private final long tokenLifetimeMillis;
+
+    public RedisSessionStore(RedisTemplate<String, Object> redisTemplate,
+            @Value("${jwt.expiration}") long tokenLifetimeMillis) {
+        this.redisTemplate = redisTemplate;
+        this.tokenLifetimeMillis = tokenLifetimeMillis;
+    }
+
+    /**
+     * Stores both session mappings atomically in one round trip.
+     */
+    @Override
+    public void store(String username, String token) {
+        redisTemplate.execute(STORE_SESSION_SCRIPT,
+                List.of(SESSION_PREFIX + username, TOKEN_PREFIX + token),
+                token, username, SESSION_TTL_SECONDS);
+    }
+
+    @Override
+    public boolean contains(String token) {
+        return Boolean.TRUE.equals(redisTemplate.hasKey(TOKEN_PREFIX + token));
+    }
+
+    @Override
+    public String getUsername(String token) {
+        Object username = redisTemplate.opsForValue().get(TOKEN_PREFIX + token);
+        return username != null ? username.toString() : null;
+    }
+
+    @Override
+    public TokenDigest remove(String username) {
+        Object token = redisTemplate.execute(INVALIDATE_SESSION_SCRIPT, List.of(SESSION_PREFIX + username));
+        return token != null ? TokenDigest.of(token.toString()) : null;
+    }
+
+    /**
+     * Revokes all given users with a single atomic script call.
+     */
+    @Override
+    public List<TokenDigest> removeAll(List<String> usernames) {
+        List<String> sessionKeys = usernames.stream().map(username -> SESSION_PREFIX + username).toList();
+        List<Object> tokens = redisTemplate.execute(INVALIDATE_SESSIONS_SCRIPT, sessionKeys);
+        if (tokens == null) {
+            return List.of();
+        }
+        return tokens.stream().map(token -> TokenDigest.of(token.toString())).toList();
+    }
+
+    /**
+     * Extends the TTL of many sessions in a single pipelined round trip.
+     */
+    @Override
+    public void extend(Map<String, String> usernamesByToken) {
+        redisTemplate.executePipelined(new SessionCallback<Object>() {
+            @Override
+            @SuppressWarnings("unchecked")
+            public <K, V> Object execute(RedisOperations<K, V> operations) {
+                RedisOperations<String, Object> ops = (RedisOperations<String, Object>) operations;
+                Set<String> usernames = new HashSet<>();
+                usernamesByToken.forEach((token, username) -> {
+                    // Extend TTL for both keys
+                    ops.expire(TOKEN_PREFIX + token, SESSION_TTL_HOURS, TimeUnit.HOURS);
+                    if (usernames.add(username)) {
+                        ops.expire(SESSION_PREFIX + username, SESSION_TTL_HOURS, TimeUnit.HOURS);
+                    }
+                });
+                return null;
+            }
+        });
+    }
+
+    /**
+     * Lists active sessions using a SCAN cursor, so that each page costs the
+     * same regardless of how many sessions exist. SCAN runs in a script,
+     * which hands back the cursor for the next page; the template's
+     * iterating scan does not.
+     *
+     * @throws IllegalArgumentException if the cursor is not one SCAN returned
+     */
+    @Override
+    @SuppressWarnings({ "rawtypes", "unchecked" })
+    public SessionPage list(String cursor, int count) {
+        if (cursor.isEmpty() || !cursor.chars().allMatch(Character::isDigit)) {
+            throw new IllegalArgumentException("Invalid cursor: " + cursor);
+        }
+        // Plain strings both ways: the cursor and the keys are not JSON values
+        List<Object> scan = redisTemplate.execute(SCAN_SESSIONS_SCRIPT, RedisSerializer.string(),
+                (RedisSerializer) RedisSerializer.string(), List.of(), cursor, SESSION_PREFIX + "*",
+                String.valueOf(count));
+        String next = (String) scan.get(0);
+        List<String> usernames = ((List<?>) scan.get(1)).stream()
+                .map(key -> ((String) key).substring(SESSION_PREFIX.length()))
+                .toList();
+
+        // Fetch the remaining TTL of the whole page in one round trip
+        List<Object> ttls = redisTemplate.executePipelined(new SessionCallback<Object>() {
+            @Override
+            @SuppressWarnings("unchecked")
+            public <K, V> Object execute(RedisOperations<K, V> operations) {
+                RedisOperations<String, Object> ops = (RedisOperations<String, Object>) operations;
+                usernames.forEach(username -> ops.getExpire(SESSION_PREFIX + username));
+                return null;
+            }
+        });
+
+        List<ActiveSessionDto> sessions = new ArrayList<>(usernames.size());
+        for (int i = 0; i < usernames.size(); i++) {
+            Object ttl = ttls.get(i);
+            sessions.add(new ActiveSessionDto(usernames.get(i), ttl instanceof Long seconds ? seconds : -1L));
+        }
+        return new SessionPage(sessions, next);
+    }
+
+    /**
+     * Records the revocations for exact confirmation and tells every other
+     * node about them, all in one pipelined round trip.
+     */
+    @Override
+    public void revoke(List<TokenDigest> digests) {
+        redisTemplate.executePipelined(new SessionCallback<Object>() {
+            @Override
+            @SuppressWarnings("unchecked")
+            public <K, V> Object execute(RedisOperations<K, V> operations) {
+                RedisOperations<String, Object> ops = (RedisOperations<String, Object>) operations;
+                digests.forEach(digest -> {
+                    ops.opsForValue().set(REVOKED_PREFIX + digest, Boolean.TRUE, tokenLifetimeMillis,
+                            TimeUnit.MILLISECONDS);
+                    ops.convertAndSend(REVOCATION_CHANNEL, digest.toString());
+                });
+                return null;
+            }
+        });
+    }
+
+    @Override
+    public boolean isRevoked(TokenDigest digest) {
+        return Boolean.TRUE.equals(redisTemplate.hasKey(REVOKED_PREFIX + digest));
+    }
+
+    @Override
+    public void forEachRevoked(Consumer<TokenDigest> action) {
+        try (Cursor<String> cursor = redisTemplate.scan(ScanOptions.scanOptions()
+                .match(REVOKED_PREFIX + "*")
+                .count(1000)
+                .build())) {
+            while (cursor.hasNext()) {
+                action.accept(TokenDigest.parse(cursor.next().substring(REVOKED_PREFIX.length())));
+            }
+        }
+    }
+
+    @Override
+    public long acquireGeneration(String username) {
+        long start = System.currentTimeMillis();
+        Long generation = redisTemplate.execute(ACQUIRE_GENERATION_SCRIPT,
+                List.of(GENERATION_PREFIX + username), generationTtlSeconds(), start);
+        return generation != null ? generation : start;
+    }
+
+    /**
+     * The token lifetime rounded up, refreshed on every login and logout,
+     * so the record outlives every token issued with it.
+     */
+    private long generationTtlSeconds() {
+        return TimeUnit.MILLISECONDS.toSeconds(tokenLifetimeMillis + 999);
+    }
+
+    @Override
+    public Long getGeneration(String username) {
+        Object generation = redisTemplate.opsForValue().get(GENERATION_PREFIX + username);
+        return generation instanceof Number number ? number.longValue() : null;
+    }
+
+    /**
+     * Advances all given users with a single atomic script call, then
+     * broadcasts the changes in one pipelined round trip.
+     */
+    @Override
+    public List<String> advanceGenerations(List<String> usernames) {
+        List<String> keys = usernames.stream().map(username -> GENERATION_PREFIX + username).toList();
+        List<Object> positions = redisTemplate.execute(ADVANCE_GENERATIONS_SCRIPT, keys, generationTtlSeconds());
+        if (positions == null || positions.isEmpty()) {
+            return List.of();
+        }
+        List<String> advanced = positions.stream()
+                .map(position -> usernames.get(((Number) position).intValue() - 1))
+                .toList();
+
+        redisTemplate.executePipelined(new SessionCallback<Object>() {
+            @Override
+            @SuppressWarnings("unchecked")
+            public <K, V> Object execute(RedisOperations<K, V> operations) {
+                RedisOperations<String, Object> ops = (RedisOperations<String, Object>) operations;
+                advanced.forEach(username -> ops.convertAndSend(GENERATION_CHANNEL, username));
+                return null;
+            }
+        });
+        return advanced;
+    }
+}
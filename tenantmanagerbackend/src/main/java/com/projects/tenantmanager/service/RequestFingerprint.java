@@ -0,0 +1,65 @@
+package com.projects.tenantmanager.service;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.text.Normalizer;
+import java.util.Locale;
+import java.util.regex.Pattern;
+
+import com.projects.tenantmanager.model.MaintenanceRequest.Department;
+
+/**
+ * Content identity of a maintenance request: the first 128 bits of the
+ * SHA-256 hash of its unit, department and description, normalized so that
+ * case, Unicode form and whitespace differences do not matter. Two requests
+ * with the same fingerprint are duplicates.
+ */
+public record RequestFingerprint(long high, long low) {
+
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+
+    public static RequestFingerprint of(String unitNumber, Department department, String description) {
+        String key = normalize(unitNumber) + '\0' + (department == null ? "" : department.name()) + '\0'
+                + normalize(description);
+        byte[] hash;
+        try {
+            hash = MessageDigest.getInstance("SHA-256").digest(key.getBytes(StandardCharsets.UTF_8));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+        return new RequestFingerprint(readLong(hash, 0), readLong(hash, 8));
+    }
+
+    static String normalize(String text) {
+        if (text == null) {
+            return "";
+        }
+        String normalized = Normalizer.normalize(text, Normalizer.Form.NFKC);
+        return WHITESPACE.matcher(normalized.strip()).replaceAll(" ").toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * Parses the value produced by {@link #toString()}.
+     */
+    public static RequestFingerprint parse(String hex) {
+        if (hex == null || hex.length() != 32) {
+            throw new IllegalArgumentException("Invalid request fingerprint: " + hex);
+        }
+        return new RequestFingerprint(Long.parseUnsignedLong(hex.substring(0, 16), 16),
+                Long.parseUnsignedLong(hex.substring(16), 16));
+    }
+
+    private static long readLong(byte[] bytes, int offset) {
+        long value = 0;
+        for (int i = offset; i < offset + Long.BYTES; i++) {
+            value = (value << 8) | (bytes[i] & 0xff);
+        }
+        return value;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%016x%016x", high, low);
+    }
+}
@@ -0,0 +1,112 @@
+package com.projects.tenantmanager.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.projects.tenantmanager.security.TokenDigest;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Write-behind session TTL extension. Requests only record that a session
+ * was used; a background flush slides the TTLs in the session store, at
+ * most once per token per window and in batches.
+ */
+@Component
+public class SessionExtender {
+
+    private static final Logger logger = LoggerFactory.getLogger(SessionExtender.class);
+
+    private final SessionService sessionService;
+    private final int batchSize;
+
+    /**
+     * Tokens extended (or queued for extension) within the current window.
+     */
+    private final Cache<TokenDigest, Boolean> recentlyExtended;
+
+    /**
+     * Tokens waiting for the next flush, mapped to their username.
+     */
+    private final Map<String, String> pending = new ConcurrentHashMap<>();
+
+    private final Counter requestedCounter;
+    private final Counter coalescedCounter;
+    private final Counter extendedCounter;
+
+    public SessionExtender(SessionService sessionService, MeterRegistry meterRegistry,
+            @Value("${session.extension.window-seconds:60}") long windowSeconds,
+            @Value("${session.extension.batch-size:500}") int batchSize) {
+        this.sessionService = sessionService;
+        this.batchSize = batchSize;
+        this.recentlyExtended = Caffeine.newBuilder()
+                .expireAfterWrite(Duration.ofSeconds(windowSeconds))
+                .build();
+
+        this.requestedCounter = Counter.builder("session.extension.requests")
+                .description("Session extensions requested by authenticated requests")
+                .register(meterRegistry);
+        this.coalescedCounter = Counter.builder("session.extension.coalesced")
+                .description("Session extensions skipped because the token was refreshed within the window")
+                .register(meterRegistry);
+        this.extendedCounter = Counter.builder("session.extension.flushed")
+                .description("Session extensions written to the session store")
+                .register(meterRegistry);
+        meterRegistry.gauge("session.extension.pending", pending, Map::size);
+    }
+
+    /**
+     * Records that a session was used. Returns immediately; the TTL is
+     * extended by the next flush unless it was already extended within the
+     * window.
+     *
+     * @param token    The JWT of the session
+     * @param username The owner of the session
+     */
+    public void touch(String token, String username) {
+        touch(token, TokenDigest.of(token), username);
+    }
+
+    public void touch(String token, TokenDigest digest, String username) {
+        requestedCounter.increment();
+        if (recentlyExtended.asMap().putIfAbsent(digest, Boolean.TRUE) != null) {
+            coalescedCounter.increment();
+            return;
+        }
+        pending.put(token, username);
+    }
+
+    @Scheduled(fixedDelayString = "${session.extension.flush-interval-ms:1000}")
+    public void flush() {
+        while (!pending.isEmpty()) {
+            Map<String, String> batch = new HashMap<>();
+            Iterator<Map.Entry<String, String>> it = pending.entrySet().iterator();
+            while (it.hasNext() && batch.size() < batchSize) {
+                Map.Entry<String, String> entry = it.next();
+                batch.put(entry.getKey(), entry.getValue());
+                it.remove();
+            }
+
+            try {
+                sessionService.extendSessions(batch);
+                extendedCounter.increment(batch.size());
+                logger.debug("Extended {} sessions", batch.size());
+            } catch (Exception e) {
+                // Let the tokens be picked up again on their next request
+                batch.keySet().forEach(token -> recentlyExtended.invalidate(TokenDigest.of(token)));
+                logger.error("Could not extend {} sessions", batch.size(), e);
+                return;
+            }
+        }
+    }
+}
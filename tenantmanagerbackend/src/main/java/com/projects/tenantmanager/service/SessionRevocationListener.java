@@ -0,0 +1,54 @@
+package com.projects.tenantmanager.service;
+
+import com.projects.tenantmanager.security.TokenDigest;
+import com.projects.tenantmanager.security.TokenRevocationFilter;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Receives token revocations published on
+ * {@link RedisSessionStore#REVOCATION_CHANNEL}, evicts them from the
+ * local near-cache and adds them to the local revocation filter. Users
+ * published on {@link RedisSessionStore#GENERATION_CHANNEL} have their
+ * session generation evicted from the local near-cache.
+ */
+@Component
+@ConditionalOnProperty(name = "session.store", havingValue = "redis", matchIfMissing = true)
+public class SessionRevocationListener implements MessageListener {
+
+    private static final Logger logger = LoggerFactory.getLogger(SessionRevocationListener.class);
+
+    private final SessionService sessionService;
+    private final TokenRevocationFilter tokenRevocationFilter;
+    private final RedisTemplate<String, Object> redisTemplate;
+
+    public SessionRevocationListener(SessionService sessionService,
+            TokenRevocationFilter tokenRevocationFilter, RedisTemplate<String, Object> redisTemplate) {
+        this.sessionService = sessionService;
+        this.tokenRevocationFilter = tokenRevocationFilter;
+        this.redisTemplate = redisTemplate;
+    }
+
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        try {
+            Object body = redisTemplate.getValueSerializer().deserialize(message.getBody());
+            if (RedisSessionStore.GENERATION_CHANNEL.equals(new String(message.getChannel(), StandardCharsets.UTF_8))) {
+                sessionService.evictGeneration(String.valueOf(body));
+                return;
+            }
+            TokenDigest digest = TokenDigest.parse(String.valueOf(body));
+            sessionService.evictLocal(digest);
+            tokenRevocationFilter.add(digest);
+        } catch (Exception e) {
+            logger.error("Could not process session revocation message", e);
+        }
+    }
+}
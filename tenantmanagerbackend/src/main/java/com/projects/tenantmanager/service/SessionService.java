@@ -0,0 +1,287 @@
+package com.projects.tenantmanager.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.projects.tenantmanager.dto.SessionPage;
+import com.projects.tenantmanager.security.SessionMode;
+import com.projects.tenantmanager.security.TokenDigest;
+import com.projects.tenantmanager.security.TokenRevocationFilter;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+@Service
+public class SessionService {
+
+    private static final Logger logger = LoggerFactory.getLogger(SessionService.class);
+
+    private static final int BULK_BATCH_SIZE = 500;
+
+    private final SessionStore sessionStore;
+    private final TokenRevocationFilter tokenRevocationFilter;
+    private final SessionMode sessionMode;
+
+    /**
+     * Near-cache of tokens recently confirmed to exist in the session store.
+     * Entries are evicted on revocation messages from any node; the TTL
+     * bounds staleness if a message is lost.
+     */
+    private final Cache<TokenDigest, Boolean> validTokens;
+
+    /**
+     * Near-cache of session generations by username, evicted the same way.
+     */
+    private final Cache<String, Long> generations;
+
+    /**
+     * Bumped on every local eviction so that a lookup racing with a
+     * revocation does not re-populate a near-cache with a revoked entry.
+     */
+    private final AtomicLong revocations = new AtomicLong();
+
+    public SessionService(SessionStore sessionStore, TokenRevocationFilter tokenRevocationFilter,
+            @Value("${session.mode:ALLOWLIST}") SessionMode sessionMode,
+            @Value("${session.near-cache.max-size:10000}") long nearCacheMaxSize,
+            @Value("${session.near-cache.ttl-seconds:30}") long nearCacheTtlSeconds) {
+        this.sessionStore = sessionStore;
+        this.tokenRevocationFilter = tokenRevocationFilter;
+        this.sessionMode = sessionMode;
+        this.validTokens = Caffeine.newBuilder()
+                .maximumSize(nearCacheMaxSize)
+                .expireAfterWrite(Duration.ofSeconds(nearCacheTtlSeconds))
+                .build();
+        this.generations = Caffeine.newBuilder()
+                .maximumSize(nearCacheMaxSize)
+                .expireAfterWrite(Duration.ofSeconds(nearCacheTtlSeconds))
+                .build();
+    }
+
+    /**
+     * @return true if new tokens carry a session generation instead of
+     *         being stored individually
+     */
+    public boolean usesGenerations() {
+        return sessionMode == SessionMode.GENERATION;
+    }
+
+    /**
+     * @return The session generation to embed in a new token of the user
+     */
+    public long acquireGeneration(String username) {
+        return sessionStore.acquireGeneration(username);
+    }
+
+    /**
+     * Checks that a token's generation is still the current generation of
+     * its user, i.e. that the user has not logged out since it was issued.
+     */
+    public boolean isGenerationCurrent(String username, long generation) {
+        Long current = generations.getIfPresent(username);
+        if (current == null) {
+            long revocationsBefore = revocations.get();
+            current = sessionStore.getGeneration(username);
+            if (current == null) {
+                return false;
+            }
+            if (revocations.get() == revocationsBefore) {
+                generations.put(username, current);
+            }
+        }
+        return current == generation;
+    }
+
+    /**
+     * @param username The owner of the session
+     * @param token    The JWT issued to the user
+     */
+    public void storeUserSession(String username, String token) {
+        sessionStore.store(username, token);
+    }
+
+    public boolean isTokenValid(String token) {
+        return isTokenValid(token, TokenDigest.of(token));
+    }
+
+    public boolean isTokenValid(String token, TokenDigest digest) {
+        if (validTokens.getIfPresent(digest) != null) {
+            return true;
+        }
+
+        long revocationsBefore = revocations.get();
+        boolean valid = sessionStore.contains(token);
+        if (valid && revocations.get() == revocationsBefore) {
+            validTokens.put(digest, Boolean.TRUE);
+        }
+        return valid;
+    }
+
+    public String getUsernameFromToken(String token) {
+        return sessionStore.getUsername(token);
+    }
+
+    /**
+     * Deletes the session of a user and its token, then revokes the token
+     * on every node. With generations, also advances the user's generation,
+     * which ends all of the user's sessions at once; tokens issued before
+     * the switch to generations are still removed individually.
+     *
+     * @param username The user to log out
+     */
+    public void invalidateSession(String username) {
+        if (usesGenerations()) {
+            advanceGenerations(List.of(username));
+        }
+
+        TokenDigest digest = sessionStore.remove(username);
+
+        if (digest != null) {
+            revoke(List.of(digest));
+        }
+    }
+
+    /**
+     * Revokes the sessions of many users in batches, so that each batch
+     * costs the store a single call.
+     *
+     * @param usernames The users to log out
+     * @return The number of sessions that were revoked
+     */
+    public int invalidateSessions(Collection<String> usernames) {
+        int revoked = 0;
+        List<String> batch = new ArrayList<>(BULK_BATCH_SIZE);
+        for (String username : usernames) {
+            batch.add(username);
+            if (batch.size() == BULK_BATCH_SIZE) {
+                revoked += invalidateBatch(batch);
+                batch.clear();
+            }
+        }
+        if (!batch.isEmpty()) {
+            revoked += invalidateBatch(batch);
+        }
+        logger.info("Revoked {} sessions for {} users", revoked, usernames.size());
+        return revoked;
+    }
+
+    private int invalidateBatch(List<String> usernames) {
+        int revoked = usesGenerations() ? advanceGenerations(usernames) : 0;
+        List<TokenDigest> digests = sessionStore.removeAll(usernames);
+        if (digests.isEmpty()) {
+            return revoked;
+        }
+        revoke(digests);
+        return revoked + digests.size();
+    }
+
+    private int advanceGenerations(List<String> usernames) {
+        List<String> advanced = sessionStore.advanceGenerations(usernames);
+        // Evict after the store has moved on, so no lookup can re-cache the old generation
+        advanced.forEach(this::evictGeneration);
+        return advanced.size();
+    }
+
+    private void revoke(List<TokenDigest> digests) {
+        for (TokenDigest digest : digests) {
+            evictLocal(digest);
+            tokenRevocationFilter.add(digest);
+        }
+        sessionStore.revoke(digests);
+    }
+
+    /**
+     * Checks whether a token has been revoked. Only tokens that hit the
+     * in-memory revocation filter are looked up in the session store.
+     *
+     * @param token The JWT to check
+     * @return true if the token was revoked
+     */
+    public boolean isRevoked(String token) {
+        return isRevoked(TokenDigest.of(token));
+    }
+
+    public boolean isRevoked(TokenDigest digest) {
+        if (!tokenRevocationFilter.mightBeRevoked(digest)) {
+            return false;
+        }
+        return sessionStore.isRevoked(digest);
+    }
+
+    /**
+     * Seeds the revocation filter with every revocation still live in the
+     * session store, so a restarted node does not accept tokens revoked
+     * while it was down.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadRevocations() {
+        AtomicInteger loaded = new AtomicInteger();
+        try {
+            sessionStore.forEachRevoked(digest -> {
+                tokenRevocationFilter.add(digest);
+                loaded.incrementAndGet();
+            });
+            logger.info("Loaded {} token revocations", loaded.get());
+        } catch (Exception e) {
+            logger.error("Could not load token revocations after {} entries", loaded.get(), e);
+        }
+    }
+
+    /**
+     * Not available with generations: tokens are not stored, and a user's
+     * generation record outlives the user's sessions, so there is nothing
+     * that lists the sessions still active.
+     *
+     * @param cursor The cursor returned by the previous page, or "0" to start
+     * @param count  The approximate number of sessions to return
+     * @return The page of sessions and the cursor of the next page ("0" when done)
+     * @throws IllegalStateException in {@link SessionMode#GENERATION} mode
+     */
+    public SessionPage listSessions(String cursor, int count) {
+        if (usesGenerations()) {
+            throw new IllegalStateException("Sessions cannot be listed in GENERATION session mode, "
+                    + "since tokens are not stored individually");
+        }
+        return sessionStore.list(cursor, count);
+    }
+
+    /**
+     * Removes a token from this node's near-cache.
+     *
+     * @param digest The digest of the revoked token
+     */
+    public void evictLocal(TokenDigest digest) {
+        revocations.incrementAndGet();
+        validTokens.invalidate(digest);
+        logger.debug("Evicted revoked token {} from near-cache", digest);
+    }
+
+    /**
+     * Removes a user's session generation from this node's near-cache.
+     *
+     * @param username The user whose generation was advanced
+     */
+    public void evictGeneration(String username) {
+        revocations.incrementAndGet();
+        generations.invalidate(username);
+        logger.debug("Evicted session generation of {} from near-cache", username);
+    }
+
+    /**
+     * Extends the TTL of many sessions in a single store call.
+     *
+     * @param usernamesByToken The username that owns each token
+     */
+    public void extendSessions(Map<String, String> usernamesByToken) {
+        sessionStore.extend(usernamesByToken);
+    }
+}
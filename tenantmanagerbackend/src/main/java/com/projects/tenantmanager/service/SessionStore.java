@@ -0,0 +1,103 @@
+package com.projects.tenantmanager.service;
+
+import com.projects.tenantmanager.dto.SessionPage;
+import com.projects.tenantmanager.security.TokenDigest;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * Storage backend for active sessions and token revocations. Selected with
+ * the {@code session.store} property: {@code redis} (default) shares
+ * sessions across nodes, {@code embedded} keeps them in a local
+ * memory-mapped file for single-node deployments.
+ * <p>
+ * Sessions are tracked either per token (allowlist) or per user as a
+ * generation number carried in each token; see {@code SessionMode}.
+ */
+public interface SessionStore {
+
+    long SESSION_TTL_HOURS = 10;
+    long SESSION_TTL_SECONDS = TimeUnit.HOURS.toSeconds(SESSION_TTL_HOURS);
+
+    /**
+     * Stores the session of a user and the mapping from its token back to
+     * the user, both with the session TTL.
+     */
+    void store(String username, String token);
+
+    boolean contains(String token);
+
+    /**
+     * @return The owner of the token, or null if the session does not exist
+     */
+    String getUsername(String token);
+
+    /**
+     * Deletes the session of a user and its token mapping atomically.
+     *
+     * @return The digest of the removed token, or null if the user had no session
+     */
+    TokenDigest remove(String username);
+
+    /**
+     * Deletes the sessions of many users.
+     *
+     * @return The digests of the removed tokens
+     */
+    List<TokenDigest> removeAll(List<String> usernames);
+
+    /**
+     * Resets the TTL of many sessions.
+     *
+     * @param usernamesByToken The username that owns each token
+     */
+    void extend(Map<String, String> usernamesByToken);
+
+    /**
+     * Lists active sessions page by page.
+     *
+     * @param cursor The cursor returned by the previous page, or "0" to start
+     * @param count  The approximate number of sessions to return
+     * @return The page of sessions and the cursor of the next page ("0" when done)
+     */
+    SessionPage list(String cursor, int count);
+
+    /**
+     * Records revoked tokens for the token lifetime, so until they would
+     * have expired, and makes the revocations visible to every node
+     * sharing the store.
+     */
+    void revoke(List<TokenDigest> digests);
+
+    boolean isRevoked(TokenDigest digest);
+
+    /**
+     * Visits every revocation that has not expired yet.
+     */
+    void forEachRevoked(Consumer<TokenDigest> action);
+
+    /**
+     * Returns the session generation of a user, and keeps it alive for at
+     * least the token lifetime so it outlives every token issued with it.
+     * A new generation starts at the current time in millis, so a user's
+     * generations never repeat even when a record is lost.
+     */
+    long acquireGeneration(String username);
+
+    /**
+     * @return The session generation of a user, or null if there is none
+     */
+    Long getGeneration(String username);
+
+    /**
+     * Advances the session generation of the users that have one, ending
+     * all their sessions, keeps it alive for the token lifetime, and makes
+     * the change visible to every node sharing the store.
+     *
+     * @return The users whose generation was advanced
+     */
+    List<String> advanceGenerations(List<String> usernames);
+}
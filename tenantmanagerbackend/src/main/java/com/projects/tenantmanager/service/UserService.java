@@ -3,11 +3,12 @@ package com.projects.tenantmanager.service;
 import com.projects.tenantmanager.model.User;
 import com.projects.tenantmanager.repository.UserRepository;
 import com.projects.tenantmanager.security.JwtUtil;
+import com.projects.tenantmanager.security.PasswordVerifier;
 import com.projects.tenantmanager.dto.AuthResponse;
 import com.projects.tenantmanager.dto.UserDto;
+import com.projects.tenantmanager.exception.ServiceBusyException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.authentication.BadCredentialsException;
 import org.springframework.stereotype.Service;
 
@@ -16,16 +17,16 @@ public class UserService {
     private static final Logger logger = LoggerFactory.getLogger(UserService.class);
 
     private final UserRepository userRepository;
-    private final PasswordEncoder passwordEncoder;
+    private final PasswordVerifier passwordVerifier;
     private final JwtUtil jwtUtil;
-    private final RedisSessionService redisSessionService;
+    private final SessionService sessionService;
 
-    public UserService(UserRepository userRepository, PasswordEncoder passwordEncoder, JwtUtil jwtUtil,
-            RedisSessionService redisSessionService) {
+    public UserService(UserRepository userRepository, PasswordVerifier passwordVerifier, JwtUtil jwtUtil,
+            SessionService sessionService) {
         this.userRepository = userRepository;
-        this.passwordEncoder = passwordEncoder;
+        this.passwordVerifier = passwordVerifier;
         this.jwtUtil = jwtUtil;
-        this.redisSessionService = redisSessionService;
+        this.sessionService = sessionService;
     }
 
     /**
@@ -35,6 +36,7 @@ public class UserService {
      * @param password The raw password to verify
      * @return AuthResponse containing JWT token and user details
      * @throws BadCredentialsException if authentication fails
+     * @throws ServiceBusyException    if password verification is saturated
      */
     public AuthResponse authenticate(String username, String password) {
         logger.debug("Attempting to authenticate user: {}", username);
@@ -44,13 +46,20 @@ public class UserService {
                     logger.error("User not found: {}", username);
                     return new BadCredentialsException("Invalid credentials");
                 });
-        if (!passwordEncoder.matches(password, user.getPassword())) {
+        if (!passwordVerifier.matches(password, user.getPassword())) {
             logger.error("Invalid password for user: {}", username);
             throw new BadCredentialsException("Invalid credentials");
         }
 
         // Generate JWT token
-        String token = jwtUtil.generateToken(user.getUsername(), user.getRole().name());
+        String token;
+        if (sessionService.usesGenerations()) {
+            long generation = sessionService.acquireGeneration(user.getUsername());
+            token = jwtUtil.generateToken(user.getUsername(), user.getRole().name(), generation);
+        } else {
+            token = jwtUtil.generateToken(user.getUsername(), user.getRole().name());
+            sessionService.storeUserSession(user.getUsername(), token);
+        }
 
         logger.info("User authenticated successfully: {}", username);
 
@@ -61,13 +70,13 @@ public class UserService {
     }
 
     /**
-     * Logs out a user by invalidating their session in Redis
+     * Logs out a user by invalidating their session
      * 
      * @param username The username to log out
      */
     public void logout(String username) {
         logger.debug("Logging out user: {}", username);
-        redisSessionService.invalidateSession(username);
+        sessionService.invalidateSession(username);
         logger.info("User logged out successfully: {}", username);
     }
 }
\ No newline at end of file
@@ -0,0 +1,2 @@
+-- Change feed order of maintenance requests, see MaintenanceRequest.changeSeq
+CREATE SEQUENCE IF NOT EXISTS maintenance_request_change_seq;
@@ -0,0 +1,156 @@
+package com.projects.tenantmanager.benchmark;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import com.projects.tenantmanager.config.WebSecurityConfig;
+import com.projects.tenantmanager.security.JwtAuthenticationFilter;
+import com.projects.tenantmanager.security.JwtUtil;
+import com.projects.tenantmanager.security.SessionMode;
+import com.projects.tenantmanager.security.TokenRevocationFilter;
+import com.projects.tenantmanager.service.EmbeddedSessionStore;
+import com.projects.tenantmanager.service.SessionExtender;
+import com.projects.tenantmanager.service.SessionService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.FilterChain;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.results.Result;
+import org.openjdk.jmh.results.RunResult;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.slf4j.LoggerFactory;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.filter.CorsFilter;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collection;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Measures heap allocation per request of the CORS and JWT filters for an
+ * authenticated GET, and fails if a same-origin request exceeds
+ * {@link #ALLOCATION_BUDGET_BYTES}. Cross-origin requests are measured too
+ * but not held to the budget: Spring's DefaultCorsProcessor parses the
+ * Origin header and copies the allowed methods and headers on each of them,
+ * about 3.5 KB more per request. Run with {@code mvn test -Pbenchmark}.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 2, time = 1)
+@Measurement(iterations = 3, time = 1)
+@Fork(1)
+public class SecurityFilterBenchmark {
+
+    static final double ALLOCATION_BUDGET_BYTES = 2048;
+
+    private static final String SECRET = "benchmarkSecretKey123!@#$%^&*()_+benchmarkSecretKey123!@#$%^&*()_+";
+
+    private Path file;
+    private EmbeddedSessionStore sessionStore;
+    private MockHttpServletRequest request;
+    private MockHttpServletRequest crossOriginRequest;
+    private MockHttpServletResponse response;
+    private FilterChain chain;
+
+    @Setup
+    public void setUp() throws IOException {
+        // logback.xml logs at DEBUG; match the INFO level applied at runtime by application.properties
+        ((Logger) LoggerFactory.getLogger("com.projects.tenantmanager")).setLevel(Level.INFO);
+        ((Logger) LoggerFactory.getLogger("org.springframework.security")).setLevel(Level.INFO);
+
+        JwtUtil jwtUtil = new JwtUtil();
+        ReflectionTestUtils.setField(jwtUtil, "jwtSecret", SECRET);
+        ReflectionTestUtils.setField(jwtUtil, "claimsCacheMaxSize", 1000L);
+        ReflectionTestUtils.invokeMethod(jwtUtil, "init");
+
+        file = Files.createTempFile("sessions", ".db");
+        sessionStore = new EmbeddedSessionStore(file.toString(), 1024, TimeUnit.HOURS.toMillis(24));
+        SessionService sessionService = new SessionService(sessionStore,
+                new TokenRevocationFilter(TimeUnit.HOURS.toMillis(24), 0, 1000, 0.001), SessionMode.ALLOWLIST, 1000, 30);
+        SessionExtender sessionExtender = new SessionExtender(sessionService, new SimpleMeterRegistry(), 60, 500);
+        JwtAuthenticationFilter jwtFilter = new JwtAuthenticationFilter(jwtUtil, sessionService, sessionExtender,
+                SessionMode.ALLOWLIST);
+        CorsFilter corsFilter = ReflectionTestUtils.invokeMethod(new WebSecurityConfig(jwtFilter), "corsFilter");
+
+        String token = jwtUtil.generateToken("tenant1", "TENANT");
+        sessionService.storeUserSession("tenant1", token);
+
+        // Without an Origin header the CORS filter passes the request straight on
+        request = new MockHttpServletRequest("GET", "/api/maintenance/requests");
+        request.addHeader("Authorization", "Bearer " + token);
+        crossOriginRequest = new MockHttpServletRequest("GET", "/api/maintenance/requests");
+        crossOriginRequest.addHeader("Authorization", "Bearer " + token);
+        crossOriginRequest.addHeader("Origin", "http://localhost:3000");
+        response = new MockHttpServletResponse();
+
+        FilterChain endOfChain = (req, res) -> {
+        };
+        FilterChain afterCors = (req, res) -> jwtFilter.doFilter(req, res, endOfChain);
+        chain = (req, res) -> corsFilter.doFilter(req, res, afterCors);
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        sessionStore.destroy();
+        Files.deleteIfExists(file);
+    }
+
+    @Benchmark
+    public Authentication authenticatedGet() throws Exception {
+        return filter(request);
+    }
+
+    @Benchmark
+    public Authentication crossOriginAuthenticatedGet() throws Exception {
+        return filter(crossOriginRequest);
+    }
+
+    private Authentication filter(MockHttpServletRequest request) throws Exception {
+        response.reset();
+        chain.doFilter(request, response);
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        SecurityContextHolder.clearContext();
+        return authentication;
+    }
+
+    @Test
+    @Tag("benchmark")
+    void run() throws RunnerException {
+        Collection<RunResult> results = new Runner(new OptionsBuilder()
+                .include(SecurityFilterBenchmark.class.getName() + "\\.")
+                .addProfiler(GCProfiler.class)
+                .build())
+                .run();
+
+        for (RunResult result : results) {
+            if (!result.getParams().getBenchmark().endsWith(".authenticatedGet")) {
+                continue;
+            }
+            Result<?> allocation = result.getSecondaryResults().get("gc.alloc.rate.norm");
+            assertTrue(allocation.getScore() <= ALLOCATION_BUDGET_BYTES,
+                    "Allocated " + allocation.getScore() + " bytes per request, budget is " + ALLOCATION_BUDGET_BYTES);
+        }
+    }
+}
@@ -0,0 +1,133 @@
+package com.projects.tenantmanager.benchmark;
+
+import com.projects.tenantmanager.service.EmbeddedSessionStore;
+import com.projects.tenantmanager.service.RedisSessionStore;
+import com.projects.tenantmanager.service.SessionStore;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.serializer.GenericJackson2JsonRedisSerializer;
+import org.springframework.data.redis.serializer.StringRedisSerializer;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares session lookup latency of the embedded store against Redis.
+ * Run with {@code mvn test -Pbenchmark}; Redis is only measured when it is
+ * reachable on {@code benchmark.redis.host} (default localhost:6379).
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 2, time = 1)
+@Measurement(iterations = 3, time = 1)
+@Fork(1)
+public class SessionStoreBenchmark {
+
+    private static final int SESSIONS = 8192;
+    private static final String REDIS_HOST = System.getProperty("benchmark.redis.host", "localhost");
+    private static final int REDIS_PORT = 6379;
+
+    @Param({ "embedded", "redis" })
+    public String store;
+
+    private SessionStore sessionStore;
+    private LettuceConnectionFactory connectionFactory;
+    private Path file;
+    private String[] usernames;
+    private String[] tokens;
+    private int next;
+
+    @Setup
+    public void setUp() throws IOException {
+        if ("redis".equals(store)) {
+            connectionFactory = new LettuceConnectionFactory(REDIS_HOST, REDIS_PORT);
+            connectionFactory.afterPropertiesSet();
+            connectionFactory.start();
+
+            RedisTemplate<String, Object> template = new RedisTemplate<>();
+            template.setConnectionFactory(connectionFactory);
+            template.setKeySerializer(new StringRedisSerializer());
+            template.setValueSerializer(new GenericJackson2JsonRedisSerializer());
+            template.afterPropertiesSet();
+            sessionStore = new RedisSessionStore(template, TimeUnit.HOURS.toMillis(24));
+        } else {
+            file = Files.createTempFile("sessions", ".db");
+            sessionStore = new EmbeddedSessionStore(file.toString(), SESSIONS * 2, TimeUnit.HOURS.toMillis(24));
+        }
+
+        // Tokens about as long as the JWTs issued by JwtUtil
+        String padding = "x".repeat(160);
+        usernames = new String[SESSIONS];
+        tokens = new String[SESSIONS];
+        for (int i = 0; i < SESSIONS; i++) {
+            usernames[i] = "benchmark-user-" + i;
+            tokens[i] = padding + i;
+            sessionStore.store(usernames[i], tokens[i]);
+        }
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        sessionStore.removeAll(Arrays.asList(usernames));
+        if (connectionFactory != null) {
+            connectionFactory.destroy();
+        }
+        if (sessionStore instanceof EmbeddedSessionStore embedded) {
+            embedded.destroy();
+            Files.deleteIfExists(file);
+        }
+    }
+
+    @Benchmark
+    public boolean contains() {
+        return sessionStore.contains(tokens[next++ & (SESSIONS - 1)]);
+    }
+
+    @Benchmark
+    public String getUsername() {
+        return sessionStore.getUsername(tokens[next++ & (SESSIONS - 1)]);
+    }
+
+    @Test
+    @Tag("benchmark")
+    void run() throws RunnerException {
+        String[] stores = isRedisReachable() ? new String[] { "embedded", "redis" } : new String[] { "embedded" };
+        new Runner(new OptionsBuilder()
+                .include(SessionStoreBenchmark.class.getName() + "\\.")
+                .param("store", stores)
+                .build())
+                .run();
+    }
+
+    private static boolean isRedisReachable() {
+        try (Socket socket = new Socket()) {
+            socket.connect(new InetSocketAddress(REDIS_HOST, REDIS_PORT), 500);
+            return true;
+        } catch (IOException e) {
+            return false;
+        }
+    }
+}
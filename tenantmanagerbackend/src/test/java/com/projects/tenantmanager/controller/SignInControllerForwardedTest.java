@@ -0,0 +1,124 @@
+package com.projects.tenantmanager.controller;
+
+import com.projects.tenantmanager.security.JwtUtil;
+import com.projects.tenantmanager.security.LoginAttemptLimiter;
+import com.projects.tenantmanager.service.UserService;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.http.HttpMessageConvertersAutoConfiguration;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.boot.autoconfigure.web.embedded.EmbeddedWebServerFactoryCustomizerAutoConfiguration;
+import org.springframework.boot.autoconfigure.web.servlet.DispatcherServletAutoConfiguration;
+import org.springframework.boot.autoconfigure.web.servlet.ServletWebServerFactoryAutoConfiguration;
+import org.springframework.boot.autoconfigure.web.servlet.WebMvcAutoConfiguration;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Import;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.security.authentication.BadCredentialsException;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+/**
+ * Sign-in through a proxy, on a real Tomcat with the application's forwarded
+ * header settings: the test client connects from loopback, a trusted proxy
+ * address, like the bundled nginx does from the container network.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        classes = SignInControllerForwardedTest.WebConfig.class,
+        properties = "auth.login-limit.max-failures-per-ip=2")
+class SignInControllerForwardedTest {
+
+    @Configuration
+    @ImportAutoConfiguration({ ServletWebServerFactoryAutoConfiguration.class,
+            EmbeddedWebServerFactoryCustomizerAutoConfiguration.class,
+            DispatcherServletAutoConfiguration.class, WebMvcAutoConfiguration.class,
+            HttpMessageConvertersAutoConfiguration.class, JacksonAutoConfiguration.class })
+    @Import({ SignInController.class, LoginAttemptLimiter.class })
+    static class WebConfig {
+        @Bean
+        MeterRegistry meterRegistry() {
+            return new SimpleMeterRegistry();
+        }
+    }
+
+    @MockitoBean
+    private UserService userService;
+
+    @MockitoBean
+    private JwtUtil jwtUtil;
+
+    @LocalServerPort
+    private int port;
+
+    private final HttpClient client = HttpClient.newHttpClient();
+
+    private int attempt;
+
+    @BeforeEach
+    void setUp() {
+        when(userService.authenticate(anyString(), anyString())).thenThrow(new BadCredentialsException("Invalid credentials"));
+    }
+
+    /**
+     * A failed sign-in as a new user each time, so that only the address
+     * budget applies.
+     */
+    private int signIn(String forwardedFor) throws Exception {
+        HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/api/auth/signin"))
+                .header("Content-Type", "application/json")
+                .header("X-Forwarded-For", forwardedFor)
+                .POST(HttpRequest.BodyPublishers.ofString(
+                        "{\"username\":\"user" + attempt++ + "\",\"password\":\"wrong\"}"))
+                .build();
+        return client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+    }
+
+    @Test
+    void signIn_ForwardedClientsGetSeparateFailureBudgets() throws Exception {
+        // Arrange: the first client spends its budget
+        assertNotEquals(429, signIn("203.0.113.1"));
+        assertNotEquals(429, signIn("203.0.113.1"));
+
+        // Act
+        int first = signIn("203.0.113.1");
+        int second = signIn("198.51.100.7");
+
+        // Assert
+        assertEquals(429, first);
+        assertNotEquals(429, second);
+        verify(userService, times(3)).authenticate(anyString(), anyString());
+    }
+
+    @Test
+    void signIn_ServerErrorsDoNotSpendTheFailureBudget() throws Exception {
+        // Arrange
+        reset(userService);
+        when(userService.authenticate(anyString(), anyString()))
+                .thenThrow(new DataAccessResourceFailureException("Database down"));
+
+        // Act
+        int first = signIn("192.0.2.10");
+        int second = signIn("192.0.2.10");
+        int third = signIn("192.0.2.10");
+
+        // Assert
+        assertEquals(500, first);
+        assertEquals(500, second);
+        assertEquals(500, third);
+        verify(userService, times(3)).authenticate(anyString(), anyString());
+    }
+}
@@ -1,5 +1,6 @@
 package com.projects.tenantmanager.repository;
 
+import com.projects.tenantmanager.dto.MaintenanceRequestCursor;
 import com.projects.tenantmanager.model.MaintenanceRequest;
 import com.projects.tenantmanager.model.MaintenanceRequest.Department;
 import com.projects.tenantmanager.model.MaintenanceRequest.Status;
@@ -8,9 +9,16 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
 import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
 
+import java.time.Instant;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.UUID;
 
+import static com.projects.tenantmanager.repository.MaintenanceRequestSpecifications.*;
 import static org.junit.jupiter.api.Assertions.*;
 
 @DataJpaTest
@@ -144,4 +152,176 @@ class MaintenanceRequestRepositoryTest {
         assertEquals(Department.CARPENTRY, saved.getDepartment());
         assertFalse(saved.isApproved());
     }
+
+    @Test
+    void keysetPages_CoverAllMatchingRequestsInOrder() {
+        // Arrange
+        for (int i = 0; i < 7; i++) {
+            MaintenanceRequest request = new MaintenanceRequest();
+            request.setTenantName("tenant" + i);
+            request.setUnitNumber("10" + i);
+            request.setDescription("Fix leak " + i);
+            request.setDepartment(i % 2 == 0 ? Department.PLUMBING : Department.HVAC);
+            request.setStatus(Status.OPEN);
+            entityManager.persist(request);
+        }
+        entityManager.flush();
+        entityManager.clear();
+
+        // Act
+        List<MaintenanceRequest> seen = new ArrayList<>();
+        MaintenanceRequestCursor cursor = null;
+        List<MaintenanceRequest> page;
+        do {
+            Specification<MaintenanceRequest> filter = Specification.allOf(hasStatus(Status.OPEN),
+                    hasDepartment(Department.PLUMBING), after(cursor, Sort.Direction.DESC));
+            page = maintenanceRequestRepository.findBy(filter,
+                    query -> query.sortBy(keysetOrder(Sort.Direction.DESC)).limit(3).all());
+            seen.addAll(page);
+            if (!page.isEmpty()) {
+                MaintenanceRequest last = page.get(page.size() - 1);
+                cursor = new MaintenanceRequestCursor(last.getCreatedAt(), last.getId());
+            }
+        } while (page.size() == 3);
+
+        // Assert
+        assertEquals(4, seen.size());
+        assertEquals(4, seen.stream().map(MaintenanceRequest::getId).distinct().count());
+        assertTrue(seen.stream().allMatch(r -> r.getDepartment() == Department.PLUMBING));
+        for (int i = 1; i < seen.size(); i++) {
+            assertFalse(seen.get(i).getCreatedAt().isAfter(seen.get(i - 1).getCreatedAt()));
+        }
+    }
+
+    @Test
+    void createdBetween_ExcludesRequestsOutsideRange() {
+        // Arrange
+        MaintenanceRequest request = new MaintenanceRequest();
+        request.setTenantName("tenant1");
+        request.setUnitNumber("101");
+        request.setDescription("Fix leak");
+        request.setDepartment(Department.PLUMBING);
+        entityManager.persist(request);
+        entityManager.flush();
+        Instant createdAt = request.getCreatedAt();
+
+        // Act
+        List<MaintenanceRequest> inRange = maintenanceRequestRepository.findAll(
+                createdBetween(createdAt.minusSeconds(1), createdAt.plusSeconds(1)));
+        List<MaintenanceRequest> before = maintenanceRequestRepository.findAll(
+                createdBetween(null, createdAt.minusSeconds(1)));
+
+        // Assert
+        assertEquals(1, inRange.size());
+        assertTrue(before.isEmpty());
+    }
+
+    @Test
+    void cursor_RoundTripsThroughEncodedForm() {
+        // Arrange
+        MaintenanceRequestCursor cursor = new MaintenanceRequestCursor(Instant.now(), UUID.randomUUID());
+
+        // Act & Assert
+        assertEquals(cursor, MaintenanceRequestCursor.decode(cursor.encode()));
+        assertThrows(IllegalArgumentException.class, () -> MaintenanceRequestCursor.decode("not-a-cursor"));
+    }
+
+    @Test
+    void countByStatusAndDepartment_GroupsRequests() {
+        // Arrange
+        for (Department department : List.of(Department.PLUMBING, Department.PLUMBING, Department.HVAC)) {
+            MaintenanceRequest request = new MaintenanceRequest();
+            request.setTenantName("tenant1");
+            request.setUnitNumber("101");
+            request.setDescription("Fix " + department);
+            request.setDepartment(department);
+            request.setStatus(Status.OPEN);
+            entityManager.persist(request);
+        }
+        entityManager.flush();
+
+        // Act
+        List<MaintenanceRequestCount> counts = maintenanceRequestRepository.countByStatusAndDepartment();
+
+        // Assert
+        assertEquals(2, counts.size());
+        MaintenanceRequestCount plumbing = counts.stream()
+                .filter(count -> count.getDepartment() == Department.PLUMBING)
+                .findFirst().orElseThrow();
+        assertEquals(Status.OPEN, plumbing.getStatus());
+        assertEquals(2L, plumbing.getCount());
+    }
+
+    @Test
+    void updateStatusAndApproval_UpdatesOnlyListedRequests() {
+        // Arrange
+        MaintenanceRequest listed = new MaintenanceRequest();
+        listed.setTenantName("tenant1");
+        listed.setUnitNumber("101");
+        listed.setDescription("Fix leak");
+        listed.setDepartment(Department.PLUMBING);
+        listed.setStatus(Status.OPEN);
+        entityManager.persist(listed);
+
+        MaintenanceRequest other = new MaintenanceRequest();
+        other.setTenantName("tenant2");
+        other.setUnitNumber("102");
+        other.setDescription("Fix lights");
+        other.setDepartment(Department.ELECTRICAL);
+        other.setStatus(Status.OPEN);
+        entityManager.persist(other);
+        entityManager.flush();
+
+        // Act
+        int touched = maintenanceRequestRepository.touchByIdIn(List.of(listed.getId(), UUID.randomUUID()),
+                Instant.now());
+        List<MaintenanceRequestKey> keys = maintenanceRequestRepository.findKeysByIdIn(
+                List.of(listed.getId(), UUID.randomUUID()));
+        int updated = maintenanceRequestRepository.updateStatusAndApproval(List.of(listed.getId()),
+                Status.IN_PROGRESS, true, Instant.now());
+
+        // Assert
+        assertEquals(1, touched);
+        assertEquals(1, keys.size());
+        assertEquals(Status.OPEN, keys.get(0).getStatus());
+        assertEquals(1, updated);
+        MaintenanceRequest reloaded = maintenanceRequestRepository.findById(listed.getId()).orElseThrow();
+        assertEquals(Status.IN_PROGRESS, reloaded.getStatus());
+        assertTrue(reloaded.isApproved());
+        assertEquals(Status.OPEN, maintenanceRequestRepository.findById(other.getId()).orElseThrow().getStatus());
+    }
+
+    @Test
+    void findChangedAfter_OrdersRequestsByLastChange() {
+        // Arrange
+        List<UUID> ids = new ArrayList<>();
+        for (String unit : List.of("101", "102", "103")) {
+            MaintenanceRequest request = new MaintenanceRequest();
+            request.setTenantName("tenant1");
+            request.setUnitNumber(unit);
+            request.setDescription("Fix leak");
+            request.setDepartment(Department.PLUMBING);
+            request.setStatus(Status.OPEN);
+            entityManager.persist(request);
+            ids.add(request.getId());
+        }
+        entityManager.flush();
+        entityManager.clear();
+
+        // Act
+        MaintenanceRequest first = maintenanceRequestRepository.findById(ids.get(0)).orElseThrow();
+        long created = first.getChangeSeq();
+        first.setStatus(Status.RESOLVED);
+        entityManager.flush();
+        maintenanceRequestRepository.updateStatus(List.of(ids.get(1)), Status.REJECTED, Instant.now());
+        List<MaintenanceRequest> changes = maintenanceRequestRepository.findChangedAfter(0, Limit.of(10));
+
+        // Assert
+        assertTrue(first.getChangeSeq() > created);
+        assertEquals(List.of(ids.get(2), ids.get(0), ids.get(1)), changes.stream().map(MaintenanceRequest::getId).toList());
+        assertEquals(List.of(ids.get(1)), maintenanceRequestRepository.findChangedAfter(first.getChangeSeq(),
+                Limit.of(10)).stream().map(MaintenanceRequest::getId).toList());
+        assertEquals(changes.get(0).getChangeSeq(),
+                maintenanceRequestRepository.findFirstChangeSeqUpdatedSince(Instant.EPOCH));
+    }
 }
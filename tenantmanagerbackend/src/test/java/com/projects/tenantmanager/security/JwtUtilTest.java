@@ -0,0 +1,99 @@
+package com.projects.tenantmanager.security;
+
+import io.jsonwebtoken.ExpiredJwtException;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.SignatureAlgorithm;
+import io.jsonwebtoken.security.Keys;
+import io.jsonwebtoken.security.SignatureException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Date;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class JwtUtilTest {
+
+    private static final String SECRET = "testSecretKey123!@#$%^&*()_+testSecretKey123!@#$%^&*()_+";
+
+    private JwtUtil jwtUtil;
+
+    @BeforeEach
+    void setUp() {
+        jwtUtil = new JwtUtil();
+        ReflectionTestUtils.setField(jwtUtil, "jwtSecret", SECRET);
+        ReflectionTestUtils.setField(jwtUtil, "claimsCacheMaxSize", 100L);
+        jwtUtil.init();
+    }
+
+    @Test
+    void parseToken_ReturnsPrincipal() {
+        // Arrange
+        String token = jwtUtil.generateToken("tenant1", "TENANT");
+
+        // Act
+        JwtPrincipal principal = jwtUtil.parseToken(token);
+
+        // Assert
+        assertEquals("tenant1", principal.username());
+        assertEquals("ROLE_TENANT", principal.role());
+        assertTrue(principal.expiresAt().isAfter(new Date().toInstant()));
+    }
+
+    @Test
+    void parseToken_RepeatedCallsReturnCachedPrincipal() {
+        // Arrange
+        String token = jwtUtil.generateToken("admin", "ADMIN");
+
+        // Act
+        JwtPrincipal first = jwtUtil.parseToken(token);
+        JwtPrincipal second = jwtUtil.parseToken(token);
+
+        // Assert
+        assertSame(first, second);
+        assertEquals("admin", jwtUtil.extractUsername(token));
+        assertEquals("ROLE_ADMIN", jwtUtil.extractRole(token));
+    }
+
+    @Test
+    void parseToken_TamperedSignature_ThrowsException() {
+        // Arrange
+        String token = Jwts.builder()
+                .setSubject("tenant1")
+                .claim("role", "ROLE_ADMIN")
+                .setExpiration(new Date(System.currentTimeMillis() + 60_000))
+                .signWith(Keys.hmacShaKeyFor("anotherSecretKey123!@#$%^&*()_+anotherSecretKey123!@#$".getBytes()),
+                        SignatureAlgorithm.HS256)
+                .compact();
+
+        // Act & Assert
+        assertThrows(SignatureException.class, () -> jwtUtil.parseToken(token));
+    }
+
+    @Test
+    void parseToken_ExpiredToken_ThrowsException() {
+        // Arrange
+        String token = Jwts.builder()
+                .setSubject("tenant1")
+                .claim("role", "ROLE_TENANT")
+                .setExpiration(new Date(System.currentTimeMillis() - 1_000))
+                .signWith(Keys.hmacShaKeyFor(SECRET.getBytes()), SignatureAlgorithm.HS256)
+                .compact();
+
+        // Act & Assert
+        assertThrows(ExpiredJwtException.class, () -> jwtUtil.parseToken(token));
+        assertFalse(jwtUtil.validateToken(token));
+    }
+
+    @Test
+    void parseToken_GenerationClaimRoundTrips() {
+        // Arrange
+        String token = jwtUtil.generateToken("tenant1", "TENANT", 7L);
+        String legacy = jwtUtil.generateToken("tenant2", "TENANT");
+
+        // Act & Assert
+        assertEquals(7L, jwtUtil.parseToken(token).generation());
+        assertNull(jwtUtil.parseToken(legacy).generation());
+    }
+}
@@ -0,0 +1,83 @@
+package com.projects.tenantmanager.security;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LoginAttemptLimiterTest {
+
+    private final AtomicLong clock = new AtomicLong(TimeUnit.SECONDS.toNanos(6000));
+    private MeterRegistry meterRegistry;
+    private LoginAttemptLimiter limiter;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        limiter = new LoginAttemptLimiter(meterRegistry, 3, 5, 60, 1024, clock::get);
+    }
+
+    @Test
+    void tryAcquire_UserOverBudget_Rejected() {
+        // Arrange
+        for (int i = 0; i < 3; i++) {
+            limiter.recordFailure("tenant1", "10.0.0.1");
+        }
+
+        // Act & Assert
+        assertFalse(limiter.tryAcquire("tenant1", "10.0.0.2"));
+        assertTrue(limiter.tryAcquire("tenant2", "10.0.0.2"));
+        assertEquals(1, meterRegistry.get("auth.login.throttled").tag("key", "username").counter().count());
+    }
+
+    @Test
+    void tryAcquire_IpOverBudget_RejectedForAnyUsername() {
+        // Arrange
+        for (int i = 0; i < 5; i++) {
+            limiter.recordFailure("user" + i, "10.0.0.1");
+        }
+
+        // Act & Assert
+        assertFalse(limiter.tryAcquire("someone-else", "10.0.0.1"));
+        assertTrue(limiter.tryAcquire("someone-else", "10.0.0.2"));
+        assertEquals(1, meterRegistry.get("auth.login.throttled").tag("key", "ip").counter().count());
+    }
+
+    @Test
+    void tryAcquire_FailuresAgeOutOfSlidingWindow() {
+        // Arrange
+        for (int i = 0; i < 3; i++) {
+            limiter.recordFailure("tenant1", "10.0.0.1");
+        }
+
+        // Act & Assert: halfway through the next window the old failures still weigh in
+        clock.addAndGet(TimeUnit.SECONDS.toNanos(60));
+        assertFalse(limiter.tryAcquire("tenant1", "10.0.0.1"));
+        clock.addAndGet(TimeUnit.SECONDS.toNanos(30));
+        assertTrue(limiter.tryAcquire("tenant1", "10.0.0.1"));
+        clock.addAndGet(TimeUnit.SECONDS.toNanos(120));
+        assertTrue(limiter.tryAcquire("tenant1", "10.0.0.1"));
+    }
+
+    @Test
+    void recordFailure_ManyDistinctKeys_DoesNotBlockUnrelatedUsers() {
+        // Act: an attacker cycling through far more usernames than the sketch has cells
+        for (int i = 0; i < 2000; i++) {
+            limiter.recordFailure("victim" + i, "203.0.113." + (i % 250));
+        }
+
+        // Assert: collisions may over-count, but a fresh user is rarely pushed over budget
+        int rejected = 0;
+        for (int i = 0; i < 100; i++) {
+            if (!limiter.tryAcquire("legit" + i, "192.168.1.1")) {
+                rejected++;
+            }
+        }
+        assertTrue(rejected < 10, "Too many false positives: " + rejected);
+    }
+}
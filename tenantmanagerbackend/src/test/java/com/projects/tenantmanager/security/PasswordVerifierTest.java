@@ -0,0 +1,91 @@
+package com.projects.tenantmanager.security;
+
+import com.projects.tenantmanager.exception.ServiceBusyException;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+class PasswordVerifierTest {
+
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final PasswordEncoder passwordEncoder = mock(PasswordEncoder.class);
+    private PasswordVerifier passwordVerifier;
+
+    @AfterEach
+    void tearDown() {
+        passwordVerifier.destroy();
+    }
+
+    @Test
+    void matches_DelegatesToEncoderAndRecordsLatency() {
+        // Arrange
+        passwordVerifier = new PasswordVerifier(passwordEncoder, meterRegistry, 1, 4, 500, 2);
+        when(passwordEncoder.matches("password123", "encoded")).thenReturn(true);
+
+        // Act & Assert
+        assertTrue(passwordVerifier.matches("password123", "encoded"));
+        assertEquals(1, meterRegistry.get("auth.password.verification").timer().count());
+    }
+
+    @Test
+    void matches_QueueFull_ShedsWithServiceBusy() throws Exception {
+        // Arrange
+        passwordVerifier = new PasswordVerifier(passwordEncoder, meterRegistry, 1, 1, 5_000, 3);
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        when(passwordEncoder.matches(anyString(), anyString())).thenAnswer(invocation -> {
+            started.countDown();
+            release.await(5, TimeUnit.SECONDS);
+            return true;
+        });
+
+        // Occupy the only worker, then the only queue slot
+        CompletableFuture<Boolean> running = CompletableFuture.supplyAsync(() -> passwordVerifier.matches("a", "x"));
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+        CompletableFuture<Boolean> queued = CompletableFuture.supplyAsync(() -> passwordVerifier.matches("b", "x"));
+        while (meterRegistry.get("auth.password.queue.depth").gauge().value() < 1) {
+            Thread.onSpinWait();
+        }
+
+        // Act
+        ServiceBusyException exception = assertThrows(ServiceBusyException.class,
+                () -> passwordVerifier.matches("c", "x"));
+        release.countDown();
+
+        // Assert
+        assertEquals(3, exception.getRetryAfterSeconds());
+        assertTrue(running.get(5, TimeUnit.SECONDS));
+        assertTrue(queued.get(5, TimeUnit.SECONDS));
+        assertEquals(1, meterRegistry.get("auth.password.rejected").counter().count());
+    }
+
+    @Test
+    void matches_WaitedPastQueueTimeout_ShedsWithoutHashing() throws Exception {
+        // Arrange
+        passwordVerifier = new PasswordVerifier(passwordEncoder, meterRegistry, 1, 4, 50, 2);
+        CountDownLatch started = new CountDownLatch(1);
+        when(passwordEncoder.matches("slow", "x")).thenAnswer(invocation -> {
+            started.countDown();
+            Thread.sleep(200);
+            return true;
+        });
+
+        CompletableFuture<Boolean> running = CompletableFuture.supplyAsync(() -> passwordVerifier.matches("slow", "x"));
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+
+        // Act & Assert
+        assertThrows(ServiceBusyException.class, () -> passwordVerifier.matches("stale", "x"));
+        assertTrue(running.get(5, TimeUnit.SECONDS));
+        verify(passwordEncoder, never()).matches("stale", "x");
+    }
+}
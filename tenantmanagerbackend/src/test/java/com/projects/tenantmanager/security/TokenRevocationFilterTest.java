@@ -0,0 +1,62 @@
+package com.projects.tenantmanager.security;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TokenRevocationFilterTest {
+
+    private static final long EPOCH_MILLIS = 1_000;
+
+    private final AtomicLong clock = new AtomicLong(10 * EPOCH_MILLIS);
+    private final TokenRevocationFilter filter = new TokenRevocationFilter(EPOCH_MILLIS, 1_000, 0.001, clock::get);
+
+    @Test
+    void mightBeRevoked_RevokedToken_RememberedForNextEpoch() {
+        // Arrange
+        TokenDigest digest = TokenDigest.of("jwt-1");
+        filter.add(digest);
+
+        // Act & Assert
+        assertTrue(filter.mightBeRevoked(digest));
+        clock.addAndGet(EPOCH_MILLIS);
+        assertTrue(filter.mightBeRevoked(digest));
+        clock.addAndGet(EPOCH_MILLIS);
+        assertFalse(filter.mightBeRevoked(digest));
+    }
+
+    @Test
+    void mightBeRevoked_TokenRevokedAtEndOfEpoch_RejectedUntilItExpires() {
+        // Arrange: the default epoch is the token lifetime
+        long lifetime = TimeUnit.HOURS.toMillis(24);
+        AtomicLong now = new AtomicLong(lifetime * 100 - 1);
+        TokenRevocationFilter tokenFilter = new TokenRevocationFilter(lifetime, 1_000, 0.001, now::get);
+        TokenDigest digest = TokenDigest.of("jwt-1");
+        tokenFilter.add(digest);
+
+        // Act: just before the token's expiry, at most a lifetime later
+        now.addAndGet(lifetime - 1);
+
+        // Assert
+        assertTrue(tokenFilter.mightBeRevoked(digest));
+    }
+
+    @Test
+    void constructor_EpochShorterThanTokenLifetime_Fails() {
+        // Act & Assert
+        assertThrows(IllegalArgumentException.class,
+                () -> new TokenRevocationFilter(TimeUnit.HOURS.toMillis(24), 10, 1_000, 0.001));
+    }
+
+    @Test
+    void mightBeRevoked_UnknownToken_False() {
+        // Arrange
+        filter.add(TokenDigest.of("jwt-1"));
+
+        // Act & Assert
+        assertFalse(filter.mightBeRevoked(TokenDigest.of("jwt-2")));
+    }
+}
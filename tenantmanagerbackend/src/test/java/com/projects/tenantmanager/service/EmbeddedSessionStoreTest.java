@@ -0,0 +1,216 @@
+package com.projects.tenantmanager.service;
+
+import com.projects.tenantmanager.dto.ActiveSessionDto;
+import com.projects.tenantmanager.dto.SessionPage;
+import com.projects.tenantmanager.security.TokenDigest;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class EmbeddedSessionStoreTest {
+
+    @TempDir
+    Path dir;
+
+    private static final long TOKEN_LIFETIME_MILLIS = TimeUnit.HOURS.toMillis(24);
+
+    private final AtomicLong now = new AtomicLong(1_000_000L);
+    private EmbeddedSessionStore store;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        store = open(64);
+    }
+
+    private EmbeddedSessionStore open(int capacity) throws IOException {
+        return new EmbeddedSessionStore(dir.resolve("sessions.db"), capacity, TOKEN_LIFETIME_MILLIS, now::get);
+    }
+
+    @Test
+    void store_TokenResolvesToUsername() {
+        // Act
+        store.store("tenant1", "jwt-1");
+
+        // Assert
+        assertTrue(store.contains("jwt-1"));
+        assertEquals("tenant1", store.getUsername("jwt-1"));
+        assertFalse(store.contains("jwt-2"));
+        assertNull(store.getUsername("jwt-2"));
+    }
+
+    @Test
+    void remove_DeletesSessionAndToken() {
+        // Arrange
+        store.store("tenant1", "jwt-1");
+
+        // Act
+        TokenDigest digest = store.remove("tenant1");
+
+        // Assert
+        assertEquals(TokenDigest.of("jwt-1"), digest);
+        assertFalse(store.contains("jwt-1"));
+        assertNull(store.remove("tenant1"));
+    }
+
+    @Test
+    void sessions_ExpireAfterTtlUnlessExtended() {
+        // Arrange
+        store.store("tenant1", "jwt-1");
+        store.store("tenant2", "jwt-2");
+        now.addAndGet(TimeUnit.HOURS.toMillis(9));
+
+        // Act
+        store.extend(Map.of("jwt-1", "tenant1"));
+        now.addAndGet(TimeUnit.HOURS.toMillis(2));
+
+        // Assert
+        assertTrue(store.contains("jwt-1"));
+        assertFalse(store.contains("jwt-2"));
+    }
+
+    @Test
+    void sessions_SurviveReopen() throws IOException {
+        // Arrange
+        store.store("tenant1", "jwt-1");
+        store.revoke(List.of(TokenDigest.of("jwt-0")));
+        store.destroy();
+
+        // Act
+        EmbeddedSessionStore reopened = open(64);
+
+        // Assert
+        assertEquals("tenant1", reopened.getUsername("jwt-1"));
+        assertTrue(reopened.isRevoked(TokenDigest.of("jwt-0")));
+    }
+
+    @Test
+    void open_IncompatibleFile_StartsEmpty() throws IOException {
+        // Arrange
+        store.store("tenant1", "jwt-1");
+        store.destroy();
+
+        // Act
+        EmbeddedSessionStore reopened = open(128);
+
+        // Assert
+        assertFalse(reopened.contains("jwt-1"));
+    }
+
+    @Test
+    void store_ChurnBeyondCapacity_CompactsDeletedSlots() {
+        // Act
+        for (int i = 0; i < 1000; i++) {
+            store.store("tenant" + i, "jwt-" + i);
+            store.remove("tenant" + i);
+        }
+        store.store("tenant1", "jwt-1");
+
+        // Assert
+        assertTrue(store.contains("jwt-1"));
+        assertFalse(store.contains("jwt-999"));
+    }
+
+    @Test
+    void store_TooManyLiveSessions_ThrowsException() {
+        // Arrange
+        for (int i = 0; i < 48; i++) {
+            store.store("tenant" + i, "jwt-" + i);
+        }
+
+        // Act & Assert
+        assertThrows(IllegalStateException.class, () -> store.store("tenant48", "jwt-48"));
+    }
+
+    @Test
+    void list_PagesThroughAllSessions() {
+        // Arrange
+        for (int i = 0; i < 10; i++) {
+            store.store("tenant" + i, "jwt-" + i);
+        }
+
+        // Act
+        List<ActiveSessionDto> sessions = new ArrayList<>();
+        String cursor = "0";
+        do {
+            SessionPage page = store.list(cursor, 3);
+            sessions.addAll(page.getSessions());
+            cursor = page.getNextCursor();
+        } while (!cursor.equals("0"));
+
+        // Assert
+        assertEquals(10, sessions.size());
+        assertEquals(36000L, sessions.get(0).getExpiresInSeconds());
+    }
+
+    @Test
+    void forEachRevoked_SkipsExpiredRevocations() {
+        // Arrange
+        store.revoke(List.of(TokenDigest.of("jwt-1")));
+        now.addAndGet(TOKEN_LIFETIME_MILLIS);
+        store.revoke(List.of(TokenDigest.of("jwt-2")));
+
+        // Act
+        List<TokenDigest> revoked = new ArrayList<>();
+        store.forEachRevoked(revoked::add);
+
+        // Assert
+        assertEquals(List.of(TokenDigest.of("jwt-2")), revoked);
+    }
+
+    @Test
+    void isRevoked_RevocationOutlivesTheSessionTtlUntilTheTokenWouldExpire() {
+        // Arrange
+        store.revoke(List.of(TokenDigest.of("jwt-1")));
+
+        // Act & Assert
+        now.addAndGet(TOKEN_LIFETIME_MILLIS - 1);
+        assertTrue(store.isRevoked(TokenDigest.of("jwt-1")));
+        now.addAndGet(1);
+        assertFalse(store.isRevoked(TokenDigest.of("jwt-1")));
+    }
+
+    @Test
+    void generations_StartAtClockAndAdvanceOnlyExistingUsers() {
+        // Arrange
+        long first = store.acquireGeneration("tenant1");
+
+        // Act
+        List<String> advanced = store.advanceGenerations(List.of("tenant1", "tenant2"));
+
+        // Assert
+        assertEquals(now.get(), first);
+        assertEquals(List.of("tenant1"), advanced);
+        assertEquals(first + 1, store.getGeneration("tenant1"));
+        assertEquals(first + 1, store.acquireGeneration("tenant1"));
+        assertNull(store.getGeneration("tenant2"));
+    }
+
+    @Test
+    void generations_LogoutThenExpiryThenLogin_NeverReusesAGeneration() {
+        // Arrange: a token of the first generation, ended by a logout
+        long stolen = store.acquireGeneration("tenant1");
+        store.advanceGenerations(List.of("tenant1"));
+
+        // Act: the record outlives the token, then expires, then the user logs in again
+        now.addAndGet(TOKEN_LIFETIME_MILLIS - 1);
+        Long beforeExpiry = store.getGeneration("tenant1");
+        now.addAndGet(1);
+        Long afterExpiry = store.getGeneration("tenant1");
+        long next = store.acquireGeneration("tenant1");
+
+        // Assert
+        assertEquals(stolen + 1, beforeExpiry);
+        assertNull(afterExpiry);
+        assertTrue(next > stolen + 1);
+    }
+}
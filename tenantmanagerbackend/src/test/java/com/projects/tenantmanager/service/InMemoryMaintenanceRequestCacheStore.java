@@ -0,0 +1,123 @@
+package com.projects.tenantmanager.service;
+
+import com.projects.tenantmanager.model.MaintenanceRequest;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Map-backed store for tests that run without Redis.
+ */
+class InMemoryMaintenanceRequestCacheStore implements MaintenanceRequestCacheStore {
+
+    final Map<UUID, MaintenanceRequest> requests = new ConcurrentHashMap<>();
+    final Map<String, Set<UUID>> indexes = new ConcurrentHashMap<>();
+    final Map<String, List<UUID>> tenants = new ConcurrentHashMap<>();
+    final Map<String, Long> tenantVersions = new ConcurrentHashMap<>();
+    long requestVersion;
+    volatile boolean indexed;
+
+    @Override
+    public Set<UUID> members(String index) {
+        return indexed ? new HashSet<>(indexes.getOrDefault(index, Set.of())) : null;
+    }
+
+    @Override
+    public List<MaintenanceRequest> getAll(List<UUID> ids) {
+        List<MaintenanceRequest> result = new ArrayList<>(ids.size());
+        for (UUID id : ids) {
+            result.add(requests.get(id));
+        }
+        return result;
+    }
+
+    @Override
+    public synchronized long requestVersion() {
+        return requestVersion;
+    }
+
+    @Override
+    public synchronized void putAll(Collection<MaintenanceRequest> requests, long version) {
+        if (version == requestVersion) {
+            requests.forEach(request -> this.requests.put(request.getId(), request));
+        }
+    }
+
+    @Override
+    public synchronized void evict(Collection<UUID> ids) {
+        requestVersion++;
+        ids.forEach(requests::remove);
+    }
+
+    @Override
+    public void move(List<IndexMove> moves) {
+        for (IndexMove move : moves) {
+            move.from().forEach(index -> indexes.computeIfAbsent(index, key -> ConcurrentHashMap.newKeySet())
+                    .remove(move.id()));
+            move.to().forEach(index -> indexes.computeIfAbsent(index, key -> ConcurrentHashMap.newKeySet())
+                    .add(move.id()));
+        }
+    }
+
+    @Override
+    public void rebuild(Map<String, Set<UUID>> indexes) {
+        indexes.forEach((index, ids) -> {
+            Set<UUID> set = ConcurrentHashMap.newKeySet();
+            set.addAll(ids);
+            this.indexes.put(index, set);
+        });
+        indexed = true;
+    }
+
+    @Override
+    public List<UUID> tenantRequests(String tenantName) {
+        List<UUID> ids = tenants.get(tenantName);
+        return ids != null ? new ArrayList<>(ids) : null;
+    }
+
+    @Override
+    public long tenantVersion(String tenantName) {
+        return tenantVersions.getOrDefault(tenantName, 0L);
+    }
+
+    @Override
+    public synchronized void putTenantRequests(String tenantName, List<UUID> ids, long version) {
+        if (!ids.isEmpty() && tenantVersion(tenantName) == version) {
+            tenants.put(tenantName, new ArrayList<>(ids));
+        }
+    }
+
+    @Override
+    public synchronized void addTenantRequests(Map<String, List<UUID>> idsByTenant, int maxSize) {
+        idsByTenant.forEach((tenantName, ids) -> {
+            tenantVersions.merge(tenantName, 1L, Long::sum);
+            tenants.computeIfPresent(tenantName, (key, list) -> {
+                List<UUID> updated = new ArrayList<>(ids.reversed());
+                updated.addAll(list);
+                return new ArrayList<>(updated.subList(0, Math.min(maxSize, updated.size())));
+            });
+        });
+    }
+
+    @Override
+    public synchronized void evictTenantRequests(Collection<String> tenantNames) {
+        for (String tenantName : tenantNames) {
+            tenantVersions.merge(tenantName, 1L, Long::sum);
+            tenants.remove(tenantName);
+        }
+    }
+
+    void clear() {
+        requests.clear();
+        indexes.clear();
+        tenants.clear();
+        tenantVersions.clear();
+        indexed = false;
+    }
+}
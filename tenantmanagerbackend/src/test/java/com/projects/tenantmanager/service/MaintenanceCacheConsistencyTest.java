@@ -0,0 +1,284 @@
+package com.projects.tenantmanager.service;
+
+import com.projects.tenantmanager.dto.MaintenanceRequestDto;
+import com.projects.tenantmanager.dto.MaintenanceRequestPage;
+import com.projects.tenantmanager.model.MaintenanceRequest;
+import com.projects.tenantmanager.model.MaintenanceRequest.Department;
+import com.projects.tenantmanager.model.MaintenanceRequest.Status;
+import com.projects.tenantmanager.model.User;
+import com.projects.tenantmanager.model.UserRole;
+import com.projects.tenantmanager.repository.MaintenanceRequestRepository;
+import com.projects.tenantmanager.repository.UserRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.UUID;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Runs random sequences of writes through the cached service and checks after
+ * each one that every cached list matches the database. Not transactional, so
+ * each service call commits and the after-commit cache update runs. Lists are
+ * filtered by the in-process filter index here, and by the shared id sets in
+ * {@link MaintenanceCacheIdSetConsistencyTest}.
+ */
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.ANY)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_EACH_TEST_METHOD)
+@TestPropertySource(properties = "maintenance.cache.tenant-max-requests=4")
+@Import({ MaintenanceService.class, MaintenanceRequestCache.class, MaintenanceFilterIndex.class,
+        MaintenanceFingerprintFilter.class, MaintenanceNearDuplicateIndex.class,
+        MaintenanceCacheConsistencyTest.CacheConfig.class })
+class MaintenanceCacheConsistencyTest {
+
+    @TestConfiguration
+    @EnableCaching
+    static class CacheConfig {
+        @Bean
+        CacheManager cacheManager() {
+            return new ConcurrentMapCacheManager();
+        }
+
+        @Bean
+        InMemoryMaintenanceRequestCacheStore maintenanceRequestCacheStore() {
+            return new InMemoryMaintenanceRequestCacheStore();
+        }
+    }
+
+    @Autowired
+    MaintenanceService maintenanceService;
+
+    @Autowired
+    MaintenanceRequestRepository maintenanceRepository;
+
+    @Autowired
+    UserRepository userRepository;
+
+    @Autowired
+    CacheManager cacheManager;
+
+    @Autowired
+    InMemoryMaintenanceRequestCacheStore store;
+
+    @Autowired
+    MaintenanceFilterIndex filterIndex;
+
+    @Autowired
+    ApplicationEventPublisher eventPublisher;
+
+    @BeforeEach
+    void setUp() {
+        User tenant = new User();
+        tenant.setUsername("tenant1");
+        tenant.setPassword("password");
+        tenant.setRole(UserRole.TENANT);
+        userRepository.save(tenant);
+    }
+
+    @AfterEach
+    void tearDown() {
+        maintenanceRepository.deleteAll();
+        userRepository.deleteAll();
+        cacheManager.getCacheNames().forEach(name -> cacheManager.getCache(name).clear());
+        store.clear();
+    }
+
+    @Test
+    void randomWrites_CachedListsMatchDatabase() {
+        for (long seed = 1; seed <= 5; seed++) {
+            Random random = new Random(seed);
+            for (int step = 0; step < 60; step++) {
+                randomWrite(random);
+                assertCacheConsistent("seed " + seed + ", step " + step);
+            }
+        }
+    }
+
+    @Test
+    void approve_EvictsOnlyTheChangedRequest() {
+        // Arrange
+        MaintenanceRequest plumbing = maintenanceService.createRequest(
+                new MaintenanceRequestDto("101", "Fix leak", Department.PLUMBING), "tenant1");
+        MaintenanceRequest hvac = maintenanceService.createRequest(
+                new MaintenanceRequestDto("102", "Fix AC", Department.HVAC), "tenant1");
+        maintenanceService.getAllRequests();
+
+        // Act
+        maintenanceService.approveRequest(plumbing.getId());
+
+        // Assert
+        assertTrue(store.requests.containsKey(hvac.getId()));
+        assertFalse(store.requests.containsKey(plumbing.getId()));
+    }
+
+    @Test
+    void tenantPages_MatchDatabaseAsTheTenantListIsExtendedInPlace() {
+        // Arrange
+        User other = new User();
+        other.setUsername("tenant2");
+        other.setPassword("password");
+        other.setRole(UserRole.TENANT);
+        userRepository.save(other);
+        for (int i = 0; i < 3; i++) {
+            maintenanceService.createRequest(new MaintenanceRequestDto("1" + i, "Old " + i, Department.HVAC), "tenant1");
+        }
+        maintenanceService.getTenantRequestPage("tenant1", null, 2);
+
+        // Act
+        MaintenanceRequest newest = null;
+        for (int i = 0; i < 3; i++) {
+            newest = maintenanceService.createRequest(
+                    new MaintenanceRequestDto("2" + i, "New " + i, Department.PLUMBING), "tenant1");
+            maintenanceService.createRequest(new MaintenanceRequestDto("3" + i, "Other " + i, Department.HVAC),
+                    "tenant2");
+        }
+        maintenanceService.approveRequest(newest.getId());
+
+        // Assert: the list was extended and trimmed, not reloaded
+        assertEquals(4, store.tenants.get("tenant1").size());
+        assertEquals(newest.getId(), store.tenants.get("tenant1").get(0));
+
+        // Pages past the cached list come from the database
+        List<MaintenanceRequest> pages = new ArrayList<>();
+        String cursor = null;
+        do {
+            MaintenanceRequestPage page = maintenanceService.getTenantRequestPage("tenant1", cursor, 2);
+            pages.addAll(page.getRequests());
+            cursor = page.getNextCursor();
+        } while (cursor != null);
+        List<MaintenanceRequest> database = maintenanceRepository.findAll();
+        assertEquals(6, pages.size());
+        assertSameRows("tenant1", database, r -> r.getTenantName().equals("tenant1"), pages);
+        assertEquals(pages.stream()
+                .sorted(Comparator.comparing(MaintenanceRequest::getCreatedAt).reversed())
+                .toList(), pages);
+        assertTrue(pages.get(0).isApproved());
+    }
+
+    @Test
+    void tenantPages_ImportedRequestsTakeTheirPlaceByCreationTime() {
+        // Arrange
+        for (int i = 0; i < 3; i++) {
+            maintenanceService.createRequest(new MaintenanceRequestDto("1" + i, "Recent " + i, Department.HVAC), "tenant1");
+        }
+        maintenanceService.getTenantRequestPage("tenant1", null, 2);
+
+        // Act: imported as the import job does, with their original creation times
+        List<MaintenanceChangeEvent> created = new ArrayList<>();
+        for (int i = 0; i < 2; i++) {
+            MaintenanceRequest imported = new MaintenanceRequest();
+            imported.setUnitNumber("4" + i);
+            imported.setDescription("Imported " + i);
+            imported.setDepartment(Department.PLUMBING);
+            imported.setTenantName("tenant1");
+            imported.setCreatedAt(Instant.now().minus(30 + i, ChronoUnit.DAYS));
+            imported = maintenanceRepository.save(imported);
+            created.add(MaintenanceChangeEvent.created(imported.getId(), "tenant1", imported.getStatus(),
+                    imported.getDepartment()));
+        }
+        eventPublisher.publishEvent(new MaintenanceBulkChangeEvent(created));
+
+        // Assert
+        List<MaintenanceRequest> pages = new ArrayList<>();
+        String cursor = null;
+        do {
+            MaintenanceRequestPage page = maintenanceService.getTenantRequestPage("tenant1", cursor, 2);
+            pages.addAll(page.getRequests());
+            cursor = page.getNextCursor();
+        } while (cursor != null);
+        assertEquals(5, pages.size());
+        assertEquals(pages.stream()
+                .sorted(Comparator.comparing(MaintenanceRequest::getCreatedAt).reversed())
+                .toList(), pages);
+        assertEquals("Imported 1", pages.get(4).getDescription());
+    }
+
+    private void randomWrite(Random random) {
+        List<MaintenanceRequest> existing = maintenanceRepository.findAll();
+        int operation = existing.isEmpty() ? 0 : random.nextInt(5);
+        if (operation == 0) {
+            Department department = pick(random, Department.values());
+            maintenanceService.createRequest(
+                    new MaintenanceRequestDto("1" + random.nextInt(100), "Request " + random.nextInt(), department),
+                    "tenant1");
+            return;
+        }
+        if (operation == 4) {
+            List<UUID> targets = random.ints(1 + random.nextInt(3), 0, existing.size())
+                    .mapToObj(i -> existing.get(i).getId())
+                    .collect(Collectors.toList());
+            targets.add(UUID.randomUUID());
+            switch (random.nextInt(3)) {
+                case 0 -> maintenanceService.approveRequests(targets);
+                case 1 -> maintenanceService.rejectRequests(targets);
+                default -> maintenanceService.updateStatuses(targets, pick(random, Status.values()).name());
+            }
+            return;
+        }
+        MaintenanceRequest target = existing.get(random.nextInt(existing.size()));
+        switch (operation) {
+            case 1 -> maintenanceService.approveRequest(target.getId());
+            case 2 -> maintenanceService.rejectRequest(target.getId());
+            default -> maintenanceService.updateStatus(target.getId(), pick(random, Status.values()).name());
+        }
+    }
+
+    private void assertCacheConsistent(String context) {
+        List<MaintenanceRequest> database = maintenanceRepository.findAll();
+        assertSameRows(context + ", all", database, r -> true, maintenanceService.getAllRequests());
+        for (Status status : Status.values()) {
+            assertSameRows(context + ", " + status, database, r -> r.getStatus() == status,
+                    maintenanceService.getRequestsByStatus(status.name()));
+        }
+        for (Department department : Department.values()) {
+            assertSameRows(context + ", " + department, database, r -> r.getDepartment() == department,
+                    maintenanceService.getRequestsByDepartment(department.name()));
+            for (Status status : Status.values()) {
+                assertSameRows(context + ", " + status + "_" + department, database,
+                        r -> r.getStatus() == status && r.getDepartment() == department,
+                        maintenanceService.getRequestsByStatusAndDepartment(status.name(), department.name()));
+            }
+        }
+    }
+
+    private static void assertSameRows(String context, List<MaintenanceRequest> database,
+            Predicate<MaintenanceRequest> filter, List<MaintenanceRequest> cached) {
+        assertEquals(rows(database.stream().filter(filter).toList()), rows(cached), context);
+    }
+
+    private static Set<String> rows(List<MaintenanceRequest> requests) {
+        return requests.stream()
+                .map(r -> r.getId() + ":" + r.getStatus() + ":" + r.getDepartment() + ":" + r.isApproved())
+                .collect(Collectors.toSet());
+    }
+
+    private static <T> T pick(Random random, T[] values) {
+        return values[random.nextInt(values.length)];
+    }
+}
@@ -0,0 +1,42 @@
+package com.projects.tenantmanager.service;
+
+import com.projects.tenantmanager.dto.MaintenanceRequestDto;
+import com.projects.tenantmanager.model.MaintenanceRequest;
+import com.projects.tenantmanager.model.MaintenanceRequest.Department;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.context.TestPropertySource;
+
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * The consistency checks of {@link MaintenanceCacheConsistencyTest} on a node
+ * whose filter index is disabled, so lists come from the shared id sets.
+ */
+@TestPropertySource(properties = "maintenance.index.enabled=false")
+class MaintenanceCacheIdSetConsistencyTest extends MaintenanceCacheConsistencyTest {
+
+    @Test
+    void filterIndex_IsNotUsed() {
+        assertFalse(filterIndex.isReady());
+    }
+
+    @Test
+    void approve_MovesIdBetweenSets() {
+        // Arrange
+        MaintenanceRequest plumbing = maintenanceService.createRequest(
+                new MaintenanceRequestDto("101", "Fix leak", Department.PLUMBING), "tenant1");
+        MaintenanceRequest hvac = maintenanceService.createRequest(
+                new MaintenanceRequestDto("102", "Fix AC", Department.HVAC), "tenant1");
+        maintenanceService.getAllRequests();
+
+        // Act
+        maintenanceService.approveRequest(plumbing.getId());
+
+        // Assert
+        assertEquals(Set.of(plumbing.getId()), store.members("status:IN_PROGRESS"));
+        assertEquals(Set.of(hvac.getId()), store.members("status:OPEN"));
+        assertEquals(Set.of(plumbing.getId()), store.members("department:PLUMBING"));
+    }
+}
@@ -0,0 +1,107 @@
+package com.projects.tenantmanager.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.projects.tenantmanager.model.MaintenanceRequest.Department;
+import com.projects.tenantmanager.model.MaintenanceRequest.Status;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.redis.connection.DefaultMessage;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.UUID;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class MaintenanceChangeBroadcasterTest {
+
+    @Mock
+    private StringRedisTemplate redisTemplate;
+
+    @Mock
+    private MaintenanceFilterIndex filterIndex;
+
+    @Mock
+    private MaintenanceListingVersions listingVersions;
+
+    @Mock
+    private MaintenanceFilterIndex otherFilterIndex;
+
+    @Mock
+    private MaintenanceListingVersions otherListingVersions;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private MaintenanceChangeBroadcaster broadcaster;
+
+    private MaintenanceChangeBroadcaster otherNode;
+
+    @BeforeEach
+    void setUp() {
+        broadcaster = new MaintenanceChangeBroadcaster(redisTemplate, objectMapper, filterIndex, listingVersions);
+        otherNode = new MaintenanceChangeBroadcaster(redisTemplate, objectMapper, otherFilterIndex,
+                otherListingVersions);
+    }
+
+    @Test
+    void onBulkChange_OtherNodesApplyTheChanges() {
+        // Arrange
+        List<MaintenanceChangeEvent> changes = List.of(
+                MaintenanceChangeEvent.created(UUID.randomUUID(), "tenant1", Status.OPEN, Department.HVAC),
+                new MaintenanceChangeEvent(UUID.randomUUID(), Status.OPEN, Department.PLUMBING, Status.RESOLVED,
+                        Department.PLUMBING));
+
+        // Act
+        broadcaster.onBulkChange(new MaintenanceBulkChangeEvent(changes));
+        Message message = publishedMessage();
+        otherNode.onMessage(message, null);
+        broadcaster.onMessage(message, null);
+
+        // Assert: the publishing node applied its changes already
+        verify(otherFilterIndex).apply(changes);
+        verify(otherListingVersions).apply(changes);
+        verify(filterIndex, never()).apply(anyList());
+        verify(listingVersions, never()).apply(anyList());
+    }
+
+    @Test
+    void onChange_PublishFailureDoesNotFailTheWrite() {
+        // Arrange
+        when(redisTemplate.convertAndSend(eq(MaintenanceChangeBroadcaster.CHANNEL), any(String.class)))
+                .thenThrow(new IllegalStateException("Redis down"));
+
+        // Act
+        broadcaster.onChange(new MaintenanceChangeEvent(UUID.randomUUID(), Status.OPEN, Department.HVAC,
+                Status.IN_PROGRESS, Department.HVAC));
+
+        // Assert
+        verify(redisTemplate).convertAndSend(eq(MaintenanceChangeBroadcaster.CHANNEL), any(String.class));
+    }
+
+    @Test
+    void onMessage_IgnoresMalformedMessages() {
+        // Act
+        otherNode.onMessage(new DefaultMessage(MaintenanceChangeBroadcaster.CHANNEL.getBytes(StandardCharsets.UTF_8),
+                "not json".getBytes(StandardCharsets.UTF_8)), null);
+
+        // Assert
+        verifyNoInteractions(otherFilterIndex, otherListingVersions);
+    }
+
+    private Message publishedMessage() {
+        ArgumentCaptor<String> body = ArgumentCaptor.forClass(String.class);
+        verify(redisTemplate).convertAndSend(eq(MaintenanceChangeBroadcaster.CHANNEL), body.capture());
+        return new DefaultMessage(MaintenanceChangeBroadcaster.CHANNEL.getBytes(StandardCharsets.UTF_8),
+                body.getValue().getBytes(StandardCharsets.UTF_8));
+    }
+}
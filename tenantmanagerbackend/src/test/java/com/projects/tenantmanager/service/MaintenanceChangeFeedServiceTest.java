@@ -0,0 +1,109 @@
+package com.projects.tenantmanager.service;
+
+import com.projects.tenantmanager.dto.MaintenanceChangePage;
+import com.projects.tenantmanager.dto.MaintenanceChangeToken;
+import com.projects.tenantmanager.model.MaintenanceRequest;
+import com.projects.tenantmanager.repository.MaintenanceRequestRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Limit;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class MaintenanceChangeFeedServiceTest {
+
+    @Mock
+    private MaintenanceRequestRepository maintenanceRepository;
+
+    private MaintenanceChangeFeedService changeFeedService;
+
+    @BeforeEach
+    void setUp() {
+        changeFeedService = new MaintenanceChangeFeedService(maintenanceRepository, 5000);
+    }
+
+    private static MaintenanceRequest change(long changeSeq, Instant updatedAt) {
+        MaintenanceRequest request = new MaintenanceRequest();
+        request.setId(UUID.randomUUID());
+        request.setChangeSeq(changeSeq);
+        request.setUpdatedAt(updatedAt);
+        return request;
+    }
+
+    @Test
+    void getChanges_StopsAtFirstUnsettledChange() {
+        // Arrange
+        Instant old = Instant.now().minusSeconds(60);
+        MaintenanceRequest settled = change(5, old);
+        when(maintenanceRepository.findChangedAfter(4, Limit.of(11))).thenReturn(List.of(settled,
+                change(6, Instant.now()), change(7, old)));
+
+        // Act
+        MaintenanceChangePage page = changeFeedService.getChanges(new MaintenanceChangeToken(4).encode(), null, 10);
+
+        // Assert
+        assertEquals(List.of(settled), page.getRequests());
+        assertEquals(5, MaintenanceChangeToken.decode(page.getNextToken()).changeSeq());
+        assertFalse(page.isHasMore());
+    }
+
+    @Test
+    void getChanges_FullPageHasMore() {
+        // Arrange
+        Instant old = Instant.now().minusSeconds(60);
+        when(maintenanceRepository.findChangedAfter(0, Limit.of(2))).thenReturn(List.of(change(1, old),
+                change(2, old)));
+
+        // Act
+        MaintenanceChangePage page = changeFeedService.getChanges(null, null, 1);
+
+        // Assert
+        assertEquals(1, page.getRequests().size());
+        assertEquals(1, MaintenanceChangeToken.decode(page.getNextToken()).changeSeq());
+        assertTrue(page.isHasMore());
+    }
+
+    @Test
+    void getChanges_SinceInstantStartsAtFirstChangeAfterIt() {
+        // Arrange
+        Instant since = Instant.now().minusSeconds(3600);
+        when(maintenanceRepository.findFirstChangeSeqUpdatedSince(since)).thenReturn(42L);
+        when(maintenanceRepository.findChangedAfter(41, Limit.of(11))).thenReturn(List.of());
+
+        // Act
+        MaintenanceChangePage page = changeFeedService.getChanges(null, since, 10);
+
+        // Assert
+        assertEquals(List.of(), page.getRequests());
+        assertEquals(41, MaintenanceChangeToken.decode(page.getNextToken()).changeSeq());
+    }
+
+    @Test
+    void getChanges_NothingSinceInstantStartsAfterLastSettledChange() {
+        // Arrange
+        when(maintenanceRepository.findFirstChangeSeqUpdatedSince(any())).thenReturn(null);
+        when(maintenanceRepository.findLastChangeSeqUpdatedBefore(any())).thenReturn(99L);
+        when(maintenanceRepository.findChangedAfter(99, Limit.of(11))).thenReturn(List.of());
+
+        // Act
+        MaintenanceChangePage page = changeFeedService.getChanges(null, Instant.now(), 10);
+
+        // Assert
+        assertEquals(99, MaintenanceChangeToken.decode(page.getNextToken()).changeSeq());
+    }
+
+    @Test
+    void getChanges_InvalidToken_Throws() {
+        assertThrows(IllegalArgumentException.class, () -> changeFeedService.getChanges("not a token", null, 10));
+    }
+}
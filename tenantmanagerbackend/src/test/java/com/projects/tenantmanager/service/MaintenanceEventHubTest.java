@@ -0,0 +1,87 @@
+package com.projects.tenantmanager.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.projects.tenantmanager.model.MaintenanceRequest.Department;
+import com.projects.tenantmanager.model.MaintenanceRequest.Status;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class MaintenanceEventHubTest {
+
+    /**
+     * Never runs the writers, so events stay in the subscribers' buffers
+     */
+    @Mock
+    private ExecutorService writers;
+
+    private MaintenanceEventHub eventHub;
+
+    @BeforeEach
+    void setUp() {
+        // Buffers of 4 events, the first taken by the connected comment
+        eventHub = new MaintenanceEventHub(new ObjectMapper(), 4, 2, 60000, 2, writers);
+    }
+
+    private static MaintenanceChangeEvent approved() {
+        return new MaintenanceChangeEvent(UUID.randomUUID(), Status.OPEN, Department.PLUMBING,
+                Status.IN_PROGRESS, Department.PLUMBING);
+    }
+
+    @Test
+    void subscribe_StartsAWriterAndRefusesSubscribersOverTheLimit() {
+        // Act
+        eventHub.subscribe();
+        eventHub.subscribe();
+
+        // Assert
+        verify(writers, times(2)).execute(any(Runnable.class));
+        assertEquals(2, eventHub.getSubscriberCount());
+        assertThrows(IllegalStateException.class, eventHub::subscribe);
+    }
+
+    @Test
+    void onChange_DisconnectsSubscribersThatFallAFullBufferBehind() {
+        // Arrange
+        eventHub.subscribe();
+
+        // Act
+        eventHub.onChange(MaintenanceChangeEvent.created(UUID.randomUUID(), "tenant1", Status.OPEN, Department.HVAC));
+        eventHub.onChange(approved());
+        eventHub.onChange(approved());
+        int connectedWhenFull = eventHub.getSubscriberCount();
+        eventHub.onChange(approved());
+
+        // Assert
+        assertEquals(1, connectedWhenFull);
+        assertEquals(0, eventHub.getSubscriberCount());
+    }
+
+    @Test
+    void onBulkChange_SendsOneRefetchEventForLargeBulkChanges() {
+        // Arrange
+        eventHub.subscribe();
+
+        // Act: three changes exceed the bulk limit, so they take one buffer slot
+        eventHub.onBulkChange(new MaintenanceBulkChangeEvent(List.of(approved(), approved(), approved())));
+        eventHub.onBulkChange(new MaintenanceBulkChangeEvent(List.of(approved(), approved())));
+        int connectedWhenFull = eventHub.getSubscriberCount();
+        eventHub.onBulkChange(new MaintenanceBulkChangeEvent(Collections.nCopies(5, approved())));
+
+        // Assert
+        assertEquals(1, connectedWhenFull);
+        assertEquals(0, eventHub.getSubscriberCount());
+    }
+}
@@ -0,0 +1,112 @@
+package com.projects.tenantmanager.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.projects.tenantmanager.model.MaintenanceRequest;
+import com.projects.tenantmanager.model.MaintenanceRequest.Department;
+import com.projects.tenantmanager.model.MaintenanceRequest.Status;
+import org.hibernate.engine.spi.SessionImplementor;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.StringWriter;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.ANY)
+@ImportAutoConfiguration(JacksonAutoConfiguration.class)
+@Import(MaintenanceExportService.class)
+class MaintenanceExportServiceTest {
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private MaintenanceExportService exportService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @BeforeEach
+    void setUp() {
+        persist("tenant1", "Fix leak", Department.PLUMBING, Status.OPEN);
+        persist("tenant2", "Fix lights, \"urgent\"\nsecond line", Department.ELECTRICAL, Status.RESOLVED);
+        persist("tenant3", "Fix heating", Department.HVAC, Status.OPEN);
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    private void persist(String tenant, String description, Department department, Status status) {
+        MaintenanceRequest request = new MaintenanceRequest();
+        request.setTenantName(tenant);
+        request.setUnitNumber("101");
+        request.setDescription(description);
+        request.setDepartment(department);
+        request.setStatus(status);
+        entityManager.persist(request);
+    }
+
+    @Test
+    void export_Ndjson_WritesOneObjectPerLineAndDetachesRows() throws IOException {
+        // Arrange
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        // Act
+        long count = exportService.export(null, null, null, null, ExportFormat.NDJSON, out);
+
+        // Assert
+        List<String> lines = out.toString(StandardCharsets.UTF_8).lines().toList();
+        assertEquals(3, count);
+        assertEquals(3, lines.size());
+        JsonNode first = objectMapper.readTree(lines.get(0));
+        assertEquals("tenant1", first.get("tenantName").asText());
+        assertEquals("PLUMBING", first.get("department").asText());
+        assertEquals(0, entityManager.getEntityManager().unwrap(SessionImplementor.class)
+                .getPersistenceContextInternal().getNumberOfManagedEntities());
+    }
+
+    @Test
+    void export_CsvWithFilters_WritesHeaderAndMatchingRows() throws IOException {
+        // Arrange
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        // Act
+        long count = exportService.export(Status.OPEN, null, Instant.EPOCH, null, ExportFormat.CSV, out);
+
+        // Assert
+        List<String> lines = out.toString(StandardCharsets.UTF_8).lines().toList();
+        assertEquals(2, count);
+        assertEquals(MaintenanceExportService.CSV_HEADER, lines.get(0));
+        assertTrue(lines.get(1).contains(",tenant1,101,PLUMBING,OPEN,false,"));
+        assertTrue(lines.get(2).endsWith(",Fix heating"));
+    }
+
+    @Test
+    void writeCsvField_QuotesSeparatorsQuotesAndLineBreaks() throws IOException {
+        // Arrange
+        StringWriter writer = new StringWriter();
+
+        // Act
+        MaintenanceExportService.writeCsvField(writer, "Fix lights, \"urgent\"\nsecond line");
+        writer.write('|');
+        MaintenanceExportService.writeCsvField(writer, "plain");
+        writer.write('|');
+        MaintenanceExportService.writeCsvField(writer, null);
+
+        // Assert
+        assertEquals("\"Fix lights, \"\"urgent\"\"\nsecond line\"|plain|", writer.toString());
+    }
+}
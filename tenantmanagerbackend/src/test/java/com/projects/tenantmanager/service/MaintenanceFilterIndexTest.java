@@ -0,0 +1,98 @@
+package com.projects.tenantmanager.service;
+
+import com.projects.tenantmanager.model.MaintenanceRequest.Department;
+import com.projects.tenantmanager.model.MaintenanceRequest.Status;
+import com.projects.tenantmanager.repository.MaintenanceRequestKey;
+import com.projects.tenantmanager.repository.MaintenanceRequestRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class MaintenanceFilterIndexTest {
+
+    @Mock
+    private MaintenanceRequestRepository maintenanceRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private MaintenanceFilterIndex filterIndex;
+
+    private final UUID leak = UUID.randomUUID();
+    private final UUID lights = UUID.randomUUID();
+    private final UUID heating = UUID.randomUUID();
+
+    @BeforeEach
+    void setUp() {
+        filterIndex = new MaintenanceFilterIndex(maintenanceRepository, transactionManager, true);
+        when(maintenanceRepository.streamAllKeys()).thenReturn(Stream.of(
+                key(leak, Status.OPEN, Department.PLUMBING),
+                key(lights, Status.RESOLVED, Department.ELECTRICAL),
+                key(heating, Status.OPEN, Department.HVAC)));
+        filterIndex.rebuild();
+    }
+
+    private static MaintenanceRequestKey key(UUID id, Status status, Department department) {
+        return new MaintenanceRequestKey() {
+            @Override
+            public UUID getId() {
+                return id;
+            }
+
+            @Override
+            public Status getStatus() {
+                return status;
+            }
+
+            @Override
+            public Department getDepartment() {
+                return department;
+            }
+        };
+    }
+
+    @Test
+    void find_CombinesStatusAndDepartmentFilters() {
+        assertTrue(filterIndex.isReady());
+        assertEquals(List.of(leak, lights, heating), filterIndex.find(null, null));
+        assertEquals(List.of(leak, heating), filterIndex.find(Status.OPEN, null));
+        assertEquals(List.of(heating), filterIndex.find(null, Department.HVAC));
+        assertEquals(List.of(leak), filterIndex.find(Status.OPEN, Department.PLUMBING));
+        assertEquals(List.of(), filterIndex.find(Status.REJECTED, Department.PLUMBING));
+    }
+
+    @Test
+    void onChange_MovesRequestBetweenBitmaps() {
+        // Act
+        filterIndex.onChange(new MaintenanceChangeEvent(leak, Status.OPEN, Department.PLUMBING,
+                Status.IN_PROGRESS, Department.PLUMBING));
+
+        // Assert
+        assertEquals(List.of(heating), filterIndex.find(Status.OPEN, null));
+        assertEquals(List.of(leak), filterIndex.find(Status.IN_PROGRESS, Department.PLUMBING));
+    }
+
+    @Test
+    void onChange_NewRequestGetsNextRow() {
+        // Arrange
+        UUID paint = UUID.randomUUID();
+
+        // Act
+        filterIndex.onChange(MaintenanceChangeEvent.created(paint, "tenant1", Status.OPEN, Department.PAINTING));
+
+        // Assert
+        assertEquals(List.of(leak, heating, paint), filterIndex.find(Status.OPEN, null));
+        assertEquals(4, filterIndex.find(null, null).size());
+    }
+}
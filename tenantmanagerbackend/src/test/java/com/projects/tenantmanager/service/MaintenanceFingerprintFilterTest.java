@@ -0,0 +1,60 @@
+package com.projects.tenantmanager.service;
+
+import com.projects.tenantmanager.model.MaintenanceRequest;
+import com.projects.tenantmanager.model.MaintenanceRequest.Department;
+import com.projects.tenantmanager.repository.MaintenanceRequestRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.ANY)
+@Import(MaintenanceFingerprintFilter.class)
+class MaintenanceFingerprintFilterTest {
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private MaintenanceRequestRepository maintenanceRepository;
+
+    @Autowired
+    private MaintenanceFingerprintFilter fingerprintFilter;
+
+    private MaintenanceRequest persist(String unitNumber, String description) {
+        MaintenanceRequest request = new MaintenanceRequest();
+        request.setTenantName("tenant1");
+        request.setUnitNumber(unitNumber);
+        request.setDescription(description);
+        request.setDepartment(Department.PLUMBING);
+        return entityManager.persist(request);
+    }
+
+    @Test
+    void load_BackfillsLegacyRequestsAndSkipsTheirDuplicates() {
+        // Arrange
+        persist("101", "Fix leak");
+        persist("101", "fix  LEAK");
+        persist("102", "Fix lights");
+        entityManager.flush();
+
+        // Act
+        fingerprintFilter.load();
+        entityManager.clear();
+
+        // Assert
+        List<MaintenanceRequest> requests = maintenanceRepository.findAll();
+        assertEquals(2, requests.stream().filter(r -> r.getFingerprint() != null).count());
+        assertTrue(maintenanceRepository.existsByFingerprint(
+                RequestFingerprint.of("101", Department.PLUMBING, "Fix leak").toString()));
+        assertTrue(fingerprintFilter.mightExist(RequestFingerprint.of("102", Department.PLUMBING, "Fix lights")));
+        assertFalse(fingerprintFilter.mightExist(RequestFingerprint.of("103", Department.PLUMBING, "Fix door")));
+    }
+}
@@ -0,0 +1,206 @@
+package com.projects.tenantmanager.service;
+
+import com.projects.tenantmanager.dto.ImportJobStatus;
+import com.projects.tenantmanager.model.MaintenanceRequest;
+import com.projects.tenantmanager.model.MaintenanceRequest.Department;
+import com.projects.tenantmanager.model.MaintenanceRequest.Status;
+import com.projects.tenantmanager.model.User;
+import com.projects.tenantmanager.model.UserRole;
+import com.projects.tenantmanager.repository.MaintenanceRequestRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.context.event.ApplicationEvents;
+import org.springframework.test.context.event.RecordApplicationEvents;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.ANY)
+@ImportAutoConfiguration(JacksonAutoConfiguration.class)
+@Import({ MaintenanceImportService.class, MaintenanceFingerprintFilter.class })
+@TestPropertySource(properties = "maintenance.import.chunk-size=2")
+@RecordApplicationEvents
+class MaintenanceImportServiceTest {
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private MaintenanceImportService importService;
+
+    @Autowired
+    private MaintenanceRequestRepository maintenanceRepository;
+
+    @Autowired
+    private ApplicationEvents events;
+
+    @BeforeEach
+    void setUp() {
+        User tenant = new User();
+        tenant.setUsername("tenant1");
+        tenant.setPassword("password");
+        tenant.setRole(UserRole.TENANT);
+        entityManager.persist(tenant);
+        entityManager.flush();
+    }
+
+    private ImportJobStatus runImport(String input, ExportFormat format) {
+        MaintenanceImportJob job = new MaintenanceImportJob(10);
+        importService.run(job, new ByteArrayInputStream(input.getBytes(StandardCharsets.UTF_8)), format);
+        return job.status();
+    }
+
+    @Test
+    void run_Csv_ImportsValidRowsInChunksAndPublishesEachChunk() {
+        // Arrange
+        String csv = """
+                unitNumber,department,tenantName,description,status
+                101,PLUMBING,tenant1,Fix leak,
+                102,ELECTRICAL,tenant1,"Fix lights, ""urgent""
+                second line",RESOLVED
+                101,PLUMBING,tenant1,Fix leak,
+                103,ROOFING,tenant1,Fix roof,
+                104,HVAC,tenant9,Fix AC,
+
+                105,hvac,tenant1,Fix heating,open
+                """;
+
+        // Act
+        ImportJobStatus status = runImport(csv, ExportFormat.CSV);
+
+        // Assert
+        assertEquals(ImportJobStatus.State.COMPLETED, status.getState());
+        assertEquals(6, status.getRowsRead());
+        assertEquals(3, status.getImported());
+        assertEquals(1, status.getDuplicates());
+        assertEquals(2, status.getInvalid());
+        assertEquals(List.of("Line 6: Invalid department ROOFING", "Line 7: Unknown tenant tenant9"),
+                status.getErrors());
+
+        List<MaintenanceRequest> requests = maintenanceRepository.findAll();
+        assertEquals(3, requests.size());
+        assertTrue(requests.stream().anyMatch(r -> r.getDescription().equals("Fix lights, \"urgent\"\nsecond line")
+                && r.getStatus() == Status.RESOLVED));
+        assertTrue(requests.stream().anyMatch(r -> r.getDepartment() == Department.HVAC
+                && r.getStatus() == Status.OPEN));
+
+        List<MaintenanceBulkChangeEvent> published = events.stream(MaintenanceBulkChangeEvent.class).toList();
+        assertEquals(List.of(2, 1), published.stream().map(event -> event.changes().size()).toList());
+        assertEquals(0, events.stream(MaintenanceChangeEvent.class).count());
+    }
+
+    @Test
+    void run_KeepsGivenCreationTimesAndStampsMissingOnes() {
+        // Arrange
+        Instant before = Instant.now();
+        String csv = """
+                tenantName,unitNumber,department,description,createdAt
+                tenant1,101,PLUMBING,Fix leak,2023-05-01T10:15:30.123456Z
+                tenant1,102,HVAC,Fix AC,
+                tenant1,103,PAINTING,Paint hall,2999-01-01T00:00:00Z
+                tenant1,104,CLEANING,Clean stairs,yesterday
+                """;
+
+        // Act
+        ImportJobStatus status = runImport(csv, ExportFormat.CSV);
+
+        // Assert
+        assertEquals(2, status.getImported());
+        assertEquals(List.of("Line 4: createdAt 2999-01-01T00:00:00Z is in the future",
+                "Line 5: Invalid createdAt yesterday"), status.getErrors());
+        Map<String, Instant> createdAt = maintenanceRepository.findAll().stream()
+                .collect(Collectors.toMap(MaintenanceRequest::getUnitNumber, MaintenanceRequest::getCreatedAt));
+        assertEquals(Instant.parse("2023-05-01T10:15:30.123456Z"), createdAt.get("101"));
+        assertFalse(createdAt.get("102").isBefore(before.truncatedTo(ChronoUnit.MICROS)));
+    }
+
+    @Test
+    void run_Ndjson_SkipsBlankAndRejectsMalformedLines() {
+        // Arrange
+        String ndjson = """
+                {"tenantName":"tenant1","unitNumber":"101","department":"PLUMBING","description":"Fix leak","approved":true,"id":"ignored"}
+
+                {"tenantName":"tenant1","unitNumber":"102",
+                {"tenantName":"tenant1","unitNumber":"103","department":"HVAC"}
+                """;
+
+        // Act
+        ImportJobStatus status = runImport(ndjson, ExportFormat.NDJSON);
+
+        // Assert
+        assertEquals(ImportJobStatus.State.COMPLETED, status.getState());
+        assertEquals(3, status.getRowsRead());
+        assertEquals(1, status.getImported());
+        assertEquals(2, status.getInvalid());
+        assertTrue(status.getErrors().get(0).startsWith("Line 3: Invalid JSON"));
+        assertEquals("Line 4: Missing description", status.getErrors().get(1));
+        assertTrue(maintenanceRepository.findAll().get(0).isApproved());
+    }
+
+    @Test
+    void run_RowMatchingStoredRequest_CountedAsDuplicate() {
+        // Arrange
+        MaintenanceRequest stored = new MaintenanceRequest();
+        stored.setTenantName("tenant1");
+        stored.setUnitNumber("101");
+        stored.setDescription("Fix leak");
+        stored.setDepartment(Department.PLUMBING);
+        stored.setFingerprint(RequestFingerprint.of("101", Department.PLUMBING, "Fix leak").toString());
+        entityManager.persist(stored);
+        entityManager.flush();
+        String csv = """
+                tenantName,unitNumber,department,description
+                tenant1,101,PLUMBING,"  FIX   leak "
+                tenant1,102,PLUMBING,Fix leak
+                """;
+
+        // Act
+        ImportJobStatus status = runImport(csv, ExportFormat.CSV);
+
+        // Assert
+        assertEquals(1, status.getImported());
+        assertEquals(1, status.getDuplicates());
+        assertEquals(2, maintenanceRepository.count());
+    }
+
+    @Test
+    void csvRecordReader_ReadsWhatTheExportWrites() throws IOException {
+        // Arrange
+        StringWriter writer = new StringWriter();
+        MaintenanceExportService.writeCsvField(writer, "a,b");
+        writer.write(',');
+        MaintenanceExportService.writeCsvField(writer, "say \"hi\"\r\nbye");
+        writer.write(',');
+        writer.write("\r\nlast,\n");
+
+        // Act
+        CsvRecordReader reader = new CsvRecordReader(new StringReader(writer.toString()));
+        List<String> first = reader.next();
+        List<String> second = reader.next();
+
+        // Assert
+        assertEquals(List.of("a,b", "say \"hi\"\r\nbye", ""), first);
+        assertEquals(List.of("last", ""), second);
+        assertEquals(3, reader.getRecordLine());
+        assertNull(reader.next());
+    }
+}
@@ -0,0 +1,126 @@
+package com.projects.tenantmanager.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.projects.tenantmanager.model.MaintenanceRequest.Department;
+import com.projects.tenantmanager.model.MaintenanceRequest.Status;
+import com.projects.tenantmanager.repository.MaintenanceRequestRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.event.TransactionalEventListenerFactory;
+import org.springframework.transaction.support.AbstractPlatformTransactionManager;
+import org.springframework.transaction.support.DefaultTransactionStatus;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Publishes changes through a real application event multicaster and checks
+ * that the read models apply them before anything announces them, locally
+ * or to other nodes.
+ */
+class MaintenanceListenerOrderTest {
+
+    private final List<String> calls = new CopyOnWriteArrayList<>();
+    private final NoOpTransactionManager transactionManager = new NoOpTransactionManager();
+    private AnnotationConfigApplicationContext context;
+
+    @BeforeEach
+    void setUp() {
+        MaintenanceRequestRepository repository = mock(MaintenanceRequestRepository.class);
+        MaintenanceFilterIndex filterIndex = recording(
+                new MaintenanceFilterIndex(repository, transactionManager, false), "filterIndex");
+        MaintenanceRequestCache cache = recording(
+                new MaintenanceRequestCache(new InMemoryMaintenanceRequestCacheStore(), repository, filterIndex, 10),
+                "cache");
+        MaintenanceListingVersions listingVersions = recording(new MaintenanceListingVersions(filterIndex), "versions");
+        MaintenanceChangeBroadcaster broadcaster = recording(new MaintenanceChangeBroadcaster(
+                mock(StringRedisTemplate.class), new ObjectMapper(), filterIndex, listingVersions), "broadcaster");
+        MaintenanceEventHub eventHub = recording(new MaintenanceEventHub(new ObjectMapper(), 16, 10, 60_000, 100,
+                Executors.newSingleThreadExecutor()), "eventHub");
+
+        context = new AnnotationConfigApplicationContext();
+        context.registerBean(TransactionalEventListenerFactory.class);
+        // Registered first, so that registration order alone would run them first
+        context.registerBean("maintenanceEventHub", MaintenanceEventHub.class, () -> eventHub);
+        context.registerBean("maintenanceChangeBroadcaster", MaintenanceChangeBroadcaster.class, () -> broadcaster);
+        context.registerBean("maintenanceListingVersions", MaintenanceListingVersions.class, () -> listingVersions);
+        context.registerBean("maintenanceRequestCache", MaintenanceRequestCache.class, () -> cache);
+        context.registerBean("maintenanceFilterIndex", MaintenanceFilterIndex.class, () -> filterIndex);
+        context.refresh();
+    }
+
+    @AfterEach
+    void tearDown() {
+        context.close();
+    }
+
+    @Test
+    void onChange_AfterCommit_ReadModelsApplyBeforeAnnouncing() {
+        // Act
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> context.publishEvent(
+                MaintenanceChangeEvent.created(UUID.randomUUID(), "tenant1", Status.OPEN, Department.HVAC)));
+
+        // Assert
+        assertEquals(5, calls.size());
+        assertEquals(Set.of("filterIndex", "cache"), Set.copyOf(calls.subList(0, 2)));
+        assertEquals(Set.of("versions", "broadcaster", "eventHub"), Set.copyOf(calls.subList(2, 5)));
+    }
+
+    @Test
+    void onBulkChange_WithoutTransaction_ReadModelsApplyBeforeAnnouncing() {
+        // Act
+        context.publishEvent(new MaintenanceBulkChangeEvent(List.of(new MaintenanceChangeEvent(UUID.randomUUID(),
+                Status.OPEN, Department.HVAC, Status.RESOLVED, Department.HVAC))));
+
+        // Assert
+        assertEquals(5, calls.size());
+        assertEquals(Set.of("filterIndex", "cache"), Set.copyOf(calls.subList(0, 2)));
+        assertEquals(Set.of("versions", "broadcaster", "eventHub"), Set.copyOf(calls.subList(2, 5)));
+    }
+
+    /**
+     * A spy of the listener that records its change listener calls.
+     */
+    @SuppressWarnings("unchecked")
+    private <T> T recording(T listener, String name) {
+        return mock((Class<T>) listener.getClass(), withSettings().spiedInstance(listener)
+                .defaultAnswer(invocation -> {
+                    String method = invocation.getMethod().getName();
+                    if (method.equals("onChange") || method.equals("onBulkChange")) {
+                        calls.add(name);
+                    }
+                    return invocation.callRealMethod();
+                }));
+    }
+
+    private static final class NoOpTransactionManager extends AbstractPlatformTransactionManager {
+
+        @Override
+        protected Object doGetTransaction() {
+            return new Object();
+        }
+
+        @Override
+        protected void doBegin(Object transaction, TransactionDefinition definition) {
+        }
+
+        @Override
+        protected void doCommit(DefaultTransactionStatus status) {
+        }
+
+        @Override
+        protected void doRollback(DefaultTransactionStatus status) {
+        }
+    }
+}
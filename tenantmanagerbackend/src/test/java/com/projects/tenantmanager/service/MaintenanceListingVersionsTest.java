@@ -0,0 +1,81 @@
+package com.projects.tenantmanager.service;
+
+import com.projects.tenantmanager.model.MaintenanceRequest.Department;
+import com.projects.tenantmanager.model.MaintenanceRequest.Status;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class MaintenanceListingVersionsTest {
+
+    @Mock
+    private MaintenanceFilterIndex filterIndex;
+
+    private MaintenanceListingVersions listingVersions;
+
+    @BeforeEach
+    void setUp() {
+        listingVersions = new MaintenanceListingVersions(filterIndex);
+    }
+
+    @Test
+    void etag_NullUntilFilterIndexIsReady() {
+        assertNull(listingVersions.etag(null, null));
+    }
+
+    @Test
+    void onChange_ChangesEtagsOfCoveredListingsOnly() {
+        // Arrange
+        when(filterIndex.isReady()).thenReturn(true);
+        String all = listingVersions.etag(null, null);
+        String open = listingVersions.etag(Status.OPEN, null);
+        String plumbing = listingVersions.etag(null, Department.PLUMBING);
+        String resolvedHvac = listingVersions.etag(Status.RESOLVED, Department.HVAC);
+
+        // Act
+        listingVersions.onChange(new MaintenanceChangeEvent(UUID.randomUUID(), Status.OPEN, Department.PLUMBING,
+                Status.IN_PROGRESS, Department.PLUMBING));
+
+        // Assert
+        assertNotEquals(all, listingVersions.etag(null, null));
+        assertNotEquals(open, listingVersions.etag(Status.OPEN, null));
+        assertNotEquals(plumbing, listingVersions.etag(null, Department.PLUMBING));
+        assertEquals(resolvedHvac, listingVersions.etag(Status.RESOLVED, Department.HVAC));
+        assertTrue(all.startsWith("\"") && all.endsWith("\""));
+    }
+
+    @Test
+    void onBulkChange_NewRequestsChangeTheirBucket() {
+        // Arrange
+        when(filterIndex.isReady()).thenReturn(true);
+        String hvac = listingVersions.etag(Status.OPEN, Department.HVAC);
+        String electrical = listingVersions.etag(Status.OPEN, Department.ELECTRICAL);
+
+        // Act
+        listingVersions.onBulkChange(new MaintenanceBulkChangeEvent(List.of(
+                MaintenanceChangeEvent.created(UUID.randomUUID(), "tenant1", Status.OPEN, Department.HVAC))));
+
+        // Assert
+        assertNotEquals(hvac, listingVersions.etag(Status.OPEN, Department.HVAC));
+        assertEquals(electrical, listingVersions.etag(Status.OPEN, Department.ELECTRICAL));
+    }
+
+    @Test
+    void etag_ChangesWhenFilterIndexIsRebuilt() {
+        // Arrange
+        when(filterIndex.isReady()).thenReturn(true);
+        when(filterIndex.getGeneration()).thenReturn(1L, 2L);
+
+        // Act & Assert
+        assertNotEquals(listingVersions.etag(Status.OPEN, null), listingVersions.etag(Status.OPEN, null));
+    }
+}
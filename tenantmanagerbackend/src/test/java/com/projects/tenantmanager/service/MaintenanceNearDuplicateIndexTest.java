@@ -0,0 +1,137 @@
+package com.projects.tenantmanager.service;
+
+import com.projects.tenantmanager.model.MaintenanceRequest.Department;
+import com.projects.tenantmanager.model.MaintenanceRequest.Status;
+import com.projects.tenantmanager.repository.MaintenanceRequestContent;
+import com.projects.tenantmanager.repository.MaintenanceRequestRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class MaintenanceNearDuplicateIndexTest {
+
+    @Mock
+    private MaintenanceRequestRepository maintenanceRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private MaintenanceNearDuplicateIndex nearDuplicateIndex;
+
+    private final UUID sink = UUID.randomUUID();
+    private final UUID lights = UUID.randomUUID();
+
+    @BeforeEach
+    void setUp() {
+        nearDuplicateIndex = new MaintenanceNearDuplicateIndex(maintenanceRepository, transactionManager, true, 20,
+                3, 0.4);
+        when(maintenanceRepository.streamContentByStatus(Status.OPEN)).thenReturn(Stream.of(
+                content(sink, "4B", Department.PLUMBING, "Kitchen sink leaking"),
+                content(lights, "4B", Department.ELECTRICAL, "Hallway lights flicker at night")));
+        nearDuplicateIndex.rebuild();
+    }
+
+    private static MaintenanceRequestContent content(UUID id, String unitNumber, Department department,
+            String description) {
+        return new MaintenanceRequestContent() {
+            @Override
+            public UUID getId() {
+                return id;
+            }
+
+            @Override
+            public String getUnitNumber() {
+                return unitNumber;
+            }
+
+            @Override
+            public Department getDepartment() {
+                return department;
+            }
+
+            @Override
+            public String getDescription() {
+                return description;
+            }
+        };
+    }
+
+    @Test
+    void findSimilar_RewordedDescriptionOfSameUnitAndDepartment() {
+        assertTrue(nearDuplicateIndex.isReady());
+        assertEquals(sink, nearDuplicateIndex.findSimilar("4b", Department.PLUMBING, "Leak under kitchen sink"));
+        assertEquals(lights, nearDuplicateIndex.findSimilar("4B", Department.ELECTRICAL,
+                "The hallway lights flicker at night"));
+    }
+
+    @Test
+    void findSimilar_IgnoresOtherUnitsDepartmentsAndUnrelatedDescriptions() {
+        assertNull(nearDuplicateIndex.findSimilar("12", Department.PLUMBING, "Leak under kitchen sink"));
+        assertNull(nearDuplicateIndex.findSimilar("4B", Department.HVAC, "Leak under kitchen sink"));
+        assertNull(nearDuplicateIndex.findSimilar("4B", Department.PLUMBING, "Toilet will not flush"));
+        assertNull(nearDuplicateIndex.findSimilar("4B", Department.PLUMBING, "   "));
+    }
+
+    @Test
+    void onChange_IndexesNewOpenRequestsAndDropsClosedOnes() {
+        // Arrange
+        UUID boiler = UUID.randomUUID();
+        when(maintenanceRepository.findContentByIdIn(List.of(boiler))).thenReturn(List.of(
+                content(boiler, "7", Department.HVAC, "Boiler makes a banging noise")));
+
+        // Act
+        nearDuplicateIndex.onChange(MaintenanceChangeEvent.created(boiler, "tenant1", Status.OPEN, Department.HVAC));
+        nearDuplicateIndex.onBulkChange(new MaintenanceBulkChangeEvent(List.of(new MaintenanceChangeEvent(sink,
+                Status.OPEN, Department.PLUMBING, Status.RESOLVED, Department.PLUMBING))));
+
+        // Assert
+        assertEquals(boiler, nearDuplicateIndex.findSimilar("7", Department.HVAC, "Banging noise from the boiler"));
+        assertNull(nearDuplicateIndex.findSimilar("4B", Department.PLUMBING, "Leak under kitchen sink"));
+    }
+
+    @Test
+    void similarity_EstimatesJaccardOfShingleSets() {
+        // Arrange
+        Set<Long> a = shingleSet("kitchen sink leaking");
+        Set<Long> b = shingleSet("leak under kitchen sink");
+        Set<Long> shared = new HashSet<>(a);
+        shared.retainAll(b);
+        double jaccard = (double) shared.size() / (a.size() + b.size() - shared.size());
+        MaintenanceNearDuplicateIndex wide = new MaintenanceNearDuplicateIndex(maintenanceRepository,
+                transactionManager, true, 100, 10, 0.5);
+
+        // Act
+        double estimate = MaintenanceNearDuplicateIndex.similarity(
+                compact(wide.signature("kitchen sink leaking")), compact(wide.signature("leak under kitchen sink")));
+
+        // Assert
+        assertEquals(jaccard, estimate, 0.1);
+    }
+
+    private static Set<Long> shingleSet(String description) {
+        return Arrays.stream(MaintenanceNearDuplicateIndex.shingles(description)).boxed().collect(Collectors.toSet());
+    }
+
+    private static byte[] compact(long[] signature) {
+        byte[] compact = new byte[signature.length];
+        for (int i = 0; i < signature.length; i++) {
+            compact[i] = (byte) signature[i];
+        }
+        return compact;
+    }
+}
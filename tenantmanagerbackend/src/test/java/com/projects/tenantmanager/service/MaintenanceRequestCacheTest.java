@@ -0,0 +1,75 @@
+package com.projects.tenantmanager.service;
+
+import com.projects.tenantmanager.model.MaintenanceRequest;
+import com.projects.tenantmanager.model.MaintenanceRequest.Department;
+import com.projects.tenantmanager.model.MaintenanceRequest.Status;
+import com.projects.tenantmanager.repository.MaintenanceRequestRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class MaintenanceRequestCacheTest {
+
+    @Mock
+    private MaintenanceRequestRepository maintenanceRepository;
+
+    @Mock
+    private MaintenanceFilterIndex filterIndex;
+
+    private final InMemoryMaintenanceRequestCacheStore store = new InMemoryMaintenanceRequestCacheStore();
+
+    private MaintenanceRequestCache cache;
+
+    @BeforeEach
+    void setUp() {
+        cache = new MaintenanceRequestCache(store, maintenanceRepository, filterIndex, 10);
+    }
+
+    @Test
+    void getRequestsById_CachesLoadedRequests() {
+        // Arrange
+        MaintenanceRequest request = request(Status.OPEN);
+        when(maintenanceRepository.findAllById(List.of(request.getId()))).thenReturn(List.of(request));
+
+        // Act
+        cache.getRequestsById(List.of(request.getId()));
+
+        // Assert
+        assertSame(request, store.requests.get(request.getId()));
+    }
+
+    @Test
+    void getRequestsById_ChangeCommittedDuringLoad_DoesNotCacheTheOldRow() {
+        // Arrange: the row is read, then a change commits and evicts it before the read is cached
+        MaintenanceRequest old = request(Status.OPEN);
+        when(maintenanceRepository.findAllById(List.of(old.getId()))).thenAnswer(invocation -> {
+            cache.onChange(new MaintenanceChangeEvent(old.getId(), Status.OPEN, Department.HVAC,
+                    Status.RESOLVED, Department.HVAC));
+            return List.of(old);
+        });
+
+        // Act
+        List<MaintenanceRequest> requests = cache.getRequestsById(List.of(old.getId()));
+
+        // Assert: the reader still gets what it read, but the next one reloads
+        assertEquals(List.of(old), requests);
+        assertNull(store.requests.get(old.getId()));
+    }
+
+    private static MaintenanceRequest request(Status status) {
+        MaintenanceRequest request = new MaintenanceRequest();
+        request.setId(UUID.randomUUID());
+        request.setStatus(status);
+        request.setDepartment(Department.HVAC);
+        return request;
+    }
+}
@@ -0,0 +1,162 @@
+package com.projects.tenantmanager.service;
+
+import com.projects.tenantmanager.model.MaintenanceRequest.Department;
+import com.projects.tenantmanager.model.MaintenanceRequest.Status;
+import com.projects.tenantmanager.repository.MaintenanceRequestDocument;
+import com.projects.tenantmanager.repository.MaintenanceRequestRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class MaintenanceSearchIndexTest {
+
+    @Mock
+    private MaintenanceRequestRepository maintenanceRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @TempDir
+    private Path dir;
+
+    private MaintenanceSearchIndex searchIndex;
+
+    private final UUID leak = UUID.randomUUID();
+    private final UUID sink = UUID.randomUUID();
+    private final UUID lights = UUID.randomUUID();
+
+    @BeforeEach
+    void setUp() {
+        searchIndex = newIndex();
+        when(maintenanceRepository.streamDocuments()).thenReturn(Stream.of(
+                document(leak, "alice", "4B", "Kitchen tap leaks, water leaking under the sink", Status.OPEN,
+                        Department.PLUMBING),
+                document(sink, "bob", "12", "Bathroom sink is blocked", Status.RESOLVED, Department.PLUMBING),
+                document(lights, "carol", "7A", "Hallway lights flicker", Status.OPEN, Department.ELECTRICAL)));
+        searchIndex.onStartup();
+    }
+
+    private MaintenanceSearchIndex newIndex() {
+        return new MaintenanceSearchIndex(maintenanceRepository, transactionManager, true,
+                dir.resolve("search.idx").toString(), 60000);
+    }
+
+    private static MaintenanceRequestDocument document(UUID id, String tenantName, String unitNumber,
+            String description, Status status, Department department) {
+        return new MaintenanceRequestDocument() {
+            @Override
+            public UUID getId() {
+                return id;
+            }
+
+            @Override
+            public String getTenantName() {
+                return tenantName;
+            }
+
+            @Override
+            public String getUnitNumber() {
+                return unitNumber;
+            }
+
+            @Override
+            public String getDescription() {
+                return description;
+            }
+
+            @Override
+            public Status getStatus() {
+                return status;
+            }
+
+            @Override
+            public Department getDepartment() {
+                return department;
+            }
+        };
+    }
+
+    private List<UUID> ids(List<MaintenanceSearchIndex.Hit> hits) {
+        return hits.stream().map(MaintenanceSearchIndex.Hit::id).toList();
+    }
+
+    @Test
+    void tokenize_FoldsCaseUnicodeAndPlurals() {
+        assertEquals(List.of("leak", "in", "unit", "4b", "kitchen", "glass"),
+                MaintenanceSearchIndex.tokenize("LEAKS in unit ４B — kitchen glass"));
+    }
+
+    @Test
+    void search_RanksRequestsMatchingMoreTermsFirst() {
+        // Act
+        List<MaintenanceSearchIndex.Hit> hits = searchIndex.search("leaking sink", null, null, 10);
+
+        // Assert
+        assertTrue(searchIndex.isReady());
+        assertEquals(List.of(leak, sink), ids(hits));
+        assertTrue(hits.get(0).score() > hits.get(1).score());
+        assertEquals(List.of(lights), ids(searchIndex.search("carol", null, null, 10)));
+        // Shorter requests rank higher for the same term
+        assertEquals(List.of(sink), ids(searchIndex.search("sink", null, null, 1)));
+    }
+
+    @Test
+    void search_AppliesStatusAndDepartmentFilters() {
+        assertEquals(List.of(sink), ids(searchIndex.search("sink", Status.RESOLVED, null, 10)));
+        assertEquals(List.of(), ids(searchIndex.search("sink", null, Department.ELECTRICAL, 10)));
+        assertEquals(List.of(), ids(searchIndex.search("", null, null, 10)));
+    }
+
+    @Test
+    void onChange_IndexesNewRequestsAndMovesExistingOnes() {
+        // Arrange
+        UUID paint = UUID.randomUUID();
+        when(maintenanceRepository.findDocumentsByIdIn(List.of(paint))).thenReturn(List.of(
+                document(paint, "dave", "3C", "Peeling paint in the hallway", Status.OPEN, Department.PAINTING)));
+
+        // Act
+        searchIndex.onChange(MaintenanceChangeEvent.created(paint, "tenant1", Status.OPEN, Department.PAINTING));
+        searchIndex.onBulkChange(new MaintenanceBulkChangeEvent(List.of(new MaintenanceChangeEvent(lights,
+                Status.OPEN, Department.ELECTRICAL, Status.RESOLVED, Department.ELECTRICAL))));
+
+        // Assert
+        assertEquals(List.of(paint), ids(searchIndex.search("hallway", Status.OPEN, null, 10)));
+        assertEquals(List.of(lights), ids(searchIndex.search("hallway", Status.RESOLVED, null, 10)));
+    }
+
+    @Test
+    void onStartup_LoadsSavedIndexAndCatchesUpFromItsSyncPoint() {
+        // Arrange
+        searchIndex.save();
+        UUID boiler = UUID.randomUUID();
+        when(maintenanceRepository.streamDocumentsUpdatedSince(any(Instant.class))).thenReturn(Stream.of(
+                document(sink, "bob", "12", "Bathroom sink is blocked", Status.OPEN, Department.PLUMBING),
+                document(boiler, "erin", "9", "Boiler makes a banging noise", Status.OPEN, Department.HVAC)));
+        MaintenanceSearchIndex restarted = newIndex();
+
+        // Act
+        restarted.onStartup();
+
+        // Assert
+        verify(maintenanceRepository, times(1)).streamDocuments();
+        assertEquals(List.of(sink, leak), ids(restarted.search("sink", Status.OPEN, null, 10)));
+        assertEquals(List.of(boiler), ids(restarted.search("boiler", null, null, 10)));
+        assertEquals(ids(searchIndex.search("lights", null, null, 10)),
+                ids(restarted.search("lights", null, null, 10)));
+    }
+}
@@ -1,11 +1,16 @@
 package com.projects.tenantmanager.service;
 
+import com.projects.tenantmanager.dto.BulkUpdateResult;
+import com.projects.tenantmanager.dto.MaintenanceRequestCursor;
 import com.projects.tenantmanager.dto.MaintenanceRequestDto;
+import com.projects.tenantmanager.dto.MaintenanceRequestPage;
+import com.projects.tenantmanager.exception.DuplicateRequestException;
 import com.projects.tenantmanager.model.MaintenanceRequest;
 import com.projects.tenantmanager.model.MaintenanceRequest.Department;
 import com.projects.tenantmanager.model.MaintenanceRequest.Status;
 import com.projects.tenantmanager.model.User;
 import com.projects.tenantmanager.model.UserRole;
+import com.projects.tenantmanager.repository.MaintenanceRequestKey;
 import com.projects.tenantmanager.repository.MaintenanceRequestRepository;
 import com.projects.tenantmanager.repository.UserRepository;
 import org.junit.jupiter.api.BeforeEach;
@@ -14,14 +19,22 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
 
+import java.time.Instant;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -33,6 +46,18 @@ class MaintenanceServiceTest {
     @Mock
     private UserRepository userRepository;
 
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Mock
+    private MaintenanceRequestCache requestCache;
+
+    @Mock
+    private MaintenanceFingerprintFilter fingerprintFilter;
+
+    @Mock
+    private MaintenanceNearDuplicateIndex nearDuplicateIndex;
+
     @InjectMocks
     private MaintenanceService maintenanceService;
 
@@ -66,7 +91,7 @@ class MaintenanceServiceTest {
     void createRequest_Success() {
         // Arrange
         when(userRepository.findByUsername("tenant1")).thenReturn(Optional.of(testUser));
-        when(maintenanceRepository.save(any(MaintenanceRequest.class))).thenReturn(testRequest);
+        when(maintenanceRepository.saveAndFlush(any(MaintenanceRequest.class))).thenReturn(testRequest);
 
         // Act
         MaintenanceRequest result = maintenanceService.createRequest(testDto, "tenant1");
@@ -80,7 +105,52 @@ class MaintenanceServiceTest {
         assertFalse(result.isApproved());
 
         verify(userRepository).findByUsername("tenant1");
-        verify(maintenanceRepository).save(any(MaintenanceRequest.class));
+        verify(maintenanceRepository).saveAndFlush(any(MaintenanceRequest.class));
+        verify(maintenanceRepository, never()).existsByFingerprint(any());
+        verify(fingerprintFilter).add(RequestFingerprint.of("101", Department.PLUMBING, "Leaking faucet"));
+    }
+
+    @Test
+    void createRequest_SimilarOpenRequest_FlaggedAsPossibleDuplicate() {
+        // Arrange
+        UUID similar = UUID.randomUUID();
+        when(userRepository.findByUsername("tenant1")).thenReturn(Optional.of(testUser));
+        when(nearDuplicateIndex.findSimilar("101", Department.PLUMBING, "Leaking faucet")).thenReturn(similar);
+        when(maintenanceRepository.saveAndFlush(any(MaintenanceRequest.class))).thenAnswer(i -> i.getArgument(0));
+
+        // Act
+        MaintenanceRequest result = maintenanceService.createRequest(testDto, "tenant1");
+
+        // Assert
+        assertEquals(similar, result.getPossibleDuplicateOf());
+        assertEquals(Status.OPEN, result.getStatus());
+    }
+
+    @Test
+    void createRequest_StoredFingerprint_RejectedWithoutInsert() {
+        // Arrange
+        RequestFingerprint fingerprint = RequestFingerprint.of("101", Department.PLUMBING, "Leaking faucet");
+        when(userRepository.findByUsername("tenant1")).thenReturn(Optional.of(testUser));
+        when(fingerprintFilter.mightExist(fingerprint)).thenReturn(true);
+        when(maintenanceRepository.existsByFingerprint(fingerprint.toString())).thenReturn(true);
+
+        // Act & Assert
+        assertThrows(DuplicateRequestException.class, () -> maintenanceService.createRequest(testDto, "tenant1"));
+        verify(maintenanceRepository, never()).saveAndFlush(any());
+        verifyNoInteractions(eventPublisher);
+    }
+
+    @Test
+    void createRequest_ConcurrentDuplicate_RejectedByUniqueConstraint() {
+        // Arrange
+        when(userRepository.findByUsername("tenant1")).thenReturn(Optional.of(testUser));
+        when(maintenanceRepository.saveAndFlush(any(MaintenanceRequest.class))).thenThrow(
+                new DataIntegrityViolationException("duplicate key value violates unique constraint "
+                        + "\"uk_maintenance_request_fingerprint\""));
+
+        // Act & Assert
+        assertThrows(DuplicateRequestException.class, () -> maintenanceService.createRequest(testDto, "tenant1"));
+        verifyNoInteractions(eventPublisher);
     }
 
     @Test
@@ -94,14 +164,14 @@ class MaintenanceServiceTest {
         });
 
         verify(userRepository).findByUsername("nonexistent");
-        verify(maintenanceRepository, never()).save(any());
+        verify(maintenanceRepository, never()).saveAndFlush(any());
     }
 
     @Test
     void getAllRequests_Success() {
         // Arrange
         List<MaintenanceRequest> requests = Arrays.asList(testRequest);
-        when(maintenanceRepository.findAll()).thenReturn(requests);
+        when(requestCache.getRequests(null, null)).thenReturn(requests);
 
         // Act
         List<MaintenanceRequest> result = maintenanceService.getAllRequests();
@@ -111,14 +181,48 @@ class MaintenanceServiceTest {
         assertEquals(1, result.size());
         assertEquals(testRequest, result.get(0));
 
-        verify(maintenanceRepository).findAll();
+        verify(requestCache).getRequests(null, null);
+    }
+
+    @Test
+    void getRequestPage_ExtraRowProducesCursorOfLastReturnedRow() {
+        // Arrange
+        MaintenanceRequest second = new MaintenanceRequest();
+        second.setId(UUID.randomUUID());
+        second.setCreatedAt(Instant.parse("2024-01-01T00:00:00Z"));
+        testRequest.setCreatedAt(Instant.parse("2024-01-02T00:00:00Z"));
+        when(maintenanceRepository.findBy(any(Specification.class), any()))
+                .thenReturn(List.of(testRequest, second));
+
+        // Act
+        MaintenanceRequestPage page = maintenanceService.getRequestPage(Status.OPEN, null, null, null,
+                Sort.Direction.DESC, null, 1);
+
+        // Assert
+        assertEquals(List.of(testRequest), page.getRequests());
+        assertEquals(new MaintenanceRequestCursor(testRequest.getCreatedAt(), testRequest.getId()),
+                MaintenanceRequestCursor.decode(page.getNextCursor()));
+    }
+
+    @Test
+    void getRequestPage_LastPageHasNoCursor() {
+        // Arrange
+        when(maintenanceRepository.findBy(any(Specification.class), any())).thenReturn(List.of(testRequest));
+
+        // Act
+        MaintenanceRequestPage page = maintenanceService.getRequestPage(null, null, null, null,
+                Sort.Direction.ASC, null, 2);
+
+        // Assert
+        assertEquals(1, page.getRequests().size());
+        assertNull(page.getNextCursor());
     }
 
     @Test
     void getRequestsByStatus_Success() {
         // Arrange
         List<MaintenanceRequest> requests = Arrays.asList(testRequest);
-        when(maintenanceRepository.findByStatus(Status.OPEN)).thenReturn(requests);
+        when(requestCache.getRequests(Status.OPEN, null)).thenReturn(requests);
 
         // Act
         List<MaintenanceRequest> result = maintenanceService.getRequestsByStatus("OPEN");
@@ -128,14 +232,14 @@ class MaintenanceServiceTest {
         assertEquals(1, result.size());
         assertEquals(Status.OPEN, result.get(0).getStatus());
 
-        verify(maintenanceRepository).findByStatus(Status.OPEN);
+        verify(requestCache).getRequests(Status.OPEN, null);
     }
 
     @Test
     void getRequestsByDepartment_Success() {
         // Arrange
         List<MaintenanceRequest> requests = Arrays.asList(testRequest);
-        when(maintenanceRepository.findByDepartment(Department.PLUMBING)).thenReturn(requests);
+        when(requestCache.getRequests(null, Department.PLUMBING)).thenReturn(requests);
 
         // Act
         List<MaintenanceRequest> result = maintenanceService.getRequestsByDepartment("PLUMBING");
@@ -145,15 +249,14 @@ class MaintenanceServiceTest {
         assertEquals(1, result.size());
         assertEquals(Department.PLUMBING, result.get(0).getDepartment());
 
-        verify(maintenanceRepository).findByDepartment(Department.PLUMBING);
+        verify(requestCache).getRequests(null, Department.PLUMBING);
     }
 
     @Test
     void getRequestsByStatusAndDepartment_Success() {
         // Arrange
         List<MaintenanceRequest> requests = Arrays.asList(testRequest);
-        when(maintenanceRepository.findByStatusAndDepartment(Status.OPEN, Department.PLUMBING))
-                .thenReturn(requests);
+        when(requestCache.getRequests(Status.OPEN, Department.PLUMBING)).thenReturn(requests);
 
         // Act
         List<MaintenanceRequest> result = maintenanceService.getRequestsByStatusAndDepartment("OPEN", "PLUMBING");
@@ -164,7 +267,7 @@ class MaintenanceServiceTest {
         assertEquals(Status.OPEN, result.get(0).getStatus());
         assertEquals(Department.PLUMBING, result.get(0).getDepartment());
 
-        verify(maintenanceRepository).findByStatusAndDepartment(Status.OPEN, Department.PLUMBING);
+        verify(requestCache).getRequests(Status.OPEN, Department.PLUMBING);
     }
 
     @Test
@@ -184,6 +287,8 @@ class MaintenanceServiceTest {
 
         verify(maintenanceRepository).findById(requestId);
         verify(maintenanceRepository).save(testRequest);
+        verify(eventPublisher).publishEvent(new MaintenanceChangeEvent(requestId, Status.OPEN, Department.PLUMBING,
+                Status.IN_PROGRESS, Department.PLUMBING));
     }
 
     @Test
@@ -267,4 +372,63 @@ class MaintenanceServiceTest {
         verify(maintenanceRepository).findById(requestId);
         verify(maintenanceRepository, never()).save(any());
     }
+
+    @Test
+    void approveRequests_UpdatesFoundRequestsInOneStatementAndReportsMissing() {
+        // Arrange
+        UUID requestId = testRequest.getId();
+        UUID missingId = UUID.randomUUID();
+        when(maintenanceRepository.touchByIdIn(any(), any())).thenReturn(1);
+        when(maintenanceRepository.findKeysByIdIn(any())).thenReturn(List.of(key(requestId, Status.OPEN,
+                Department.PLUMBING)));
+        when(maintenanceRepository.updateStatusAndApproval(any(), any(), anyBoolean(), any())).thenReturn(1);
+
+        // Act
+        List<BulkUpdateResult> results = maintenanceService.approveRequests(List.of(requestId, missingId, requestId));
+
+        // Assert
+        assertEquals(List.of(
+                new BulkUpdateResult(requestId, BulkUpdateResult.Outcome.UPDATED, Status.IN_PROGRESS),
+                new BulkUpdateResult(missingId, BulkUpdateResult.Outcome.NOT_FOUND, null)), results);
+        verify(maintenanceRepository).updateStatusAndApproval(eq(Set.of(requestId)), eq(Status.IN_PROGRESS),
+                eq(true), any());
+        verify(eventPublisher).publishEvent(new MaintenanceBulkChangeEvent(List.of(new MaintenanceChangeEvent(
+                requestId, Status.OPEN, Department.PLUMBING, Status.IN_PROGRESS, Department.PLUMBING))));
+        verify(maintenanceRepository, never()).save(any());
+    }
+
+    @Test
+    void updateStatuses_NoneFound_UpdatesAndPublishesNothing() {
+        // Arrange
+        UUID missingId = UUID.randomUUID();
+        when(maintenanceRepository.touchByIdIn(any(), any())).thenReturn(0);
+
+        // Act
+        List<BulkUpdateResult> results = maintenanceService.updateStatuses(List.of(missingId), "RESOLVED");
+
+        // Assert
+        assertEquals(List.of(new BulkUpdateResult(missingId, BulkUpdateResult.Outcome.NOT_FOUND, null)), results);
+        verify(maintenanceRepository, never()).findKeysByIdIn(any());
+        verify(maintenanceRepository, never()).updateStatus(any(), any(), any());
+        verifyNoInteractions(eventPublisher);
+    }
+
+    private static MaintenanceRequestKey key(UUID id, Status status, Department department) {
+        return new MaintenanceRequestKey() {
+            @Override
+            public UUID getId() {
+                return id;
+            }
+
+            @Override
+            public Status getStatus() {
+                return status;
+            }
+
+            @Override
+            public Department getDepartment() {
+                return department;
+            }
+        };
+    }
 }
@@ -0,0 +1,94 @@
+package com.projects.tenantmanager.service;
+
+import com.projects.tenantmanager.dto.MaintenanceStatsDto;
+import com.projects.tenantmanager.model.MaintenanceRequest.Department;
+import com.projects.tenantmanager.model.MaintenanceRequest.Status;
+import com.projects.tenantmanager.repository.MaintenanceRequestCount;
+import com.projects.tenantmanager.repository.MaintenanceRequestRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class MaintenanceStatsTest {
+
+    @Mock
+    private MaintenanceRequestRepository maintenanceRepository;
+
+    private MaintenanceStats maintenanceStats;
+
+    @BeforeEach
+    void setUp() {
+        maintenanceStats = new MaintenanceStats(maintenanceRepository);
+    }
+
+    private static MaintenanceRequestCount count(Status status, Department department, long count) {
+        return new MaintenanceRequestCount() {
+            @Override
+            public Status getStatus() {
+                return status;
+            }
+
+            @Override
+            public Department getDepartment() {
+                return department;
+            }
+
+            @Override
+            public long getCount() {
+                return count;
+            }
+        };
+    }
+
+    @Test
+    void onChange_MovesCountBetweenCells() {
+        // Arrange
+        UUID id = UUID.randomUUID();
+        maintenanceStats.onChange(MaintenanceChangeEvent.created(id, "tenant1", Status.OPEN, Department.PLUMBING));
+        maintenanceStats.onChange(
+                MaintenanceChangeEvent.created(UUID.randomUUID(), "tenant1", Status.OPEN, Department.HVAC));
+
+        // Act
+        maintenanceStats.onChange(new MaintenanceChangeEvent(id, Status.OPEN, Department.PLUMBING,
+                Status.IN_PROGRESS, Department.PLUMBING));
+
+        // Assert
+        MaintenanceStatsDto stats = maintenanceStats.getStats();
+        assertEquals(0L, stats.getByStatusAndDepartment().get(Status.OPEN).get(Department.PLUMBING));
+        assertEquals(1L, stats.getByStatusAndDepartment().get(Status.IN_PROGRESS).get(Department.PLUMBING));
+        assertEquals(1L, stats.getByStatus().get(Status.OPEN));
+        assertEquals(2L, stats.getTotal());
+        verifyNoInteractions(maintenanceRepository);
+    }
+
+    @Test
+    void reconcile_CorrectsDriftAndKeepsLaterWrites() {
+        // Arrange
+        maintenanceStats.onChange(
+                MaintenanceChangeEvent.created(UUID.randomUUID(), "tenant1", Status.OPEN, Department.HVAC));
+        when(maintenanceRepository.countByStatusAndDepartment()).thenReturn(List.of(
+                count(Status.OPEN, Department.PLUMBING, 5),
+                count(Status.RESOLVED, null, 2)));
+
+        // Act
+        maintenanceStats.reconcile();
+        maintenanceStats.onChange(
+                MaintenanceChangeEvent.created(UUID.randomUUID(), "tenant1", Status.OPEN, Department.PLUMBING));
+
+        // Assert
+        MaintenanceStatsDto stats = maintenanceStats.getStats();
+        assertEquals(6L, stats.getByStatusAndDepartment().get(Status.OPEN).get(Department.PLUMBING));
+        assertEquals(0L, stats.getByStatusAndDepartment().get(Status.OPEN).get(Department.HVAC));
+        assertEquals(2L, stats.getByStatus().get(Status.RESOLVED));
+        assertEquals(8L, stats.getTotal());
+    }
+}
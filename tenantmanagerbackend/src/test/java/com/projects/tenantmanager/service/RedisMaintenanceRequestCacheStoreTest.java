@@ -0,0 +1,130 @@
+package com.projects.tenantmanager.service;
+
+import com.projects.tenantmanager.model.MaintenanceRequest;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.redis.core.ListOperations;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.SessionCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.ValueOperations;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.data.redis.serializer.Jackson2JsonRedisSerializer;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class RedisMaintenanceRequestCacheStoreTest {
+
+    @Mock
+    private RedisTemplate<String, MaintenanceRequest> requestTemplate;
+
+    @Mock
+    private StringRedisTemplate indexTemplate;
+
+    @Mock
+    private ValueOperations<String, MaintenanceRequest> valueOperations;
+
+    @Mock
+    private ListOperations<String, String> listOperations;
+
+    private RedisMaintenanceRequestCacheStore store;
+
+    @BeforeEach
+    void setUp() {
+        store = new RedisMaintenanceRequestCacheStore(requestTemplate, indexTemplate, 300, 600, 600);
+    }
+
+    @Test
+    void members_WithoutMarker_ReturnsNull() {
+        // Arrange
+        when(indexTemplate.executePipelined(any(SessionCallback.class))).thenReturn(Arrays.asList(false, Set.of()));
+
+        // Act & Assert
+        assertNull(store.members("all"));
+    }
+
+    @Test
+    void members_WithMarker_ReturnsIdsFromOnePipeline() {
+        // Arrange
+        UUID id = UUID.randomUUID();
+        when(indexTemplate.executePipelined(any(SessionCallback.class)))
+                .thenReturn(Arrays.asList(true, Set.of(id.toString())));
+
+        // Act & Assert
+        assertEquals(Set.of(id), store.members("status:OPEN"));
+        verify(indexTemplate, times(1)).executePipelined(any(SessionCallback.class));
+    }
+
+    @Test
+    void getAll_FetchesAllRequestsInOneMultiGet() {
+        // Arrange
+        UUID first = UUID.randomUUID();
+        UUID second = UUID.randomUUID();
+        MaintenanceRequest request = new MaintenanceRequest();
+        when(requestTemplate.opsForValue()).thenReturn(valueOperations);
+        when(valueOperations.multiGet(List.of("mr:request:" + first, "mr:request:" + second)))
+                .thenReturn(Arrays.asList(request, null));
+
+        // Act
+        List<MaintenanceRequest> requests = store.getAll(List.of(first, second));
+
+        // Assert
+        assertEquals(Arrays.asList(request, null), requests);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void tenantRequests_ReadsTheListAndCachesItOnlyAtTheVersionReadBeforeLoading() {
+        // Arrange
+        UUID first = UUID.randomUUID();
+        UUID second = UUID.randomUUID();
+        when(indexTemplate.opsForList()).thenReturn(listOperations);
+        when(listOperations.range("mr:tenant:tenant1", 0, -1)).thenReturn(List.of(first.toString(),
+                second.toString()));
+        when(listOperations.range("mr:tenant:tenant2", 0, -1)).thenReturn(List.of());
+
+        // Act
+        store.putTenantRequests("tenant1", List.of(first, second), 7);
+
+        // Assert
+        assertEquals(List.of(first, second), store.tenantRequests("tenant1"));
+        assertNull(store.tenantRequests("tenant2"));
+        verify(indexTemplate).execute(any(RedisScript.class),
+                eq(List.of("mr:tenant:tenant1", "mr:tenant-version:tenant1")),
+                eq("7"), eq("600"), eq(first.toString()), eq(second.toString()));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void putAll_WritesRequestsOnlyAtTheVersionReadBeforeLoading() {
+        // Arrange
+        MaintenanceRequest request = new MaintenanceRequest();
+        request.setId(UUID.randomUUID());
+        request.setDescription("Leaking tap");
+        Jackson2JsonRedisSerializer<MaintenanceRequest> serializer =
+                new Jackson2JsonRedisSerializer<>(MaintenanceRequest.class);
+        doReturn(serializer).when(requestTemplate).getValueSerializer();
+
+        // Act
+        store.putAll(List.of(request), 3);
+
+        // Assert
+        verify(indexTemplate).execute(any(RedisScript.class),
+                eq(List.of("mr:request-version", "mr:request:" + request.getId())),
+                eq("3"), eq("300"), eq(new String(serializer.serialize(request), StandardCharsets.UTF_8)));
+        verify(requestTemplate, never()).opsForValue();
+    }
+}
@@ -0,0 +1,153 @@
+package com.projects.tenantmanager.service;
+
+import com.projects.tenantmanager.dto.ActiveSessionDto;
+import com.projects.tenantmanager.dto.SessionPage;
+import com.projects.tenantmanager.security.TokenDigest;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.SessionCallback;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.data.redis.serializer.RedisSerializer;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class RedisSessionStoreTest {
+
+    @Mock
+    private RedisTemplate<String, Object> redisTemplate;
+
+    private RedisSessionStore redisSessionStore;
+
+    @BeforeEach
+    void setUp() {
+        redisSessionStore = new RedisSessionStore(redisTemplate, TimeUnit.HOURS.toMillis(24));
+    }
+
+    @Test
+    void store_WritesBothKeysInOneScript() {
+        // Act
+        redisSessionStore.store("tenant1", "jwt-1");
+
+        // Assert
+        verify(redisTemplate).execute(any(RedisScript.class), eq(List.of("session:tenant1", "token:jwt-1")),
+                eq("jwt-1"), eq("tenant1"), eq(36000L));
+        verify(redisTemplate, never()).opsForValue();
+    }
+
+    @Test
+    void contains_ChecksTokenKey() {
+        // Arrange
+        when(redisTemplate.hasKey("token:jwt-1")).thenReturn(true);
+
+        // Act & Assert
+        assertTrue(redisSessionStore.contains("jwt-1"));
+    }
+
+    @Test
+    void remove_ReturnsDigestOfRemovedToken() {
+        // Arrange
+        when(redisTemplate.execute(any(RedisScript.class), eq(List.of("session:tenant1")))).thenReturn("jwt-1");
+
+        // Act
+        TokenDigest digest = redisSessionStore.remove("tenant1");
+
+        // Assert
+        assertEquals(TokenDigest.of("jwt-1"), digest);
+    }
+
+    @Test
+    void removeAll_RevokesAllUsersInOneScript() {
+        // Arrange
+        when(redisTemplate.execute(any(RedisScript.class),
+                eq(List.of("session:tenant1", "session:tenant2", "session:tenant3"))))
+                .thenReturn(List.of("jwt-1", "jwt-3"));
+
+        // Act
+        List<TokenDigest> digests = redisSessionStore.removeAll(List.of("tenant1", "tenant2", "tenant3"));
+
+        // Assert
+        assertEquals(List.of(TokenDigest.of("jwt-1"), TokenDigest.of("jwt-3")), digests);
+    }
+
+    @Test
+    void revoke_RecordsAndPublishesInOnePipeline() {
+        // Act
+        redisSessionStore.revoke(List.of(TokenDigest.of("jwt-1"), TokenDigest.of("jwt-2")));
+
+        // Assert
+        verify(redisTemplate, times(1)).executePipelined(any(SessionCallback.class));
+    }
+
+    @Test
+    void isRevoked_ChecksRevocationKey() {
+        // Arrange
+        when(redisTemplate.hasKey("revoked:" + TokenDigest.of("jwt-1"))).thenReturn(true);
+
+        // Act & Assert
+        assertTrue(redisSessionStore.isRevoked(TokenDigest.of("jwt-1")));
+        assertFalse(redisSessionStore.isRevoked(TokenDigest.of("jwt-2")));
+    }
+
+    @Test
+    void advanceGenerations_ReturnsAdvancedUsersAndPublishes() {
+        // Arrange
+        when(redisTemplate.execute(any(RedisScript.class), eq(List.of("gen:tenant1", "gen:tenant2", "gen:tenant3")),
+                eq(86400L))).thenReturn(List.of(1L, 3L));
+
+        // Act
+        List<String> advanced = redisSessionStore.advanceGenerations(List.of("tenant1", "tenant2", "tenant3"));
+
+        // Assert
+        assertEquals(List.of("tenant1", "tenant3"), advanced);
+        verify(redisTemplate, times(1)).executePipelined(any(SessionCallback.class));
+    }
+
+    @Test
+    void acquireGeneration_NewRecordStartsAtClockAndLivesForTokenLifetime() {
+        // Arrange
+        long before = System.currentTimeMillis();
+
+        // Act
+        long generation = redisSessionStore.acquireGeneration("tenant1");
+
+        // Assert: with no script result, the generation offered to the script
+        verify(redisTemplate).execute(any(RedisScript.class), eq(List.of("gen:tenant1")), eq(86400L), eq(generation));
+        assertTrue(generation >= before && generation <= System.currentTimeMillis());
+    }
+
+    @Test
+    void list_ReturnsThePageAndTheCursorScanReturned() {
+        // Arrange
+        when(redisTemplate.execute(any(RedisScript.class), any(RedisSerializer.class), any(RedisSerializer.class),
+                eq(List.of()), eq("0"), eq("session:*"), eq("2")))
+                .thenReturn(List.of("17", List.of("session:tenant1", "session:tenant2")));
+        when(redisTemplate.executePipelined(any(SessionCallback.class))).thenReturn(List.of(3600L, 60L));
+
+        // Act
+        SessionPage page = redisSessionStore.list("0", 2);
+
+        // Assert
+        assertEquals("17", page.getNextCursor());
+        assertEquals(List.of("tenant1", "tenant2"),
+                page.getSessions().stream().map(ActiveSessionDto::getUsername).toList());
+        assertEquals(60L, page.getSessions().get(1).getExpiresInSeconds());
+    }
+
+    @Test
+    void list_InvalidCursor_RejectedWithoutCallingRedis() {
+        // Act & Assert
+        assertThrows(IllegalArgumentException.class, () -> redisSessionStore.list("abc", 2));
+        verifyNoInteractions(redisTemplate);
+    }
+}
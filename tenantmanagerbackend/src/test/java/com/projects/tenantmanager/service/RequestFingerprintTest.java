@@ -0,0 +1,32 @@
+package com.projects.tenantmanager.service;
+
+import com.projects.tenantmanager.model.MaintenanceRequest.Department;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RequestFingerprintTest {
+
+    @Test
+    void of_IgnoresCaseWhitespaceAndUnicodeForm() {
+        // Act
+        RequestFingerprint plain = RequestFingerprint.of("101", Department.PLUMBING, "Fix the café sink");
+        RequestFingerprint variant = RequestFingerprint.of(" 101 ", Department.PLUMBING, "  fix THE\n café   sink ");
+
+        // Assert
+        assertEquals(plain, variant);
+        assertNotEquals(plain, RequestFingerprint.of("101", Department.HVAC, "Fix the café sink"));
+        assertNotEquals(plain, RequestFingerprint.of("102", Department.PLUMBING, "Fix the café sink"));
+    }
+
+    @Test
+    void parse_RoundTripsThroughHexForm() {
+        // Arrange
+        RequestFingerprint fingerprint = RequestFingerprint.of("101", Department.PLUMBING, "Fix leak");
+
+        // Act & Assert
+        assertEquals(32, fingerprint.toString().length());
+        assertEquals(fingerprint, RequestFingerprint.parse(fingerprint.toString()));
+        assertThrows(IllegalArgumentException.class, () -> RequestFingerprint.parse("abc"));
+    }
+}
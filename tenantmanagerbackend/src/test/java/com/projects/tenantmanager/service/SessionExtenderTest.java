@@ -0,0 +1,83 @@
+package com.projects.tenantmanager.service;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyMap;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class SessionExtenderTest {
+
+    @Mock
+    private SessionService sessionService;
+
+    private MeterRegistry meterRegistry;
+    private SessionExtender sessionExtender;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        sessionExtender = new SessionExtender(sessionService, meterRegistry, 60, 2);
+    }
+
+    @Test
+    void touch_RepeatedWithinWindow_ExtendsOnce() {
+        // Act
+        sessionExtender.touch("jwt-1", "tenant1");
+        sessionExtender.touch("jwt-1", "tenant1");
+        sessionExtender.touch("jwt-1", "tenant1");
+        sessionExtender.flush();
+        sessionExtender.touch("jwt-1", "tenant1");
+        sessionExtender.flush();
+
+        // Assert
+        verify(sessionService, times(1)).extendSessions(Map.of("jwt-1", "tenant1"));
+        assertEquals(4, meterRegistry.counter("session.extension.requests").count());
+        assertEquals(3, meterRegistry.counter("session.extension.coalesced").count());
+        assertEquals(1, meterRegistry.counter("session.extension.flushed").count());
+    }
+
+    @Test
+    void flush_SplitsPendingTokensIntoBatches() {
+        // Arrange
+        sessionExtender.touch("jwt-1", "tenant1");
+        sessionExtender.touch("jwt-2", "tenant2");
+        sessionExtender.touch("jwt-3", "tenant3");
+
+        // Act
+        sessionExtender.flush();
+
+        // Assert
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<Map<String, String>> batches = ArgumentCaptor.forClass(Map.class);
+        verify(sessionService, times(2)).extendSessions(batches.capture());
+        assertEquals(3, batches.getAllValues().stream().mapToInt(Map::size).sum());
+        assertEquals(0, meterRegistry.get("session.extension.pending").gauge().value());
+    }
+
+    @Test
+    void flush_RedisFailure_AllowsTokenToBeRetried() {
+        // Arrange
+        doThrow(new RuntimeException("Redis down")).doNothing().when(sessionService).extendSessions(anyMap());
+        sessionExtender.touch("jwt-1", "tenant1");
+
+        // Act
+        sessionExtender.flush();
+        sessionExtender.touch("jwt-1", "tenant1");
+        sessionExtender.flush();
+
+        // Assert
+        verify(sessionService, times(2)).extendSessions(Map.of("jwt-1", "tenant1"));
+        assertEquals(0, meterRegistry.counter("session.extension.coalesced").count());
+    }
+}
@@ -0,0 +1,212 @@
+package com.projects.tenantmanager.service;
+
+import com.projects.tenantmanager.security.SessionMode;
+import com.projects.tenantmanager.security.TokenDigest;
+import com.projects.tenantmanager.security.TokenRevocationFilter;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class SessionServiceTest {
+
+    @Mock
+    private SessionStore sessionStore;
+
+    private TokenRevocationFilter tokenRevocationFilter;
+    private SessionService sessionService;
+
+    @BeforeEach
+    void setUp() {
+        tokenRevocationFilter = new TokenRevocationFilter(TimeUnit.HOURS.toMillis(24), 0, 1000, 0.001);
+        sessionService = new SessionService(sessionStore, tokenRevocationFilter, SessionMode.ALLOWLIST, 100, 30);
+    }
+
+    @Test
+    void isTokenValid_RepeatedCallsServedFromNearCache() {
+        // Arrange
+        when(sessionStore.contains("jwt-1")).thenReturn(true);
+
+        // Act
+        boolean first = sessionService.isTokenValid("jwt-1");
+        boolean second = sessionService.isTokenValid("jwt-1");
+
+        // Assert
+        assertTrue(first);
+        assertTrue(second);
+        verify(sessionStore, times(1)).contains("jwt-1");
+    }
+
+    @Test
+    void isTokenValid_UnknownTokenIsNotCached() {
+        // Arrange
+        when(sessionStore.contains("jwt-1")).thenReturn(false);
+
+        // Act
+        sessionService.isTokenValid("jwt-1");
+        boolean valid = sessionService.isTokenValid("jwt-1");
+
+        // Assert
+        assertFalse(valid);
+        verify(sessionStore, times(2)).contains("jwt-1");
+    }
+
+    @Test
+    void invalidateSession_EvictsNearCacheAndRevokesToken() {
+        // Arrange
+        when(sessionStore.contains("jwt-1")).thenReturn(true, false);
+        when(sessionStore.remove("tenant1")).thenReturn(TokenDigest.of("jwt-1"));
+        sessionService.isTokenValid("jwt-1");
+
+        // Act
+        sessionService.invalidateSession("tenant1");
+
+        // Assert
+        assertFalse(sessionService.isTokenValid("jwt-1"));
+        verify(sessionStore).revoke(List.of(TokenDigest.of("jwt-1")));
+    }
+
+    @Test
+    void invalidateSession_NoSession_RevokesNothing() {
+        // Arrange
+        when(sessionStore.remove("tenant1")).thenReturn(null);
+
+        // Act
+        sessionService.invalidateSession("tenant1");
+
+        // Assert
+        verify(sessionStore, never()).revoke(any());
+    }
+
+    @Test
+    void invalidateSessions_RevokesAllUsersAndReturnsCount() {
+        // Arrange
+        List<TokenDigest> digests = List.of(TokenDigest.of("jwt-1"), TokenDigest.of("jwt-3"));
+        when(sessionStore.removeAll(List.of("tenant1", "tenant2", "tenant3"))).thenReturn(digests);
+
+        // Act
+        int revoked = sessionService.invalidateSessions(List.of("tenant1", "tenant2", "tenant3"));
+
+        // Assert
+        assertEquals(2, revoked);
+        verify(sessionStore).revoke(digests);
+    }
+
+    @Test
+    void evictLocal_RemovesTokenRevokedOnAnotherNode() {
+        // Arrange
+        when(sessionStore.contains("jwt-1")).thenReturn(true, false);
+        sessionService.isTokenValid("jwt-1");
+
+        // Act
+        sessionService.evictLocal(TokenDigest.parse(TokenDigest.of("jwt-1").toString()));
+
+        // Assert
+        assertFalse(sessionService.isTokenValid("jwt-1"));
+        verify(sessionStore, times(2)).contains("jwt-1");
+    }
+
+    @Test
+    void isRevoked_UnknownToken_NoStoreCall() {
+        // Act
+        boolean revoked = sessionService.isRevoked("jwt-1");
+
+        // Assert
+        assertFalse(revoked);
+        verifyNoInteractions(sessionStore);
+    }
+
+    @Test
+    void isRevoked_RevokedToken_ConfirmedByStore() {
+        // Arrange
+        when(sessionStore.remove("tenant1")).thenReturn(TokenDigest.of("jwt-1"));
+        when(sessionStore.isRevoked(TokenDigest.of("jwt-1"))).thenReturn(true);
+        sessionService.invalidateSession("tenant1");
+
+        // Act & Assert
+        assertTrue(sessionService.isRevoked("jwt-1"));
+        assertTrue(tokenRevocationFilter.mightBeRevoked(TokenDigest.of("jwt-1")));
+    }
+
+    @Test
+    void isRevoked_FilterFalsePositive_RejectedByStore() {
+        // Arrange
+        tokenRevocationFilter.add(TokenDigest.of("jwt-1"));
+        when(sessionStore.isRevoked(TokenDigest.of("jwt-1"))).thenReturn(false);
+
+        // Act & Assert
+        assertFalse(sessionService.isRevoked("jwt-1"));
+    }
+
+    @Test
+    void isGenerationCurrent_RepeatedCallsServedFromNearCache() {
+        // Arrange
+        when(sessionStore.getGeneration("tenant1")).thenReturn(3L);
+
+        // Act & Assert
+        assertTrue(sessionService.isGenerationCurrent("tenant1", 3));
+        assertFalse(sessionService.isGenerationCurrent("tenant1", 2));
+        verify(sessionStore, times(1)).getGeneration("tenant1");
+    }
+
+    @Test
+    void isGenerationCurrent_NoGeneration_ReturnsFalse() {
+        // Arrange
+        when(sessionStore.getGeneration("tenant1")).thenReturn(null);
+
+        // Act & Assert
+        assertFalse(sessionService.isGenerationCurrent("tenant1", 1));
+    }
+
+    @Test
+    void invalidateSession_GenerationMode_AdvancesGenerationAndRemovesLegacySession() {
+        // Arrange
+        sessionService = new SessionService(sessionStore, tokenRevocationFilter, SessionMode.GENERATION, 100, 30);
+        when(sessionStore.getGeneration("tenant1")).thenReturn(1L, 2L);
+        when(sessionStore.advanceGenerations(List.of("tenant1"))).thenReturn(List.of("tenant1"));
+        sessionService.isGenerationCurrent("tenant1", 1);
+
+        // Act
+        sessionService.invalidateSession("tenant1");
+
+        // Assert
+        assertFalse(sessionService.isGenerationCurrent("tenant1", 1));
+        verify(sessionStore).remove("tenant1");
+    }
+
+    @Test
+    void invalidateSessions_GenerationMode_CountsAdvancedAndLegacySessions() {
+        // Arrange
+        sessionService = new SessionService(sessionStore, tokenRevocationFilter, SessionMode.GENERATION, 100, 30);
+        List<String> usernames = List.of("tenant1", "tenant2");
+        when(sessionStore.advanceGenerations(usernames)).thenReturn(List.of("tenant1"));
+        when(sessionStore.removeAll(usernames)).thenReturn(List.of(TokenDigest.of("jwt-2")));
+
+        // Act
+        int revoked = sessionService.invalidateSessions(usernames);
+
+        // Assert
+        assertEquals(2, revoked);
+    }
+
+    @Test
+    void listSessions_GenerationMode_Rejected() {
+        // Arrange
+        sessionService = new SessionService(sessionStore, tokenRevocationFilter, SessionMode.GENERATION, 100, 30);
+
+        // Act & Assert
+        IllegalStateException e = assertThrows(IllegalStateException.class,
+                () -> sessionService.listSessions("0", 100));
+        assertTrue(e.getMessage().contains("GENERATION"));
+        verify(sessionStore, never()).list(any(), anyInt());
+    }
+}
@@ -1,10 +1,12 @@
 package com.projects.tenantmanager.service;
 
 import com.projects.tenantmanager.dto.AuthResponse;
+import com.projects.tenantmanager.exception.ServiceBusyException;
 import com.projects.tenantmanager.model.User;
 import com.projects.tenantmanager.model.UserRole;
 import com.projects.tenantmanager.repository.UserRepository;
 import com.projects.tenantmanager.security.JwtUtil;
+import com.projects.tenantmanager.security.PasswordVerifier;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -12,7 +14,6 @@ import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.security.authentication.BadCredentialsException;
-import org.springframework.security.crypto.password.PasswordEncoder;
 
 import java.util.Optional;
 
@@ -27,13 +28,13 @@ class UserServiceTest {
     private UserRepository userRepository;
 
     @Mock
-    private PasswordEncoder passwordEncoder;
+    private PasswordVerifier passwordVerifier;
 
     @Mock
     private JwtUtil jwtUtil;
 
     @Mock
-    private RedisSessionService redisSessionService;
+    private SessionService sessionService;
 
     @InjectMocks
     private UserService userService;
@@ -56,9 +57,9 @@ class UserServiceTest {
         String token = "jwt-token-123";
 
         when(userRepository.findByUsername("testuser")).thenReturn(Optional.of(testUser));
-        when(passwordEncoder.matches(rawPassword, testUser.getPassword())).thenReturn(true);
+        when(passwordVerifier.matches(rawPassword, testUser.getPassword())).thenReturn(true);
         when(jwtUtil.generateToken(anyString(), anyString())).thenReturn(token);
-        doNothing().when(redisSessionService).storeUserSession(anyString(), anyString());
+        doNothing().when(sessionService).storeUserSession(anyString(), anyString());
 
         // Act
         AuthResponse response = userService.authenticate("testuser", rawPassword);
@@ -70,9 +71,26 @@ class UserServiceTest {
         assertEquals("TENANT", response.getUser().getRole());
 
         verify(userRepository).findByUsername("testuser");
-        verify(passwordEncoder).matches(rawPassword, testUser.getPassword());
+        verify(passwordVerifier).matches(rawPassword, testUser.getPassword());
         verify(jwtUtil).generateToken("testuser", "TENANT");
-        verify(redisSessionService).storeUserSession("testuser", token);
+        verify(sessionService).storeUserSession("testuser", token);
+    }
+
+    @Test
+    void authenticate_GenerationMode_EmbedsGenerationWithoutStoringToken() {
+        // Arrange
+        when(userRepository.findByUsername("testuser")).thenReturn(Optional.of(testUser));
+        when(passwordVerifier.matches("password123", testUser.getPassword())).thenReturn(true);
+        when(sessionService.usesGenerations()).thenReturn(true);
+        when(sessionService.acquireGeneration("testuser")).thenReturn(4L);
+        when(jwtUtil.generateToken("testuser", "TENANT", 4L)).thenReturn("jwt-token-123");
+
+        // Act
+        AuthResponse response = userService.authenticate("testuser", "password123");
+
+        // Assert
+        assertEquals("jwt-token-123", response.getToken());
+        verify(sessionService, never()).storeUserSession(anyString(), anyString());
     }
 
     @Test
@@ -86,7 +104,7 @@ class UserServiceTest {
         });
 
         verify(userRepository).findByUsername("nonexistent");
-        verify(passwordEncoder, never()).matches(anyString(), anyString());
+        verify(passwordVerifier, never()).matches(anyString(), anyString());
         verify(jwtUtil, never()).generateToken(anyString(), anyString());
     }
 
@@ -95,7 +113,7 @@ class UserServiceTest {
         // Arrange
         String wrongPassword = "wrongpassword";
         when(userRepository.findByUsername("testuser")).thenReturn(Optional.of(testUser));
-        when(passwordEncoder.matches(wrongPassword, testUser.getPassword())).thenReturn(false);
+        when(passwordVerifier.matches(wrongPassword, testUser.getPassword())).thenReturn(false);
 
         // Act & Assert
         assertThrows(BadCredentialsException.class, () -> {
@@ -103,19 +121,35 @@ class UserServiceTest {
         });
 
         verify(userRepository).findByUsername("testuser");
-        verify(passwordEncoder).matches(wrongPassword, testUser.getPassword());
+        verify(passwordVerifier).matches(wrongPassword, testUser.getPassword());
+        verify(jwtUtil, never()).generateToken(anyString(), anyString());
+    }
+
+    @Test
+    void authenticate_VerifierSaturated_PropagatesServiceBusy() {
+        // Arrange
+        when(userRepository.findByUsername("testuser")).thenReturn(Optional.of(testUser));
+        when(passwordVerifier.matches("password123", testUser.getPassword()))
+                .thenThrow(new ServiceBusyException("Password verification queue is full", 2));
+
+        // Act & Assert
+        assertThrows(ServiceBusyException.class, () -> {
+            userService.authenticate("testuser", "password123");
+        });
+
         verify(jwtUtil, never()).generateToken(anyString(), anyString());
+        verify(sessionService, never()).storeUserSession(anyString(), anyString());
     }
 
     @Test
     void logout_Success() {
         // Arrange
-        doNothing().when(redisSessionService).invalidateSession("testuser");
+        doNothing().when(sessionService).invalidateSession("testuser");
 
         // Act
         userService.logout("testuser");
 
         // Assert
-        verify(redisSessionService).invalidateSession("testuser");
+        verify(sessionService).invalidateSession("testuser");
     }
 }
@@ -0,0 +1,49 @@
+package com.projects.tenantmanager.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BloomFilterTest {
+
+    @Test
+    void mightContain_InsertedKeys_AlwaysTrue() {
+        // Arrange
+        BloomFilter filter = new BloomFilter(1_000, 0.01);
+        SplittableRandom random = new SplittableRandom(42);
+        long[][] keys = new long[1_000][2];
+        for (long[] key : keys) {
+            key[0] = random.nextLong();
+            key[1] = random.nextLong();
+            filter.put(key[0], key[1]);
+        }
+
+        // Act & Assert
+        for (long[] key : keys) {
+            assertTrue(filter.mightContain(key[0], key[1]));
+        }
+    }
+
+    @Test
+    void mightContain_UnknownKeys_FalsePositiveRateNearTarget() {
+        // Arrange
+        BloomFilter filter = new BloomFilter(10_000, 0.01);
+        SplittableRandom random = new SplittableRandom(7);
+        for (int i = 0; i < 10_000; i++) {
+            filter.put(random.nextLong(), random.nextLong());
+        }
+
+        // Act
+        int falsePositives = 0;
+        for (int i = 0; i < 100_000; i++) {
+            if (filter.mightContain(random.nextLong(), random.nextLong())) {
+                falsePositives++;
+            }
+        }
+
+        // Assert
+        assertTrue(falsePositives < 2_000, "False positive rate too high: " + falsePositives);
+    }
+}